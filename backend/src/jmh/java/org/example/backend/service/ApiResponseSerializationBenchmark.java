@@ -0,0 +1,60 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.model.CardStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of a card list response, written to a discarding stream the way the
+ * message converter writes to the servlet response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ApiResponse<List<CardResponseDto>> response;
+
+    @Setup
+    public void setUp() {
+        List<CardResponseDto> cards = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            cards.add(new CardResponseDto((long) i, "Black Lotus " + i, "lea-" + i,
+                    "user_2abcdefghijklmnop", "collector", CardStatus.FOR_SALE, BigDecimal.valueOf(i, 2)));
+        }
+        response = new ApiResponse<>(true, cards, "Cards fetched successfully.");
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
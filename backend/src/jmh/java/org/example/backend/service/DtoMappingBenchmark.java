@@ -0,0 +1,104 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.ChatMessage;
+import org.example.backend.model.Message;
+import org.example.backend.model.User;
+import org.example.backend.model.UserIdentity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a whole result list, as done by the collection, marketplace and chat history reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DtoMappingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private final CardService cardService = new CardService(null, null, null, null, null);
+    private final MarketplaceService marketplaceService = new MarketplaceService(null, null, null, null, null, null);
+    private final ChatService chatService = new ChatService(null, null, null, null, null);
+
+    private List<Card> cards;
+    private List<Message> messages;
+    private UserIdentity owner;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(1L).clerkUserId("user_2abcdefghijklmnop").username("collector").build();
+        owner = UserIdentity.of(user);
+        cards = new ArrayList<>(rows);
+        messages = new ArrayList<>(rows);
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < rows; i++) {
+            cards.add(Card.builder()
+                    .id((long) i)
+                    .name("Black Lotus " + i)
+                    .cardId("lea-" + i)
+                    .user(user)
+                    .status(CardStatus.FOR_SALE)
+                    .price(BigDecimal.valueOf(i, 2))
+                    .build());
+            messages.add(Message.builder()
+                    .id((long) i)
+                    .senderClerkId("user_2abcdefghijklmnop")
+                    .recipientClerkId("user_2qrstuvwxyzabcdef")
+                    .senderUsername("collector")
+                    .recipientUsername("trader")
+                    .content("Would you take 20 for card " + i + "?")
+                    .timestamp(start.plusMillis(i * 1337L))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<CardResponseDto> cardServiceToDto() {
+        List<CardResponseDto> result = new ArrayList<>(rows);
+        for (Card card : cards) {
+            result.add(cardService.toDto(card, owner));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<CardResponseDto> marketplaceServiceToDto() {
+        List<CardResponseDto> result = new ArrayList<>(rows);
+        for (Card card : cards) {
+            result.add(marketplaceService.toDto(card));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ChatMessage> chatServiceToDto() {
+        List<ChatMessage> result = new ArrayList<>(rows);
+        for (Message message : messages) {
+            result.add(chatService.toDto(message));
+        }
+        return result;
+    }
+}
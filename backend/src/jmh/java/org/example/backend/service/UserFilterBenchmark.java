@@ -0,0 +1,68 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.UserDto;
+import org.example.backend.model.User;
+import org.example.backend.repository.ConversationRepository;
+import org.example.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The in-memory part of the user directory: mapping one page of users to DTOs and encoding its cursor.
+ * Filtering out the caller and paging happen in the query, so {@code rows} is the page the repository returns,
+ * not the number of users. The repository is stubbed, so the numbers exclude the query itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserFilterBenchmark {
+
+    @Param({"20", "100"})
+    private int rows;
+
+    private UserService userService;
+    private String currentUser;
+
+    @Setup
+    public void setUp() {
+        // One row more than the page, as the service fetches it
+        List<User> users = new ArrayList<>(rows + 1);
+        for (int i = 0; i <= rows; i++) {
+            users.add(User.builder().id((long) i).clerkUserId("user_" + i).username("collector" + i).build());
+        }
+        currentUser = "user_" + (rows + 1); // Never on the page: the query excludes the caller
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findDirectoryPage(any(), any(), any(), any(), any())).thenReturn(users);
+        userService = new UserService(userRepository, mock(ConversationRepository.class),
+                Caffeine.newBuilder().build(), mock(PlatformTransactionManager.class));
+    }
+
+    @Benchmark
+    public CursorPageDto<UserDto> getChatUserPage() {
+        return userService.getChatUserPage(currentUser, null, null, rows);
+    }
+}
@@ -33,7 +33,6 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
         if (StompCommand.CONNECT.equals(accessor.getCommand())) {
             // "nativeHeaders" are the headers sent by the client in the STOMP connect frame
             String authHeader = accessor.getFirstNativeHeader("Authorization");
-            log.info("Authorization header: {}", authHeader);
 
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
@@ -43,7 +42,7 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
 
                     // This is the crucial part: we set the user for the WebSocket session
                     accessor.setUser(authentication);
-                    log.info("Authenticated user {} for WebSocket session.", authentication.getName());
+                    log.debug("Authenticated user {} for WebSocket session.", authentication.getName());
                 } catch (Exception e) {
                     log.error("WebSocket authentication failed: {}", e.getMessage());
                     // You could throw an exception here to deny the connection
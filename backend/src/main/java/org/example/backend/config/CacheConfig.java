@@ -0,0 +1,45 @@
+package org.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.model.CardCatalogEntry;
+import org.example.backend.model.UserIdentity;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * clerkUserId -> user identity, in front of UserRepository.
+     * Hit/miss/eviction counts are published as the "cache.*" meters tagged cache=userIdentity.
+     */
+    @Bean
+    public Cache<String, UserIdentity> userIdentityCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        Cache<String, UserIdentity> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "userIdentity");
+    }
+
+    /**
+     * cardId -> catalog entry, in front of CardCatalogRepository.
+     * Cards that are not in the catalog are cached as empty, so unknown ids do not hit the database on every read.
+     */
+    @Bean
+    public Cache<String, Optional<CardCatalogEntry>> cardCatalogCache(CardCatalogProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        Cache<String, Optional<CardCatalogEntry>> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaximumSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "cardCatalog");
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link JwtDecoder} for the Clerk issuer that avoids repeating work on hot paths.
+ * <ul>
+ *     <li>Tokens that verified successfully are remembered by their SHA-256 hash until they expire
+ *     (bounded by a maximum TTL), so a client reusing its token skips the signature check.</li>
+ *     <li>Issuer discovery and the first JWKS download happen while the application starts,
+ *     not on the first request. If the issuer is unreachable at startup this is retried lazily.</li>
+ *     <li>The JWK set is refreshed in the background before it expires, so key rotation never
+ *     stalls a request.</li>
+ * </ul>
+ * Only successful verifications are cached; a rejected token is checked again every time.
+ */
+public class CachingJwtDecoder implements JwtDecoder, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    private final String issuerUri;
+    private final JwtCacheProperties properties;
+    private final Cache<String, Jwt> verifiedTokens;
+
+    private volatile NimbusJwtDecoder delegate;
+    private volatile JWKSource<SecurityContext> jwkSource;
+
+    public CachingJwtDecoder(String issuerUri, JwtCacheProperties properties) {
+        this.issuerUri = issuerUri;
+        this.properties = properties;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCacheMaximumSize())
+                .expireAfter(new TokenExpiry(properties.getTokenCacheMaxTtl()))
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.getExpiresAt() != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+        Jwt jwt = delegate().decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Resolves the issuer and downloads its keys before the application starts serving requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            delegate();
+            jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            log.info("Resolved JWT issuer {} and prefetched its signing keys.", issuerUri);
+        } catch (Exception e) {
+            log.warn("Could not resolve JWT issuer {} at startup, will retry on first use: {}", issuerUri, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (jwkSource instanceof Closeable closeable) {
+            closeable.close(); // Stops the background refresh
+        }
+    }
+
+    private NimbusJwtDecoder delegate() {
+        NimbusJwtDecoder current = delegate;
+        if (current == null) {
+            synchronized (this) {
+                current = delegate;
+                if (current == null) {
+                    current = buildDelegate();
+                    delegate = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private NimbusJwtDecoder buildDelegate() {
+        Map<String, Object> configuration = RestClient.create()
+                .get()
+                .uri(URI.create(issuerUri.replaceAll("/+$", "") + "/.well-known/openid-configuration"))
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+        if (configuration == null || !issuerUri.equals(configuration.get("issuer")) || configuration.get("jwks_uri") == null) {
+            throw new IllegalStateException("Issuer discovery for " + issuerUri + " returned an unusable configuration.");
+        }
+
+        JWKSource<SecurityContext> source;
+        try {
+            source = JWKSourceBuilder.<SecurityContext>create(new URL((String) configuration.get("jwks_uri")))
+                    .cache(properties.getJwksCacheTtl().toMillis(), properties.getJwksRefreshTimeout().toMillis())
+                    .refreshAheadCache(properties.getJwksRefreshAhead().toMillis(), true)
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid jwks_uri for issuer " + issuerUri, e);
+        }
+
+        Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.SIGNATURE);
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, source));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+            // Claims are validated by Spring's validators below
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        this.jwkSource = source;
+        return decoder;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Keeps each verified token until it expires, or for at most {@code maxTtl}. */
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return Math.min(untilExpiry.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
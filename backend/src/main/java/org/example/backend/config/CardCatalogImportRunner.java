@@ -0,0 +1,50 @@
+package org.example.backend.config;
+
+import org.example.backend.service.CardCatalogImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports the catalog dump named by {@code binderbase.catalog.import-file} on startup.
+ * Re-importing the same file is harmless, existing cards are overwritten.
+ */
+@Component
+public class CardCatalogImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CardCatalogImportRunner.class);
+
+    private final CardCatalogImporter importer;
+    private final CardCatalogProperties properties;
+
+    public CardCatalogImportRunner(CardCatalogImporter importer, CardCatalogProperties properties) {
+        this.importer = importer;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String importFile = properties.getImportFile();
+        if (importFile == null || importFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(importFile);
+        log.info("Importing card catalog from {}.", path);
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path));
+             InputStream in = importFile.endsWith(".gz") ? new GZIPInputStream(file) : file) {
+            importer.importFrom(in);
+        } catch (IOException e) {
+            // The catalog only enriches responses, so a bad dump should not keep the backend from starting
+            log.error("Card catalog import from {} failed.", path, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local card catalog: the startup import and the cardId to catalog entry cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.catalog")
+public class CardCatalogProperties {
+
+    /** A catalog dump (JSON array, {"cards": [...]} or NDJSON) imported on startup; nothing is imported when unset. */
+    private String importFile;
+
+    /** Number of cards written per JDBC batch and transaction during an import. */
+    private int importBatchSize = 1000;
+
+    /** Maximum number of catalog entries kept in memory; least recently used entries are evicted first. */
+    private long cacheMaximumSize = 100_000;
+
+    /** How long a cached entry is trusted before it is re-read, bounding staleness after an import on another node. */
+    private Duration cacheTtl = Duration.ofHours(6);
+}
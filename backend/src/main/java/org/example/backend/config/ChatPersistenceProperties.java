@@ -0,0 +1,42 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the write-behind pipeline that persists chat messages in batches.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.chat.persistence")
+public class ChatPersistenceProperties {
+
+    public enum Durability {
+        /** The recipient receives a message only once it has been committed to the database. */
+        ACK_AFTER_PERSIST,
+
+        /**
+         * The recipient receives a message as soon as it is queued.
+         * Lowest latency; messages still in the queue are lost if the process dies.
+         */
+        ACK_AFTER_ENQUEUE
+    }
+
+    private Durability durability = Durability.ACK_AFTER_PERSIST;
+
+    /** Maximum number of messages waiting to be written. */
+    private int queueCapacity = 10_000;
+
+    /** Maximum number of messages written in one transaction / JDBC batch. */
+    private int batchSize = 200;
+
+    /** How long the writer waits for more messages to fill a batch. Zero writes whatever is queued immediately. */
+    private Duration flushInterval = Duration.ofMillis(10);
+
+    /** How long a sender may block when the queue is full before the message is rejected. */
+    private Duration enqueueTimeout = Duration.ofMillis(250);
+
+    /** How long shutdown waits for the queue to drain. */
+    private Duration shutdownTimeout = Duration.ofSeconds(15);
+}
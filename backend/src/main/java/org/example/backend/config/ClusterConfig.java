@@ -0,0 +1,103 @@
+package org.example.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.service.ClusterMessageRouter;
+import org.example.backend.service.ClusterTransport;
+import org.example.backend.service.InMemoryClusterBus;
+import org.example.backend.service.LocalSessionRegistry;
+import org.example.backend.service.PostgresClusterTransport;
+import org.example.backend.service.PostgresSessionRouteDirectory;
+import org.example.backend.service.SessionRouteDirectory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires STOMP delivery across instances. {@code binderbase.cluster.mode=local} (the default) keeps
+ * everything in this process; {@code postgres} connects the instances through the shared database.
+ */
+@Configuration
+public class ClusterConfig {
+
+    private final String nodeId;
+
+    public ClusterConfig(ClusterProperties properties) {
+        this.nodeId = resolveNodeId(properties);
+    }
+
+    private static String resolveNodeId(ClusterProperties properties) {
+        if (StringUtils.hasText(properties.getNodeId())) {
+            return properties.getNodeId();
+        }
+        String hostname = System.getenv("HOSTNAME");
+        if (StringUtils.hasText(hostname)) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "binderbase.cluster.mode", havingValue = "local", matchIfMissing = true)
+    public InMemoryClusterBus inMemoryClusterBus() {
+        return new InMemoryClusterBus();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "binderbase.cluster.mode", havingValue = "postgres")
+    public PostgresClusterTransport postgresClusterTransport(JdbcTemplate jdbcTemplate,
+                                                             DataSourceProperties dataSourceProperties) {
+        return new PostgresClusterTransport(jdbcTemplate, dataSourceProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "binderbase.cluster.mode", havingValue = "postgres")
+    public PostgresSessionRouteDirectory postgresSessionRouteDirectory(JdbcTemplate jdbcTemplate,
+                                                                       ClusterProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        // userId -> instances holding a session of the user, published as the "cache.*" meters tagged cache=sessionRoutes
+        Cache<String, Set<String>> routeCache = Caffeine.newBuilder()
+                .maximumSize(properties.getRouteCacheMaximumSize())
+                .expireAfterWrite(properties.getRouteCacheTtl())
+                .recordStats()
+                .build();
+        return new PostgresSessionRouteDirectory(jdbcTemplate, nodeId, properties,
+                CaffeineCacheMetrics.monitor(meterRegistry, routeCache, "sessionRoutes"));
+    }
+
+    @Bean
+    public LocalSessionRegistry localSessionRegistry(SessionRouteDirectory directory) {
+        // A single writer thread, so route changes that arrive while it is busy are written together
+        return new LocalSessionRegistry(nodeId, directory, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-route-writer");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    @Bean
+    public ClusterMessageRouter clusterMessageRouter(LocalSessionRegistry sessionRegistry,
+                                                     SessionRouteDirectory directory,
+                                                     ClusterTransport transport,
+                                                     SimpMessagingTemplate messagingTemplate,
+                                                     ObjectMapper objectMapper) {
+        return new ClusterMessageRouter(sessionRegistry, directory, transport, messagingTemplate, objectMapper);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for delivering STOMP messages across several backend instances.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.cluster")
+public class ClusterProperties {
+
+    public enum Mode {
+        /** Single instance: messages are only delivered to sessions connected to this process. */
+        LOCAL,
+
+        /** Several instances sharing the PostgreSQL database, connected through LISTEN/NOTIFY. */
+        POSTGRES
+    }
+
+    private Mode mode = Mode.LOCAL;
+
+    /** Unique name of this instance. Defaults to the host name (the pod name on Kubernetes). */
+    private String nodeId;
+
+    /** How often this instance announces that it is alive. */
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+    /** Instances that have not announced themselves for this long are considered gone. */
+    private Duration nodeTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long the instances holding a user's sessions are cached for routing. Route changes are relayed
+     * to every instance and drop the entries sooner; the TTL only bounds the damage of a lost notification.
+     */
+    private Duration routeCacheTtl = Duration.ofSeconds(10);
+
+    /** Maximum number of users whose routes are cached. */
+    private long routeCacheMaximumSize = 100_000;
+}
@@ -0,0 +1,32 @@
+package org.example.backend.config;
+
+import org.example.backend.service.ChatService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the conversations table from existing chat history on the first start after it was introduced.
+ * Later starts only pay for a single-row existence check.
+ */
+@Component
+public class ConversationBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationBackfillRunner.class);
+
+    private final ChatService chatService;
+
+    public ConversationBackfillRunner(ChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int created = chatService.backfillConversations();
+        if (created > 0) {
+            log.info("Created {} conversation summaries from existing chat history.", created);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for JWT verification: the verified-token cache and the JWKS key cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.security.jwt")
+public class JwtCacheProperties {
+
+    /** Maximum number of verified tokens remembered. */
+    private long tokenCacheMaximumSize = 100_000;
+
+    /** Upper bound on how long a verified token is remembered, even if it expires later. */
+    private Duration tokenCacheMaxTtl = Duration.ofMinutes(5);
+
+    /** How long a fetched JWK set is used before it must be refreshed. */
+    private Duration jwksCacheTtl = Duration.ofMinutes(15);
+
+    /** How long before the JWK set expires a background refresh starts. */
+    private Duration jwksRefreshAhead = Duration.ofMinutes(1);
+
+    /** Maximum time a request waits for a JWK set refresh in progress. */
+    private Duration jwksRefreshTimeout = Duration.ofSeconds(5);
+}
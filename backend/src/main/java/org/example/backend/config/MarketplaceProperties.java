@@ -0,0 +1,26 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the marketplace change feed.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.marketplace")
+public class MarketplaceProperties {
+
+    /** How long changes are kept for clients to resume from; a client away for longer refetches the listings. */
+    private Duration eventRetention = Duration.ofHours(24);
+
+    /** Most changes replayed to a resuming client; further behind, refetching the listings is cheaper. */
+    private int maxResumeEvents = 1000;
+
+    /**
+     * Longest a change may take to commit once it has its sequence number. Resuming clients are not moved past
+     * newer changes, so that one committing after a change with a higher number is not skipped.
+     */
+    private Duration eventSettleTime = Duration.ofSeconds(10);
+}
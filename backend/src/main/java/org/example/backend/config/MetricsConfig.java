@@ -0,0 +1,67 @@
+package org.example.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.backend.service.ChatPersistencePipeline;
+import org.example.backend.service.LocalSessionRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Application meters, published on /actuator/prometheus next to the built-in JVM, HTTP,
+ * Hikari and Hibernate ones.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Backs the {@code @Timed} annotations on the service classes ("binderbase.service" timers,
+     * tagged with class and method).
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder websocketMetrics(LocalSessionRegistry sessionRegistry,
+                                        @Qualifier("clientInboundChannelExecutor") Executor inboundExecutor,
+                                        @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor,
+                                        @Qualifier("brokerChannelExecutor") Executor brokerExecutor) {
+        return registry -> {
+            Gauge.builder("binderbase.websocket.sessions", sessionRegistry, LocalSessionRegistry::getLocalSessionCount)
+                    .description("STOMP sessions connected to this instance")
+                    .register(registry);
+            Gauge.builder("binderbase.websocket.users", sessionRegistry, LocalSessionRegistry::getLocalUserCount)
+                    .description("Distinct users with a STOMP session on this instance")
+                    .register(registry);
+            registerQueueDepth(registry, "inbound", inboundExecutor);
+            registerQueueDepth(registry, "outbound", outboundExecutor);
+            registerQueueDepth(registry, "broker", brokerExecutor);
+        };
+    }
+
+    @Bean
+    public MeterBinder chatPersistenceMetrics(ChatPersistencePipeline persistencePipeline) {
+        return registry -> Gauge.builder("binderbase.chat.persistence.queue.depth",
+                        persistencePipeline, ChatPersistencePipeline::getQueueDepth)
+                .description("Chat messages accepted but not yet written to the database")
+                .register(registry);
+    }
+
+    // Virtual-thread executors have no queue to report
+    private static void registerQueueDepth(MeterRegistry registry, String channel, Executor executor) {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            Gauge.builder("binderbase.websocket.queue.depth", pool, p -> p.getThreadPoolExecutor().getQueue().size())
+                    .description("Messages waiting for a thread on a STOMP channel")
+                    .tag("channel", channel)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.config;
+
+import org.example.backend.model.Card;
+import org.example.backend.model.Message;
+import org.example.backend.repository.SequenceIdAllocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Assigns chat message ids up front, so a message can be delivered before it is written.
+     * One nextval per message rather than a block: readers page and resume by id, so ids must follow the
+     * order messages are sent in across every node, not only within one. Nodes can still commit up to a flush
+     * interval apart out of id order; the recipient gets such a message with their pending messages.
+     */
+    @Bean
+    public SequenceIdAllocator chatMessageIdAllocator(JdbcTemplate jdbcTemplate) {
+        return new SequenceIdAllocator(jdbcTemplate, Message.ID_SEQUENCE, 1);
+    }
+
+    /**
+     * Assigns card ids for bulk imports, which insert through JDBC batches rather than Hibernate.
+     */
+    @Bean
+    public SequenceIdAllocator cardIdAllocator(JdbcTemplate jdbcTemplate) {
+        return new SequenceIdAllocator(jdbcTemplate, Card.ID_SEQUENCE, Card.ID_ALLOCATION_SIZE);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for online status tracking.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.presence")
+public class PresenceProperties {
+
+    /** How long changes are collected before they are published; a user reconnecting within it causes no change. */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /** Most users a single presence lookup may ask for. */
+    private int maxLookupSize = 200;
+}
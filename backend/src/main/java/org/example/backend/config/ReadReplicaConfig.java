@@ -0,0 +1,123 @@
+package org.example.backend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource when {@code binderbase.datasource.replica-urls} is set:
+ * transactions marked {@code readOnly} run on a replica, everything else on the primary.
+ * <p>
+ * The routing is left to {@link LazyConnectionDataSourceProxy}, which holds off fetching the physical
+ * connection until the transaction's read-only flag is known. Health indicators and Hikari metrics see a
+ * single DataSource backed by the primary, so a replica going away does not take the instance out of service.
+ */
+@Configuration
+@ConditionalOnExpression("'${binderbase.datasource.replica-urls:}' != ''")
+public class ReadReplicaConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final ReadReplicaProperties properties;
+
+    private HikariDataSource primary;
+    private ReadReplicaDataSource replicas;
+
+    public ReadReplicaConfig(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (!StringUtils.hasText(primary.getPoolName())) {
+            primary.setPoolName("primary");
+        }
+
+        List<ReadReplicaDataSource.Replica> replicaPools = new ArrayList<>();
+        for (String url : properties.getReplicaUrls()) {
+            String name = "replica-" + (replicaPools.size() + 1);
+            replicaPools.add(new ReadReplicaDataSource.Replica(name, createReplicaPool(name, url.trim())));
+        }
+        replicas = new ReadReplicaDataSource(primary, replicaPools, properties.getMaxReplicationLag());
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        return proxy;
+    }
+
+    /**
+     * Open-in-view keeps the Hibernate session for the whole request, and by default its connection too, so
+     * a read-only transaction followed by a write would send the write to the replica. Releasing the
+     * connection after each transaction lets every transaction pick its own pool.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private HikariDataSource createReplicaPool(String name, String url) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        if (StringUtils.hasText(properties.getReplicaUsername())) {
+            config.setUsername(properties.getReplicaUsername());
+            config.setPassword(properties.getReplicaPassword());
+        }
+        config.setMaximumPoolSize(properties.getReplicaPoolSize());
+        if (config.getMinimumIdle() > properties.getReplicaPoolSize()) {
+            config.setMinimumIdle(properties.getReplicaPoolSize());
+        }
+        config.setConnectionTimeout(properties.getReplicaConnectionTimeout().toMillis());
+        config.setReadOnly(true);
+        // Start even when a replica is down; the health check takes it out of rotation
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    @Scheduled(fixedDelayString = "${binderbase.datasource.health-check-interval:5s}")
+    public void checkReplicas() {
+        if (replicas != null) {
+            replicas.checkHealth();
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Also without a read-your-writes window, as it pins each request to one replica
+        Duration window = properties.getReadYourWritesWindow().isNegative()
+                ? Duration.ZERO : properties.getReadYourWritesWindow();
+        registry.addInterceptor(new ReadYourWritesInterceptor(window, properties.getReadYourWritesMaximumSize()));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (replicas != null) {
+            replicas.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out connections to the read replicas, round robin over the healthy ones. A replica that fails
+ * to connect or lags too far behind is skipped until the next health check finds it usable again, and
+ * the primary is used when no replica is.
+ * <p>
+ * Used as the read-only target of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so only transactions marked read-only get here.
+ * <p>
+ * A thread can be kept on the primary, or pinned to the first replica it reads from, with a {@link Route}. A
+ * replica only moves forward, so reads on one replica never see the data go back in time, e.g. a view read
+ * after its ETag is never older than the tag.
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Replication lag in seconds; 0 on a primary and on a replica that has replayed all it received,
+     * as pg_last_xact_replay_timestamp() stays put while nothing is written.
+     */
+    static final String REPLICATION_LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                        THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    private static final ThreadLocal<Route> route = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxReplicationLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaDataSource(DataSource primary, List<Replica> replicas, Duration maxReplicationLag) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxReplicationLagSeconds = maxReplicationLag.toMillis() / 1000.0;
+    }
+
+    /**
+     * Sends the read-only transactions of the current thread to the primary, until {@link #clearRoute()}.
+     */
+    public static void usePrimaryOnly() {
+        route.set(new Route(true));
+    }
+
+    /**
+     * Sends the read-only transactions of the current thread to the replica the first of them runs on, until
+     * {@link #clearRoute()}. Should that replica fail, they go to the primary, as any other replica may be
+     * further behind.
+     */
+    public static void pinReplica() {
+        route.set(new Route(false));
+    }
+
+    public static void clearRoute() {
+        route.remove();
+    }
+
+    /**
+     * @return The current thread's route, to carry over to another thread with {@link #setRoute}; null if none.
+     */
+    public static Route currentRoute() {
+        return route.get();
+    }
+
+    /**
+     * Puts the current thread on a route taken from another thread, null for none.
+     * @return The route the thread was on, to put back afterwards.
+     */
+    public static Route setRoute(Route newRoute) {
+        Route previous = route.get();
+        if (newRoute == null) {
+            route.remove();
+        } else {
+            route.set(newRoute);
+        }
+        return previous;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        Route current = route.get();
+        if (replicas.isEmpty() || current != null && current.primaryOnly) {
+            return source.connect(primary);
+        }
+        Replica pinned = current != null ? current.replica.get() : null;
+        if (pinned != null) {
+            if (pinned.healthy) {
+                try {
+                    return source.connect(pinned.dataSource);
+                } catch (SQLException e) {
+                    markHealthy(pinned, false, e.getMessage());
+                }
+            }
+            current.primaryOnly = true;
+            return source.connect(primary);
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = source.connect(replica.dataSource);
+                if (current != null) {
+                    current.replica.compareAndSet(null, replica);
+                }
+                return connection;
+            } catch (SQLException e) {
+                markHealthy(replica, false, e.getMessage());
+            }
+        }
+        if (current != null) {
+            current.primaryOnly = true;
+        }
+        return source.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * Probes every replica; called on {@code binderbase.datasource.health-check-interval}.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_SQL)) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                markHealthy(replica, lagSeconds <= maxReplicationLagSeconds,
+                        "replication lag of " + lagSeconds + "s");
+            } catch (SQLException e) {
+                markHealthy(replica, false, e.getMessage());
+            }
+        }
+    }
+
+    public long getHealthyReplicaCount() {
+        return replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private static void markHealthy(Replica replica, boolean healthy, String reason) {
+        if (replica.healthy == healthy) {
+            return;
+        }
+        replica.healthy = healthy;
+        if (healthy) {
+            log.info("Read replica {} is back in use", replica.name);
+        } else {
+            log.warn("Read replica {} is skipped until it recovers: {}", replica.name, reason);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Where a thread's read-only transactions go: the primary, or the replica pinned by the first of them.
+     */
+    public static final class Route {
+
+        private volatile boolean primaryOnly;
+        private final AtomicReference<Replica> replica = new AtomicReference<>();
+
+        private Route(boolean primaryOnly) {
+            this.primaryOnly = primaryOnly;
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas for read-only transactions. Nothing is routed unless {@code replica-urls} is set.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.datasource")
+public class ReadReplicaProperties {
+
+    /** JDBC urls of the replicas, comma separated; read-only transactions are spread over them. */
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /** Replica credentials; the primary's ({@code spring.datasource.*}) when empty. */
+    private String replicaUsername;
+
+    private String replicaPassword;
+
+    /** Connections per replica pool. */
+    private int replicaPoolSize = 10;
+
+    /**
+     * How long a read waits for a replica connection before it falls back to the primary; kept short so
+     * a replica that went away costs little until the next health check notices.
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(2);
+
+    /** How often each replica is probed for availability and replication lag. */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** A replica further behind the primary than this is skipped until it has caught up. */
+    private Duration maxReplicationLag = Duration.ofSeconds(10);
+
+    /**
+     * After a user changes something, their reads go to the primary for this long so they see their own
+     * write even when the replicas lag. Zero turns it off.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    /** Maximum number of users remembered for the read-your-writes window. */
+    private long readYourWritesMaximumSize = 100_000;
+}
@@ -0,0 +1,79 @@
+package org.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a user's reads on the primary for a while after they changed something, so a list fetched right
+ * after a write does not come from a replica that has not received it yet. Remembered per instance.
+ * Everyone else's requests are pinned to one replica, so a view is never older than the ETag read before it.
+ * <p>
+ * The route is thread-bound, so it is cleared when an async request hands its thread back as well as when a
+ * request completes; the async dispatch that finishes the request sets it again in {@link #preHandle}.
+ * A body streamed on another thread takes the route along with {@link #onRequestRoute}.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window, long maximumSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && recentWriters.getIfPresent(principal.getName()) != null) {
+            ReadReplicaDataSource.usePrimaryOnly();
+        } else {
+            ReadReplicaDataSource.pinReplica();
+        }
+        return true;
+    }
+
+    /**
+     * Wraps a response body so that it reads where the current request does, on whichever thread writes it.
+     * Called on the request thread, by the handler.
+     */
+    public static StreamingResponseBody onRequestRoute(StreamingResponseBody body) {
+        ReadReplicaDataSource.Route route = ReadReplicaDataSource.currentRoute();
+        return out -> {
+            ReadReplicaDataSource.Route previous = ReadReplicaDataSource.setRoute(route);
+            try {
+                body.writeTo(out);
+            } finally {
+                ReadReplicaDataSource.setRoute(previous);
+            }
+        };
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadReplicaDataSource.clearRoute();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadReplicaDataSource.clearRoute();
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && !READ_METHODS.contains(request.getMethod())
+                && ex == null && response.getStatus() < 400) {
+            recentWriters.put(principal.getName(), Boolean.TRUE);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 import static org.springframework.security.config.Customizer.withDefaults;
@@ -44,10 +43,11 @@ public class SecurityConfig {
 
     /**
      * This is required for both your REST controllers AND our AuthChannelInterceptor.
-     * It tells Spring how to validate the JWTs from Clerk.
+     * It tells Spring how to validate the JWTs from Clerk, resolving the issuer at startup
+     * and remembering tokens that already passed verification.
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withIssuerLocation(this.issuerUri).build();
+    public JwtDecoder jwtDecoder(JwtCacheProperties jwtCacheProperties) {
+        return new CachingJwtDecoder(this.issuerUri, jwtCacheProperties);
     }
 }
\ No newline at end of file
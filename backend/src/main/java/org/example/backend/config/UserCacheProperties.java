@@ -0,0 +1,20 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory clerkUserId to user identity cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.users.cache")
+public class UserCacheProperties {
+
+    /** Maximum number of identities kept; least recently used entries are evicted first. */
+    private long maximumSize = 50_000;
+
+    /** How long an identity is trusted before it is re-read, bounding staleness across nodes. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
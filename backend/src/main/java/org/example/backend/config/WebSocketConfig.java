@@ -1,34 +1,88 @@
 package org.example.backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired; // Import Autowired
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration; // Import ChannelRegistration
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger log = LoggerFactory.getLogger(WebSocketConfig.class);
+
     @Autowired
     private AuthChannelInterceptor authChannelInterceptor;
 
+    @Autowired
+    private WebSocketProperties properties;
+
+    // Lazy: the scheduler is itself created by the message broker configuration
+    @Autowired
+    @Lazy
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS()
+                .setHeartbeatTime(properties.getSockJsHeartbeat().toMillis())
+                .setDisconnectDelay(properties.getSockJsDisconnectDelay().toMillis());
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/topic", "/user");
+        registry.enableSimpleBroker("/topic", "/user")
+                .setHeartbeatValue(new long[]{
+                        properties.getServerHeartbeat().toMillis(),
+                        properties.getClientHeartbeat().toMillis()})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         registry.setUserDestinationPrefix("/user");
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(authChannelInterceptor);
+        configureExecutor(registration, properties.getInbound(), "ws-inbound-");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureExecutor(registration, properties.getOutbound(), "ws-outbound-");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) properties.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit((int) properties.getSendBufferSizeLimit().toBytes())
+                .setMessageSizeLimit((int) properties.getMessageSizeLimit().toBytes())
+                .setTimeToFirstMessage((int) properties.getTimeToFirstMessage().toMillis());
+    }
+
+    private void configureExecutor(ChannelRegistration registration, WebSocketProperties.Pool pool, String threadNamePrefix) {
+        if (properties.isVirtualThreads()) {
+            try {
+                registration.executor(new VirtualThreadTaskExecutor(threadNamePrefix));
+                return;
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads need a Java 21 runtime, using the {}* thread pool instead.", threadNamePrefix);
+            }
+        }
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity())
+                .keepAliveSeconds((int) pool.getKeepAlive().toSeconds());
     }
 }
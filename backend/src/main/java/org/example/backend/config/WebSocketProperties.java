@@ -0,0 +1,62 @@
+package org.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Thread pools, per-session limits and heartbeats of the STOMP endpoint.
+ */
+@Data
+@ConfigurationProperties(prefix = "binderbase.websocket")
+public class WebSocketProperties {
+
+    /**
+     * Run the inbound and outbound channels on virtual threads instead of the pools below.
+     * Requires a Java 21 runtime; ignored (with a warning) on older runtimes.
+     */
+    private boolean virtualThreads = false;
+
+    /** Handles frames received from clients (authentication, @MessageMapping methods). */
+    private Pool inbound = new Pool();
+
+    /** Writes frames to client sessions. */
+    private Pool outbound = new Pool();
+
+    /** A session whose current send takes longer than this is closed. */
+    private Duration sendTimeLimit = Duration.ofSeconds(10);
+
+    /** A session that has more than this buffered behind a slow send is closed. */
+    private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+    /** Largest inbound STOMP message. */
+    private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+
+    /** Connections that send nothing within this time after opening are closed. */
+    private Duration timeToFirstMessage = Duration.ofSeconds(30);
+
+    /** How often the broker sends STOMP heartbeats; zero disables them. */
+    private Duration serverHeartbeat = Duration.ofSeconds(10);
+
+    /** How often the broker expects heartbeats from clients; silent sessions are closed. */
+    private Duration clientHeartbeat = Duration.ofSeconds(10);
+
+    /** SockJS heartbeat for transports without STOMP heartbeats, e.g. while connecting. */
+    private Duration sockJsHeartbeat = Duration.ofSeconds(25);
+
+    /** How long a SockJS session survives without a receiving connection (polling transports). */
+    private Duration sockJsDisconnectDelay = Duration.ofSeconds(5);
+
+    @Data
+    public static class Pool {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 8;
+
+        /** Tasks queued before the pool grows beyond its core size. */
+        private int queueCapacity = 10000;
+
+        private Duration keepAlive = Duration.ofSeconds(60);
+    }
+}
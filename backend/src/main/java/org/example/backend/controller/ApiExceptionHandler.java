@@ -0,0 +1,43 @@
+package org.example.backend.controller;
+
+import org.example.backend.dto.ApiResponse;
+import org.example.backend.exception.CardAccessDeniedException;
+import org.example.backend.exception.CardNotFoundException;
+import org.example.backend.exception.CardStateConflictException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns the exceptions services throw for bad requests into error responses in the usual
+ * {@link ApiResponse} shape, instead of a 500.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(CardNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleNotFound(CardNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(CardAccessDeniedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAccessDenied(CardAccessDeniedException e) {
+        return error(HttpStatus.FORBIDDEN, e);
+    }
+
+    @ExceptionHandler(CardStateConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleConflict(CardStateConflictException e) {
+        return error(HttpStatus.CONFLICT, e);
+    }
+
+    /** Services validate their input with IllegalArgumentException, e.g. a non-positive price or a bad cursor. */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+
+    private static ResponseEntity<ApiResponse<Void>> error(HttpStatus status, RuntimeException e) {
+        return ResponseEntity.status(status).body(new ApiResponse<>(false, null, e.getMessage()));
+    }
+}
@@ -1,13 +1,22 @@
 package org.example.backend.controller;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.ChatAckDto;
+import org.example.backend.dto.ChatErrorDto;
+import org.example.backend.dto.ConversationDto;
 import org.example.backend.model.ChatMessage;
+import org.example.backend.service.ChatReceiptService;
 import org.example.backend.service.ChatService;
+import org.example.backend.service.ClusterMessageRouter;
 import org.example.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.slf4j.Logger;
@@ -15,7 +24,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin
 @RestController
@@ -24,50 +37,145 @@ public class ChatController {
 
     private static final Logger log = LoggerFactory.getLogger(ChatController.class);
 
-    private final SimpMessagingTemplate messagingTemplate;
+    /** Where senders are told about messages that were not accepted. */
+    public static final String ERRORS_DESTINATION = "/private-errors";
+
+    private final ClusterMessageRouter messageRouter;
     private final ChatService chatService; // Inject ChatService
     private final UserService userService;
+    private final ChatReceiptService chatReceiptService;
+    private final Timer deliveryLatency;
+    private final Counter failedMessages;
+    // Delivers off the persistence writer thread, which completes the futures of a whole batch
+    private final Executor deliveryExecutor;
 
-    public ChatController(SimpMessagingTemplate messagingTemplate, ChatService chatService, UserService userService) {
-        this.messagingTemplate = messagingTemplate;
+    public ChatController(ClusterMessageRouter messageRouter, ChatService chatService, UserService userService,
+                          ChatReceiptService chatReceiptService, MeterRegistry meterRegistry,
+                          @Qualifier("clientInboundChannelExecutor") Executor deliveryExecutor) {
+        this.messageRouter = messageRouter;
         this.chatService = chatService;
         this.userService = userService;
+        this.chatReceiptService = chatReceiptService;
+        this.deliveryExecutor = deliveryExecutor;
+        this.deliveryLatency = Timer.builder("binderbase.chat.delivery")
+                .description("Time from receiving a chat message to routing it to the recipient")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(50), Duration.ofMillis(250), Duration.ofSeconds(1))
+                .register(meterRegistry);
+        this.failedMessages = Counter.builder("binderbase.chat.messages.failed")
+                .description("Chat messages that could not be accepted for persistence")
+                .register(meterRegistry);
     }
 
     /**
      * WebSocket endpoint for real-time messages.
+     * A message that is not accepted for persistence is reported to its sender on /user/{senderId}/private-errors.
      */
     @MessageMapping("/private-message")
     public void sendPrivateMessage(@Payload ChatMessage message, Principal principal) {
+        long receivedAt = System.nanoTime();
         String authenticatedSenderId = principal.getName();
         message.setSenderClerkId(authenticatedSenderId);
         userService.findOrCreateUser(message.getSenderClerkId(), message.getSenderUsername());
 
-        // Save the message to the database
-        ChatMessage savedMessage = chatService.saveMessage(message);
-        log.info("Saved and routing message from {} to {}", savedMessage.getSenderClerkId(), savedMessage.getRecipientClerkId());
+        // Queue the message for persistence; delivery follows the configured durability mode
+        CompletableFuture<ChatMessage> accepted;
+        try {
+            accepted = chatService.sendMessage(message);
+        } catch (IllegalStateException e) {
+            // The persistence queue is full or shutting down
+            accepted = CompletableFuture.failedFuture(e);
+        }
+        accepted.whenCompleteAsync((savedMessage, failure) -> {
+            if (failure == null) {
+                deliver(savedMessage, receivedAt);
+                return;
+            }
+            failedMessages.increment();
+            log.warn("Chat message from {} was not accepted: {}", authenticatedSenderId, failure.getMessage());
+            messageRouter.sendToUser(authenticatedSenderId, ERRORS_DESTINATION, new ChatErrorDto(
+                    message.getRecipientClerkId(), message.getTimestamp(), "The message could not be sent."));
+        }, deliveryExecutor);
+    }
 
-        //Send the *saved* message (with server timestamp) to the recipient
-        messagingTemplate.convertAndSendToUser(
-                savedMessage.getRecipientClerkId(),
-                "/private",
-                savedMessage
-        );
+    private void deliver(ChatMessage savedMessage, long receivedAt) {
+        try {
+            //Send the *saved* message (with server id and timestamp) to the recipient, on whichever node they are connected
+            messageRouter.sendToUser(
+                    savedMessage.getRecipientClerkId(),
+                    "/private",
+                    savedMessage
+            );
+            deliveryLatency.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            // Saved, so the recipient still gets it with their pending messages
+            log.warn("Chat message {} was not delivered: {}", savedMessage.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Subscribed to by the client after every (re)connect: the messages that arrived while none of the user's
+     * sessions was connected, in one frame. Messages stay pending until acknowledged on {@code /app/chat/ack}.
+     */
+    @SubscribeMapping("/chat/pending")
+    public List<ChatMessage> getPendingMessages(Principal principal) {
+        return chatService.getPendingMessages(principal.getName());
     }
 
     /**
-     * REST endpoint to fetch chat history.
+     * WebSocket endpoint for delivery and read acknowledgements of received messages.
+     * Senders are notified on /user/{senderId}/private-receipts once the acknowledgements are written.
+     */
+    @MessageMapping("/chat/ack")
+    public void acknowledge(@Payload ChatAckDto ack, Principal principal) {
+        chatReceiptService.acknowledge(principal.getName(), ack);
+    }
+
+    /**
+     * REST endpoint to fetch chat history, one page at a time.
+     * {@code before=<id>} pages backwards from a message, {@code since=<id>} returns only newer messages.
      */
     @GetMapping("/history/{recipientClerkId}")
     public ResponseEntity<ApiResponse<List<ChatMessage>>> getChatHistory(
             @PathVariable String recipientClerkId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal Jwt principal) {
 
         String senderClerkId = principal.getSubject(); // Get current user's ID from JWT
-        List<ChatMessage> history = chatService.getConversationHistory(senderClerkId, recipientClerkId);
+        List<ChatMessage> history = chatService.getConversationHistory(senderClerkId, recipientClerkId, before, since, limit);
 
         return ResponseEntity.ok(
                 new ApiResponse<>(true, history, "Chat history fetched successfully.")
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * REST endpoint for the inbox: the user's conversations, most recent first.
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<ApiResponse<List<ConversationDto>>> getInbox(
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal Jwt principal) {
+
+        List<ConversationDto> inbox = chatService.getInbox(principal.getSubject(), limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, inbox, "Inbox fetched successfully.")
+        );
+    }
+
+    /**
+     * REST endpoint to mark a conversation as read by the current user.
+     */
+    @PutMapping("/conversations/{partnerClerkId}/read")
+    public ResponseEntity<ApiResponse<Void>> markConversationRead(
+            @PathVariable String partnerClerkId,
+            @AuthenticationPrincipal Jwt principal) {
+
+        chatService.markConversationRead(principal.getSubject(), partnerClerkId);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, null, "Conversation marked as read.")
+        );
+    }
+}
@@ -1,28 +1,57 @@
 package org.example.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.config.ReadYourWritesInterceptor;
 import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CollectionFileFormat;
+import org.example.backend.dto.CollectionStatsDto;
 import org.example.backend.dto.saveCardDto;
 import org.example.backend.service.CardService;
+import org.example.backend.service.CollectionStatsService;
+import org.example.backend.service.CollectionTransferService;
+import org.example.backend.service.ViewVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.example.backend.dto.ApiResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @CrossOrigin
 @RestController
 @RequestMapping("/api/v1/collection")
 public class CollectionController {
     private final CardService cardService;
+    private final CollectionTransferService transferService;
+    private final CollectionStatsService statsService;
+    private final ViewVersionService viewVersionService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public CollectionController(CardService cardService) {
+    public CollectionController(CardService cardService, CollectionTransferService transferService,
+                                CollectionStatsService statsService, ViewVersionService viewVersionService,
+                                ObjectMapper objectMapper) {
         this.cardService = cardService;
+        this.transferService = transferService;
+        this.statsService = statsService;
+        this.viewVersionService = viewVersionService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -33,12 +62,87 @@ public class CollectionController {
         );
     }
 
+    /**
+     * Answers 304 Not Modified, without reading any card, if the If-None-Match ETag is still current.
+     */
     @GetMapping
-    public ResponseEntity<?> getCardsByUserId(@RequestParam String userId) {
+    public ResponseEntity<?> getCardsByUserId(@RequestParam String userId, ServletWebRequest webRequest) {
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.collection(userId))) {
+            return null;
+        }
         var cards = cardService.getCardsByUserId(userId);
         return ResponseEntity.ok(
                 new ApiResponse<>(true, cards, "Cards fetched for user.")
         );
     }
 
+    /**
+     * Card counts by status and marketplace totals of the collection, read from precomputed totals.
+     * Shares the ETag of the collection read, as the two change together.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<CollectionStatsDto>> getCollectionStats(@RequestParam String userId,
+                                                                              ServletWebRequest webRequest) {
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.collection(userId))) {
+            return null;
+        }
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, statsService.getStats(userId), "Collection statistics fetched.")
+        );
+    }
+
+    /**
+     * Streaming variant of the collection read for large collections: one card per line (NDJSON),
+     * written while the rows are read, so memory use does not grow with the collection.
+     * Shares the ETag of the collection read.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamCardsByUserId(@RequestParam String userId,
+                                                                     ServletWebRequest webRequest) {
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.collection(userId))) {
+            return null;
+        }
+        return NdjsonResponses.<CardResponseDto>stream(objectMapper, action -> cardService.streamCardsByUserId(userId, action));
+    }
+
+    /**
+     * Adds every card of an uploaded CSV or JSON file to the caller's collection in one go.
+     * CSV needs a header row with cardId and name columns (status and price optional);
+     * JSON is an array or NDJSON of the same fields. The format follows the file name unless given.
+     */
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<CollectionTransferService.ImportResult>> importCollection(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam String username,
+            @RequestParam(required = false) CollectionFileFormat format,
+            @AuthenticationPrincipal Jwt principal) throws IOException {
+
+        CollectionFileFormat effectiveFormat = format != null ? format : CollectionFileFormat.fromFilename(file.getOriginalFilename());
+        CollectionTransferService.ImportResult result;
+        try (InputStream in = file.getInputStream()) {
+            result = transferService.importCollection(principal.getSubject(), username, effectiveFormat, in);
+        }
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, result, "Collection imported.")
+        );
+    }
+
+    /**
+     * Downloads the caller's collection as CSV (default) or JSON, streamed as it is read.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCollection(
+            @RequestParam(defaultValue = "CSV") CollectionFileFormat format,
+            @AuthenticationPrincipal Jwt principal) {
+
+        String clerkUserId = principal.getSubject();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("collection." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(ReadYourWritesInterceptor.onRequestRoute(
+                        out -> transferService.exportCollection(clerkUserId, format, out)));
+    }
 }
@@ -0,0 +1,36 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.service.ViewVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET support for the views tracked by {@link ViewVersionService}.
+ * <p>
+ * Responses may be kept by the browser but must be revalidated every time, which costs one primary key
+ * lookup of the view's counter instead of the whole query when nothing changed.
+ */
+final class ConditionalGets {
+
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGets() {
+    }
+
+    /**
+     * Tags the response with the view's current ETag and checks it against If-None-Match.
+     * Has to run before the view is read, so that the tag is never newer than the data.
+     *
+     * @return true if the client's copy is current; the response is then a 304 and the handler returns null.
+     */
+    static boolean notModified(ServletWebRequest request, ViewVersionService viewVersionService, String scope) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Also on the 304, which would otherwise get Spring Security's no-store
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        return request.checkNotModified(viewVersionService.etag(scope));
+    }
+}
@@ -1,13 +1,25 @@
 package org.example.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.BatchCardsDto;
+import org.example.backend.dto.BatchListCardsDto;
+import org.example.backend.dto.BatchRepriceDto;
 import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CursorPageDto;
 import org.example.backend.dto.ListCardDto;
 import org.example.backend.dto.ChangeCardStatusDto;
+import org.example.backend.dto.MarketplaceEventsDto;
+import org.example.backend.dto.MarketplaceFilterDto;
+import org.example.backend.dto.MarketplaceSort;
+import org.example.backend.service.MarketplaceEventService;
 import org.example.backend.service.MarketplaceService;
+import org.example.backend.service.ViewVersionService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,6 +30,9 @@ import java.util.List;
 public class MarketplaceController {
 
     private final MarketplaceService marketplaceService;
+    private final ViewVersionService viewVersionService;
+    private final MarketplaceEventService eventService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 🟢 **LIST card for sale:** Updates a card's status to FOR_SALE.
@@ -57,14 +72,101 @@ public class MarketplaceController {
         );
     }
 
+    /**
+     * 🟢 **BATCH list:** Lists many cards at once, each at its own price, or reprices those already listed.
+     * All or nothing: if any card cannot be listed, none is. At most 500 cards per request.
+     */
+    @PutMapping("/batch/list")
+    public ResponseEntity<ApiResponse<List<CardResponseDto>>> listCardsForSale(@RequestBody BatchListCardsDto dto) {
+        List<CardResponseDto> cards = marketplaceService.listCardsForSale(dto.getCards(), dto.getUserId());
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, cards, "Cards listed for sale successfully.")
+        );
+    }
+
+    /**
+     * 🟡 **BATCH unlist:** Takes many cards off the marketplace at once. All or nothing.
+     */
+    @PutMapping("/batch/unlist")
+    public ResponseEntity<ApiResponse<List<CardResponseDto>>> unlistCards(@RequestBody BatchCardsDto dto) {
+        List<CardResponseDto> cards = marketplaceService.unlistCards(dto.getCardDbIds(), dto.getUserId());
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, cards, "Card listings removed successfully.")
+        );
+    }
+
+    /**
+     * 🟠 **BATCH reprice:** Changes the prices of many listed cards by a percentage, e.g. -10 for 10% off.
+     * All or nothing.
+     */
+    @PutMapping("/batch/reprice")
+    public ResponseEntity<ApiResponse<List<CardResponseDto>>> repriceCards(@RequestBody BatchRepriceDto dto) {
+        List<CardResponseDto> cards = marketplaceService.repriceCards(dto.getCardDbIds(), dto.getPercentChange(), dto.getUserId());
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, cards, "Cards repriced successfully.")
+        );
+    }
+
     /**
      * 🔵 **GET all listings:** Retrieves all cards from all users that are currently FOR_SALE.
+     * Answers 304 Not Modified, without reading any card, if the If-None-Match ETag is still current.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CardResponseDto>>> getAllCardsForSale() {
+    public ResponseEntity<ApiResponse<List<CardResponseDto>>> getAllCardsForSale(ServletWebRequest webRequest) {
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.MARKETPLACE)) {
+            return null;
+        }
         List<CardResponseDto> cards = marketplaceService.getAllCardsForSale();
         return ResponseEntity.ok(
                 new ApiResponse<>(true, cards, "Marketplace listings fetched successfully.")
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * 🔵 **STREAM all listings:** Same cards as GET all listings, newest first, one per line (NDJSON).
+     * Written while the rows are read, so memory use does not grow with the number of listings.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllCardsForSale(ServletWebRequest webRequest) {
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.MARKETPLACE)) {
+            return null;
+        }
+        return NdjsonResponses.stream(objectMapper, marketplaceService::streamCardsForSale);
+    }
+
+    /**
+     * 🔵 **GET listings page:** Cursor-paginated, filterable view of the marketplace.
+     * Filters (all optional): name, minPrice, maxPrice, sellerId.
+     * Pass the returned nextCursor as {@code cursor} to fetch the next page.
+     */
+    @GetMapping("/listings")
+    public ResponseEntity<ApiResponse<CursorPageDto<CardResponseDto>>> getCardsForSalePage(
+            MarketplaceFilterDto filter,
+            @RequestParam(defaultValue = "NEWEST") MarketplaceSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest webRequest) {
+
+        if (ConditionalGets.notModified(webRequest, viewVersionService, ViewVersionService.MARKETPLACE)) {
+            return null;
+        }
+        CursorPageDto<CardResponseDto> page = marketplaceService.getCardsForSalePage(filter, sort, cursor, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, page, "Marketplace listings fetched successfully.")
+        );
+    }
+
+    /**
+     * 🟣 **RESUME the change feed:** The changes pushed to /topic/marketplace after sequence number {@code after},
+     * for a client that reconnected or checks for lost pushes, and the sequence number to resume from next time.
+     * Without {@code after}, only that sequence number, to be fetched before loading the listings.
+     * If {@code resyncRequired} is set, reload the listings instead.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<ApiResponse<MarketplaceEventsDto>> getEventsAfter(@RequestParam(required = false) Long after) {
+        MarketplaceEventsDto events = eventService.eventsAfter(after);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, events, "Marketplace events fetched successfully.")
+        );
+    }
+}
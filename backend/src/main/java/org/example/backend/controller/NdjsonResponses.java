@@ -0,0 +1,54 @@
+package org.example.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.backend.config.ReadYourWritesInterceptor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as newline-delimited JSON while they are produced, instead of collecting them into one body.
+ * Rows go through the servlet's output buffer, so the response is sent in chunks as it fills. They are read
+ * on an async thread, from where the request reads.
+ */
+final class NdjsonResponses {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /** Produces the rows of a response, handing each one to the given action. */
+    @FunctionalInterface
+    interface RowSource<T> {
+        void forEach(Consumer<T> action);
+    }
+
+    private NdjsonResponses() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, RowSource<T> rows) {
+        // Flushing after every row would turn each one into its own network write
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                rows.forEach(row -> {
+                    try {
+                        writer.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Typically the client went away
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(ReadYourWritesInterceptor.onRequestRoute(body));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CatalogCardDto;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.SearchScope;
+import org.example.backend.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Card name search with prefix, word-prefix and typo-tolerant matching.
+     * {@code scope=MARKETPLACE} (default) searches listed cards, {@code scope=COLLECTION} the caller's own cards.
+     * Pass the returned nextCursor as {@code cursor} to fetch the next page.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CursorPageDto<CardResponseDto>>> searchCards(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "MARKETPLACE") SearchScope scope,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal Jwt principal) {
+
+        CursorPageDto<CardResponseDto> results = searchService.searchCards(q, scope, principal.getSubject(), cursor, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, results, "Search results fetched successfully.")
+        );
+    }
+
+    /**
+     * Card name search over the local card catalog, e.g. to find a card to add to a collection.
+     * Same matching and paging as the card search above.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<ApiResponse<CursorPageDto<CatalogCardDto>>> searchCatalog(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        CursorPageDto<CatalogCardDto> results = searchService.searchCatalog(q, cursor, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, results, "Catalog search results fetched successfully.")
+        );
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.backend.controller;
 
 import org.example.backend.dto.ApiResponse;
+import org.example.backend.dto.CursorPageDto;
 import org.example.backend.dto.UserDto;
+import org.example.backend.service.PresenceService;
 import org.example.backend.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -9,8 +11,10 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin
 @RestController
@@ -18,29 +22,52 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final PresenceService presenceService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, PresenceService presenceService) {
         this.userService = userService;
+        this.presenceService = presenceService;
     }
 
     /**
-     * Gets a list of all users available for chat.
-     * Assumes you have Spring Security configured to resolve the JWT.
+     * Gets one page of the users available for chat, ordered by username.
+     * Pass the returned nextCursor as {@code cursor} to fetch the next page.
      *
      * @param principal The authenticated user's JWT principal.
-     * @return A list of UserDto objects.
+     * @param q         Optional username prefix, case-insensitive.
+     * @return A page of UserDto objects, without the caller.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserDto>>> getAllUsers(@AuthenticationPrincipal Jwt principal) {
+    public ResponseEntity<ApiResponse<CursorPageDto<UserDto>>> getAllUsers(
+            @AuthenticationPrincipal Jwt principal,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         // The 'subject' of the JWT from Clerk is the user's Clerk ID
         String clerkUserId = principal.getSubject();
 
-        List<UserDto> users = userService.getAllChatUsers(clerkUserId);
+        CursorPageDto<UserDto> users = userService.getChatUserPage(clerkUserId, q, cursor, limit);
 
         return ResponseEntity.ok(
                 new ApiResponse<>(true, users, "Users fetched successfully.")
         );
     }
+    /**
+     * Tells which of the given users are online, e.g. for the chat sidebar.
+     * Later changes are pushed on /topic/presence.
+     *
+     * @param ids The Clerk IDs of the users, at most 200 by default.
+     * @return Whether each user is online, keyed by Clerk ID.
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<ApiResponse<Map<String, Boolean>>> getPresence(@RequestParam List<String> ids) {
+        Map<String, Boolean> presence = presenceService.presenceOf(ids);
+
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, presence, "Presence fetched.")
+        );
+    }
+
     @GetMapping("/chat-partners") // New specific endpoint
     public ResponseEntity<ApiResponse<List<UserDto>>> getChatPartners(@AuthenticationPrincipal Jwt principal) {
         String clerkUserId = principal.getSubject();
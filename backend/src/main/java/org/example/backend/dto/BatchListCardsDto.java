@@ -0,0 +1,15 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchListCardsDto {
+    private List<CardPriceDto> cards;
+    private String userId;
+}
@@ -0,0 +1,18 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRepriceDto {
+    private List<Long> cardDbIds;
+    /** E.g. -10 for 10% off, 5 for 5% more; new prices are rounded to the cent. */
+    private BigDecimal percentChange;
+    private String userId;
+}
@@ -20,4 +20,17 @@ public class CardResponseDto {
     private String username;
     private CardStatus status;
     private BigDecimal price;
+
+    // Filled from the local card catalog; null when the card is not in it
+    private String imageUrl;
+    private String type;
+    private String rarity;
+    private String setCode;
+    private String setName;
+
+    /** Used by the constructor-expression queries, which only read the card and its owner. */
+    public CardResponseDto(Long id, String name, String cardId, String userId, String username,
+                           CardStatus status, BigDecimal price) {
+        this(id, name, cardId, userId, username, status, price, null, null, null, null, null);
+    }
 }
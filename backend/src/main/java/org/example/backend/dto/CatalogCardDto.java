@@ -0,0 +1,43 @@
+package org.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A card from the local catalog. Uses the field names of the MTG API {@code /cards} response,
+ * so catalog dumps in that format import as-is and the frontend can keep its Card type.
+ * The snake_case aliases accept Scryfall bulk data as well.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogCardDto {
+    private String id;
+    private String name;
+    @JsonAlias("mana_cost")
+    private String manaCost;
+    private Double cmc;
+    private List<String> colors;
+    @JsonAlias("type_line")
+    private String type;
+    private String rarity;
+    private String set;
+    @JsonAlias("set_name")
+    private String setName;
+    @JsonAlias("oracle_text")
+    private String text;
+    private String artist;
+    @JsonAlias("collector_number")
+    private String number;
+    private String power;
+    private String toughness;
+    private String imageUrl;
+}
@@ -0,0 +1,21 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Sent by the recipient's client about the messages it received from one sender.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatAckDto {
+    private String senderClerkId;
+    /** Ids of messages that reached the client. */
+    private List<Long> delivered;
+    /** The newest message the user has seen; it and every earlier message of the sender are read. */
+    private Long readUpTo;
+}
@@ -0,0 +1,18 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tells the sender that a message they sent was not accepted, e.g. because the server is overloaded.
+ * The message is identified by its recipient and the timestamp the client sent it with.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatErrorDto {
+    private String recipientClerkId;
+    private String timestamp;
+    private String message;
+}
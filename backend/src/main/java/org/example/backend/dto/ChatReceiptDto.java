@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tells the sender which of their messages to {@code recipientClerkId} changed state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReceiptDto {
+    private String recipientClerkId;
+    private List<Long> delivered;
+    /** Null if nothing was newly read. */
+    private Long readUpTo;
+}
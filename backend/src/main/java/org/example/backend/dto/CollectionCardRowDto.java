@@ -0,0 +1,31 @@
+package org.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.model.CardStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * One card of a collection file, as read by the bulk import and written by the export.
+ * The property order is the CSV column order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"cardId", "name", "status", "price"})
+public class CollectionCardRowDto {
+    private String cardId;
+    @JsonAlias("cardName") // The field name of saveCardDto
+    private String name;
+    /** Defaults to IN_COLLECTION on import. */
+    private CardStatus status;
+    private BigDecimal price;
+}
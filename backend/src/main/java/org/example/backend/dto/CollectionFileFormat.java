@@ -0,0 +1,33 @@
+package org.example.backend.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of the collection import and export.
+ * JSON is read either as an array or as NDJSON (one object per line), and written as an array.
+ */
+public enum CollectionFileFormat {
+    CSV(MediaType.parseMediaType("text/csv"), "csv"),
+    JSON(MediaType.APPLICATION_JSON, "json");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    CollectionFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** Picks the format from an uploaded file name, assuming JSON unless it ends in .csv. */
+    public static CollectionFileFormat fromFilename(String filename) {
+        return filename != null && filename.toLowerCase().endsWith(".csv") ? CSV : JSON;
+    }
+}
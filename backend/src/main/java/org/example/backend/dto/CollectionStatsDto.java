@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** Card counts by status and marketplace totals of one user's collection. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionStatsDto {
+    private long inCollectionCount;
+    private long forSaleCount;
+    private long soldCount;
+    private long totalCount;
+    /** Sum of the asking prices of the cards listed for sale. */
+    private BigDecimal listedValue;
+    /** Sum of the prices of the cards sold. */
+    private BigDecimal soldValue;
+}
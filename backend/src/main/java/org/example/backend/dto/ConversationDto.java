@@ -0,0 +1,20 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** One inbox entry, seen from the perspective of the requesting user. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationDto {
+    private String partnerClerkId;
+    private String partnerUsername;
+    private Long lastMessageId;
+    private String lastMessagePreview;
+    private Instant lastMessageAt;
+    private Integer unreadCount;
+}
@@ -0,0 +1,22 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.backend.model.MarketplaceEventType;
+
+/**
+ * A change to the marketplace as sent to clients, on {@code /topic/marketplace} and by the resume endpoint.
+ * {@code card} is the card's state after the change: a client upserts it for LISTED and PRICE_CHANGED,
+ * and removes the card with that id for UNLISTED and SOLD.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketplaceEventDto {
+    private long sequence;
+    private MarketplaceEventType type;
+    private CardResponseDto card;
+}
@@ -0,0 +1,24 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The marketplace changes after a given sequence number, and the sequence number to resume from next time,
+ * which may be older than some of the changes returned. When {@code resyncRequired} is set the changes are no
+ * longer available (or too many to be worth replaying): the client refetches the listings and continues from
+ * {@code latestSequence}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketplaceEventsDto {
+    private List<MarketplaceEventDto> events;
+    private long latestSequence;
+    private boolean resyncRequired;
+}
@@ -0,0 +1,17 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketplaceFilterDto {
+    private String name;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String sellerId;
+}
@@ -0,0 +1,16 @@
+package org.example.backend.dto;
+
+/**
+ * Supported orderings for the paginated marketplace listing.
+ * Every ordering ends on the card id so that the keyset cursor is unique.
+ */
+public enum MarketplaceSort {
+    /** Most recently listed cards first (highest id first). */
+    NEWEST,
+
+    /** Cheapest cards first. */
+    PRICE_ASC,
+
+    /** Most expensive cards first. */
+    PRICE_DESC
+}
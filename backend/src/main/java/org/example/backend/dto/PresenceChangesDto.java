@@ -0,0 +1,18 @@
+package org.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Users who came online or went offline since the previous message on /topic/presence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceChangesDto {
+    private List<String> online;
+    private List<String> offline;
+}
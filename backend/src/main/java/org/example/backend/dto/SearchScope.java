@@ -0,0 +1,12 @@
+package org.example.backend.dto;
+
+/**
+ * Which cards a name search runs over.
+ */
+public enum SearchScope {
+    /** Cards currently listed for sale by any user. */
+    MARKETPLACE,
+
+    /** The caller's own cards, in any status. */
+    COLLECTION
+}
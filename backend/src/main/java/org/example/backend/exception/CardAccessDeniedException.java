@@ -0,0 +1,11 @@
+package org.example.backend.exception;
+
+/**
+ * The caller tried to change a card owned by someone else. Answered with 403 Forbidden.
+ */
+public class CardAccessDeniedException extends RuntimeException {
+
+    public CardAccessDeniedException() {
+        super("User does not have permission to modify this card.");
+    }
+}
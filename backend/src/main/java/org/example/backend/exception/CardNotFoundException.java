@@ -0,0 +1,11 @@
+package org.example.backend.exception;
+
+/**
+ * The card a request refers to does not exist. Answered with 404 Not Found.
+ */
+public class CardNotFoundException extends RuntimeException {
+
+    public CardNotFoundException(Long cardDbId) {
+        super("Card not found with id: " + cardDbId);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.backend.exception;
+
+/**
+ * The card is not in a status that allows the requested change, possibly because a concurrent
+ * request changed it first. Answered with 409 Conflict; the client reloads the card and decides again.
+ */
+public class CardStateConflictException extends RuntimeException {
+
+    public CardStateConflictException(String message) {
+        super(message);
+    }
+}
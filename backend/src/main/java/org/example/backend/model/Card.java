@@ -10,14 +10,26 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table
+@Table(indexes = {
+        // Marketplace keyset paging: newest first, and price ascending/descending
+        @Index(name = "idx_card_status_id", columnList = "status, id"),
+        @Index(name = "idx_card_status_price_id", columnList = "status, price, id"),
+        // Collection lookups and the marketplace seller filter
+        @Index(name = "idx_card_user_status_id", columnList = "user_id, status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Card {
+
+    public static final String ID_SEQUENCE = "card_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A sequence (unlike IDENTITY) lets bulk imports insert in JDBC batches with ids assigned up front
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
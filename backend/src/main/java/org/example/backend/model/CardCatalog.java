@@ -0,0 +1,62 @@
+package org.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One printing in the local copy of the card catalog, keyed by the same id that {@link Card#cardId} stores.
+ * Filled by the catalog importer; never written by user actions.
+ */
+@Entity
+@Table(name = "card_catalog")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardCatalog {
+    @Id
+    @Column(name = "card_id")
+    private String cardId;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String manaCost;
+
+    private Double cmc;
+
+    /** Color codes, comma separated, e.g. "W,U". */
+    private String colors;
+
+    @Column(name = "type_line")
+    private String type;
+
+    private String rarity;
+
+    private String setCode;
+
+    private String setName;
+
+    @Column(columnDefinition = "TEXT")
+    private String text;
+
+    private String artist;
+
+    @Column(name = "collector_number")
+    private String number;
+
+    private String power;
+
+    private String toughness;
+
+    @Column(length = 1024)
+    private String imageUrl;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,21 @@
+package org.example.backend.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The immutable view of a {@link CardCatalog} row that is cached and used to enrich card responses.
+ */
+public record CardCatalogEntry(String cardId, String name, String manaCost, Double cmc, List<String> colors,
+                               String type, String rarity, String setCode, String setName, String text,
+                               String artist, String number, String power, String toughness, String imageUrl) {
+
+    public static CardCatalogEntry of(CardCatalog card) {
+        List<String> colors = card.getColors() == null || card.getColors().isEmpty()
+                ? List.of()
+                : Arrays.asList(card.getColors().split(","));
+        return new CardCatalogEntry(card.getCardId(), card.getName(), card.getManaCost(), card.getCmc(), colors,
+                card.getType(), card.getRarity(), card.getSetCode(), card.getSetName(), card.getText(),
+                card.getArtist(), card.getNumber(), card.getPower(), card.getToughness(), card.getImageUrl());
+    }
+}
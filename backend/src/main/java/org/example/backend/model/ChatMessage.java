@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class ChatMessage {
+    private Long id;
+
     private String senderUsername;
     private String recipientUsername;
 
@@ -18,4 +20,7 @@ public class ChatMessage {
 
     private String content;
     private String timestamp;
+
+    /** Set by the server; ignored on messages sent by clients. */
+    private MessageStatus status;
 }
\ No newline at end of file
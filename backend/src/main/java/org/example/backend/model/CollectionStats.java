@@ -0,0 +1,45 @@
+package org.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of one user's collection, kept up to date in the same transaction as every change to
+ * their cards, so that the statistics are read from a single row instead of from the whole collection.
+ * Created from the cards on the first change after it was introduced, see
+ * {@link org.example.backend.service.CollectionStatsService}.
+ */
+@Entity
+@Table(name = "collection_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CollectionStats {
+
+    @Id
+    @Column(name = "clerk_user_id")
+    private String clerkUserId;
+
+    @Column(name = "in_collection_count", nullable = false)
+    private long inCollectionCount;
+
+    @Column(name = "for_sale_count", nullable = false)
+    private long forSaleCount;
+
+    @Column(name = "sold_count", nullable = false)
+    private long soldCount;
+
+    /** Sum of the asking prices of the cards FOR_SALE. */
+    @Column(name = "listed_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal listedValue;
+
+    /** Sum of the prices the SOLD cards went for. */
+    @Column(name = "sold_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal soldValue;
+}
@@ -0,0 +1,69 @@
+package org.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Summary row for a conversation between two users, maintained alongside every saved message.
+ * The pair is stored in a canonical order (userA < userB) so each conversation has exactly one row.
+ */
+@Entity
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversations_pair",
+                columnNames = {"user_a_clerk_id", "user_b_clerk_id"}),
+        indexes = {
+                // Inbox lookups: each side of the pair, most recent first
+                @Index(name = "idx_conversations_user_a_last", columnList = "user_a_clerk_id, last_message_at"),
+                @Index(name = "idx_conversations_user_b_last", columnList = "user_b_clerk_id, last_message_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Conversation {
+
+    /** Maximum number of characters of the last message kept as a preview. */
+    public static final int PREVIEW_LENGTH = 120;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_a_clerk_id", nullable = false)
+    private String userAClerkId;
+
+    @Column(name = "user_b_clerk_id", nullable = false)
+    private String userBClerkId;
+
+    private Long lastMessageId;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    private Instant lastMessageAt;
+
+    /** Messages sent to user A that user A has not read yet. */
+    @Column(name = "unread_for_a", nullable = false)
+    private int unreadForA;
+
+    /** Messages sent to user B that user B has not read yet. */
+    @Column(name = "unread_for_b", nullable = false)
+    private int unreadForB;
+
+    /** Truncates message content to the preview length. */
+    public static String previewOf(String content) {
+        return content.length() <= PREVIEW_LENGTH ? content : content.substring(0, PREVIEW_LENGTH);
+    }
+
+    /** Returns the two Clerk IDs in the canonical (userA, userB) order. */
+    public static String[] canonicalPair(String clerkId1, String clerkId2) {
+        return clerkId1.compareTo(clerkId2) <= 0
+                ? new String[]{clerkId1, clerkId2}
+                : new String[]{clerkId2, clerkId1};
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One change to the marketplace, kept for a while so that clients can catch up on the changes they
+ * missed instead of refetching every listing. The card's fields are copied as they were at the time.
+ */
+@Entity
+@Table(name = "marketplace_event", indexes = {
+        @Index(name = "idx_marketplace_event_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarketplaceEvent {
+
+    public static final String SEQUENCE = "marketplace_event_seq";
+
+    /**
+     * Increasing, but with gaps, and not necessarily in commit order across cards; see
+     * {@code MarketplaceEventService}. Taken one at a time, so that every instance draws from the same order.
+     * Events are inserted through {@code MarketplaceEventBulkRepository}, which takes a whole batch of
+     * sequence numbers in one round trip; the generator is declared so that the schema has the sequence.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE)
+    @SequenceGenerator(name = SEQUENCE, sequenceName = SEQUENCE, allocationSize = 1)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MarketplaceEventType type;
+
+    /** The card's database id. */
+    @Column(name = "card_db_id", nullable = false)
+    private Long cardDbId;
+
+    @Column(name = "card_id", nullable = false)
+    private String cardId;
+
+    private String name;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "seller_id", nullable = false)
+    private String sellerId;
+
+    @Column(name = "seller_username")
+    private String sellerUsername;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,14 @@
+package org.example.backend.model;
+
+/**
+ * What happened to a card in the marketplace.
+ */
+public enum MarketplaceEventType {
+    /** The card was put up for sale; carries its price. */
+    LISTED,
+    /** A card already for sale got a new price. */
+    PRICE_CHANGED,
+    /** The card was taken off the marketplace and is back in its owner's collection. */
+    UNLISTED,
+    SOLD
+}
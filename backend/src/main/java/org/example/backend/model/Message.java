@@ -9,15 +9,24 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        // Conversation paging: one range scan per direction of the (sender, recipient) pair
+        @Index(name = "idx_chat_messages_pair_id", columnList = "sender_clerk_id, recipient_clerk_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Message {
 
+    public static final String ID_SEQUENCE = "chat_messages_seq";
+    /** The sequence's increment. The chat pipeline uses one id per nextval, see PersistenceConfig. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A sequence (unlike IDENTITY) lets inserts be batched and ids be assigned before the insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -37,4 +46,13 @@ public class Message {
 
     @CreationTimestamp // Automatically sets the timestamp when created
     private Instant timestamp;
+
+    /** When a client of the recipient acknowledged the message; null while it is pending. */
+    private Instant deliveredAt;
+
+    private Instant readAt;
+
+    public MessageStatus getStatus() {
+        return readAt != null ? MessageStatus.READ : deliveredAt != null ? MessageStatus.DELIVERED : MessageStatus.SENT;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.example.backend.model;
+
+/**
+ * Delivery state of a chat message, as acknowledged by the recipient's client.
+ */
+public enum MessageStatus {
+    /** Accepted by the server; no session of the recipient has acknowledged it yet. */
+    SENT,
+    DELIVERED,
+    READ
+}
@@ -0,0 +1,12 @@
+package org.example.backend.model;
+
+/**
+ * The immutable part of a {@link User} that hot paths need: enough to link rows to the user
+ * and to show who they are, without holding on to a managed entity.
+ */
+public record UserIdentity(Long id, String clerkUserId, String username) {
+
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getClerkUserId(), user.getUsername());
+    }
+}
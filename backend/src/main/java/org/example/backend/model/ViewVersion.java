@@ -0,0 +1,25 @@
+package org.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change counter of one cacheable view, e.g. the marketplace or one user's collection.
+ * Incremented in the same transaction as every change to the view, and used to build its ETag.
+ */
+@Entity
+@Table(name = "view_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ViewVersion {
+    @Id
+    private String scope;
+
+    @Column(nullable = false)
+    private long version;
+}
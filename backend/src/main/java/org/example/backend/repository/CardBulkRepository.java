@@ -0,0 +1,170 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CollectionCardRowDto;
+import org.example.backend.model.CardStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access for moving whole collections in and out, and for changing many cards at once,
+ * bypassing the persistence context.
+ */
+@Repository
+public class CardBulkRepository {
+
+    // Rows the driver pulls per round trip while streaming; PostgreSQL only uses a cursor inside a transaction
+    static final int FETCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO card (id, name, card_id, user_id, status, price) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Each change is a compare-and-set on the status and price the card was read with, as in
+    // CardRepository#compareAndSetStatus, so the caller knows the exact old and new values of every changed row
+    private static final String LIST_SQL = "UPDATE card SET status = 'FOR_SALE', price = ? " +
+            "WHERE id = ? AND status = ? AND price IS NOT DISTINCT FROM ?";
+
+    private static final String UNLIST_SQL = "UPDATE card SET status = 'IN_COLLECTION', price = NULL " +
+            "WHERE id = ? AND status = 'FOR_SALE' AND price = ?";
+
+    private static final String REPRICE_SQL = "UPDATE card SET price = ? " +
+            "WHERE id = ? AND status = 'FOR_SALE' AND price = ?";
+
+    private static final String COLLECTION_SQL = "SELECT c.card_id, c.name, c.status, c.price " +
+            "FROM card c JOIN users u ON u.id = c.user_id " +
+            "WHERE u.clerk_user_id = ? ORDER BY c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator cardIdAllocator;
+
+    public CardBulkRepository(JdbcTemplate jdbcTemplate, SequenceIdAllocator cardIdAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardIdAllocator = cardIdAllocator;
+    }
+
+    /**
+     * Inserts the cards into the user's collection as a single JDBC batch, with ids taken from card_seq.
+     * @return The ids given to the cards, in order.
+     */
+    public List<Long> insertAll(Long userId, List<CollectionCardRowDto> cards) {
+        List<Long> ids = new ArrayList<>(cards.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CollectionCardRowDto card = cards.get(i);
+                long id = cardIdAllocator.nextId();
+                ids.add(id);
+                ps.setLong(1, id);
+                ps.setString(2, card.getName());
+                ps.setString(3, card.getCardId());
+                ps.setLong(4, userId);
+                ps.setString(5, card.getStatus().name());
+                ps.setBigDecimal(6, card.getPrice());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cards.size();
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Puts the cards up for sale at the given prices in one JDBC batch. A card only changes if it still has
+     * the status and price it was read with.
+     * @return Whether each card was changed, in order.
+     */
+    public boolean[] listAll(List<CardResponseDto> cards, List<BigDecimal> prices) {
+        return changed(jdbcTemplate.batchUpdate(LIST_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CardResponseDto card = cards.get(i);
+                ps.setBigDecimal(1, prices.get(i));
+                ps.setLong(2, card.getId());
+                ps.setString(3, card.getStatus().name());
+                ps.setBigDecimal(4, card.getPrice());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cards.size();
+            }
+        }));
+    }
+
+    /**
+     * Takes the listed cards off the marketplace in one JDBC batch. A card only changes if it is still
+     * listed at the price it was read with.
+     * @return Whether each card was changed, in order.
+     */
+    public boolean[] unlistAll(List<CardResponseDto> cards) {
+        return changed(jdbcTemplate.batchUpdate(UNLIST_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, cards.get(i).getId());
+                ps.setBigDecimal(2, cards.get(i).getPrice());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cards.size();
+            }
+        }));
+    }
+
+    /**
+     * Changes the prices of listed cards in one JDBC batch. A card only changes if it is still listed
+     * at the price it was read with.
+     * @return Whether each card was changed, in order.
+     */
+    public boolean[] repriceAll(List<CardResponseDto> cards, List<BigDecimal> prices) {
+        return changed(jdbcTemplate.batchUpdate(REPRICE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setBigDecimal(1, prices.get(i));
+                ps.setLong(2, cards.get(i).getId());
+                ps.setBigDecimal(3, cards.get(i).getPrice());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return cards.size();
+            }
+        }));
+    }
+
+    private static boolean[] changed(int[] counts) {
+        boolean[] changed = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            changed[i] = counts[i] != 0; // SUCCESS_NO_INFO (-2) if the driver does not report counts
+        }
+        return changed;
+    }
+
+    /**
+     * Hands the user's cards to {@code action} one at a time, oldest first, as they are read from the cursor.
+     */
+    public void forEachInCollection(String clerkUserId, Consumer<CollectionCardRowDto> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(COLLECTION_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, clerkUserId);
+            return ps;
+        }, rs -> {
+            action.accept(new CollectionCardRowDto(
+                    rs.getString("card_id"),
+                    rs.getString("name"),
+                    CardStatus.valueOf(rs.getString("status")),
+                    rs.getBigDecimal("price")));
+        });
+    }
+}
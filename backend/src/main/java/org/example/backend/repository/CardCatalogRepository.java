@@ -0,0 +1,7 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.CardCatalog;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CardCatalogRepository extends JpaRepository<CardCatalog, String> {
+}
@@ -1,20 +1,104 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dto.CardResponseDto;
 import org.example.backend.model.Card;
 import org.example.backend.model.CardStatus;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card> {
+
+	int STREAM_FETCH_SIZE = 500;
+
 	/**
 	 * Finds all cards belonging to a user, identified by their Clerk ID.
 	 * Spring Data JPA can traverse relationships in queries.
+	 * The owner is fetched in the same query so that reading it does not trigger one SELECT per card.
 	 */
+	@EntityGraph(attributePaths = "user")
 	List<Card> findAllByUser_ClerkUserId(String clerkUserId);
 
 	/** Finds all cards with a specific status, e.g., all cards FOR_SALE. */
+	@EntityGraph(attributePaths = "user")
 	List<Card> findAllByStatus(CardStatus status);
+
+	/** Read-only projection of a single card with its owner, e.g. for ownership checks before a status change. */
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE c.id = :id")
+	Optional<CardResponseDto> findCardResponseById(@Param("id") Long id);
+
+	/** Read-only projection of the given cards with their owners, for batch changes. */
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE c.id IN :ids ORDER BY c.id")
+	List<CardResponseDto> findCardResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Sets a card's status and price in one statement, provided it still has the status and price it was
+	 * read with. A compare-and-set: of two concurrent changes to the same card only one changes the row,
+	 * the other waits for its row lock and then matches nothing. Checking the price as well means that a
+	 * change based on a price that was repriced in the meantime (e.g. selling at the old price) fails too.
+	 *
+	 * @return 1 if the card was changed, 0 if its status or price were no longer the expected ones.
+	 */
+	@Modifying
+	@Query("UPDATE Card c SET c.status = :status, c.price = :price " +
+			"WHERE c.id = :id AND c.status = :expected AND c.price IS NOT DISTINCT FROM :expectedPrice")
+	int compareAndSetStatus(@Param("id") Long id, @Param("expected") CardStatus expected,
+							@Param("expectedPrice") BigDecimal expectedPrice,
+							@Param("status") CardStatus status, @Param("price") BigDecimal price);
+
+	/**
+	 * Read-only projection of a user's collection, built directly in the SELECT clause.
+	 * One query, no managed entities in the persistence context.
+	 */
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE u.clerkUserId = :clerkUserId")
+	List<CardResponseDto> findCardResponsesByClerkUserId(@Param("clerkUserId") String clerkUserId);
+
+	/** Read-only projection of all cards with a specific status. */
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE c.status = :status")
+	List<CardResponseDto> findCardResponsesByStatus(@Param("status") CardStatus status);
+
+	/**
+	 * Streaming variant of {@link #findCardResponsesByClerkUserId}: rows are read from a forward-only cursor,
+	 * {@value #STREAM_FETCH_SIZE} at a time. Must be consumed and closed inside a transaction.
+	 */
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE u.clerkUserId = :clerkUserId ORDER BY c.id")
+	Stream<CardResponseDto> streamCardResponsesByClerkUserId(@Param("clerkUserId") String clerkUserId);
+
+	/** Streaming variant of {@link #findCardResponsesByStatus}, newest first. */
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+	@Query("SELECT new org.example.backend.dto.CardResponseDto(" +
+			"c.id, c.name, c.cardId, u.clerkUserId, u.username, c.status, c.price) " +
+			"FROM Card c JOIN c.user u " +
+			"WHERE c.status = :status ORDER BY c.id DESC")
+	Stream<CardResponseDto> streamCardResponsesByStatus(@Param("status") CardStatus status);
 }
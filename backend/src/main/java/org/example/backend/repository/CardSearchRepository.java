@@ -0,0 +1,214 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.SearchScope;
+import org.example.backend.model.CardCatalog;
+import org.example.backend.model.CardCatalogEntry;
+import org.example.backend.model.CardStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Card name search, over users' cards and over the local card catalog.
+ * <p>
+ * On PostgreSQL a name matches by prefix or by word prefixes through the {@code simple} full-text index
+ * (see data.sql). With {@code pg_trgm}, which a DBA installs with db/pg_trgm.sql, it also matches
+ * fuzzily through trigram similarity, so typos still find the card. Prefix matches rank first, then the
+ * closest trigram matches, or the shortest names without {@code pg_trgm}.
+ * <p>
+ * Other databases (H2 in tests) fall back to case-insensitive substring matching on every word.
+ */
+@Repository
+public class CardSearchRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CardSearchRepository.class);
+
+    private static final String SELECT = """
+            SELECT c.id, c.name, c.card_id, u.clerk_user_id, u.username, c.status, c.price
+            FROM card c JOIN users u ON u.id = c.user_id
+            """;
+
+    private static final RowMapper<CardResponseDto> ROW_MAPPER = (rs, rowNum) -> new CardResponseDto(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("card_id"),
+            rs.getString("clerk_user_id"),
+            rs.getString("username"),
+            CardStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("price"));
+
+    private static final String CATALOG_SELECT = """
+            SELECT cc.* FROM card_catalog cc
+            """;
+
+    private static final RowMapper<CardCatalogEntry> CATALOG_ROW_MAPPER = (rs, rowNum) -> CardCatalogEntry.of(
+            CardCatalog.builder()
+                    .cardId(rs.getString("card_id"))
+                    .name(rs.getString("name"))
+                    .manaCost(rs.getString("mana_cost"))
+                    .cmc(rs.getObject("cmc", Double.class))
+                    .colors(rs.getString("colors"))
+                    .type(rs.getString("type_line"))
+                    .rarity(rs.getString("rarity"))
+                    .setCode(rs.getString("set_code"))
+                    .setName(rs.getString("set_name"))
+                    .text(rs.getString("text"))
+                    .artist(rs.getString("artist"))
+                    .number(rs.getString("collector_number"))
+                    .power(rs.getString("power"))
+                    .toughness(rs.getString("toughness"))
+                    .imageUrl(rs.getString("image_url"))
+                    .build());
+
+    // How soon a pg_trgm installed while running is noticed
+    private static final Duration RECHECK_INTERVAL = Duration.ofMinutes(5);
+
+    private enum Matching {
+        /** Prefix, word prefix and trigram similarity. */
+        FUZZY,
+        /** Prefix and word prefix, on PostgreSQL without pg_trgm. */
+        WORD_PREFIX,
+        /** Substrings of every word, anywhere else. */
+        SUBSTRING
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    // Detected on first use, and again every RECHECK_INTERVAL until pg_trgm shows up
+    private volatile Matching matching;
+    private volatile Instant recheckAt = Instant.MIN;
+
+    public CardSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return Up to {@code limit} cards matching {@code query}, best matches first, skipping {@code offset}.
+     */
+    public List<CardResponseDto> search(String query, SearchScope scope, String clerkUserId, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("forSale", CardStatus.FOR_SALE.name())
+                .addValue("owner", clerkUserId);
+        String scopeCondition = scope == SearchScope.COLLECTION ? "u.clerk_user_id = :owner" : "c.status = :forSale";
+        String sql = SELECT + "WHERE " + scopeCondition + " AND " + nameSearch("c.name", "c.id", query, offset, limit, params);
+        return jdbcTemplate.query(sql, params, ROW_MAPPER);
+    }
+
+    /**
+     * Same matching and ranking as {@link #search}, over the local card catalog.
+     */
+    public List<CardCatalogEntry> searchCatalog(String query, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = CATALOG_SELECT + "WHERE " + nameSearch("cc.name", "cc.card_id", query, offset, limit, params);
+        return jdbcTemplate.query(sql, params, CATALOG_ROW_MAPPER);
+    }
+
+    /**
+     * Builds the name condition, ORDER BY and LIMIT for a search on {@code nameColumn}, adding its parameters.
+     */
+    private String nameSearch(String nameColumn, String idColumn, String query, int offset, int limit,
+                              MapSqlParameterSource params) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        List<String> words = Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+        String name = "lower(" + nameColumn + ")";
+        String prefixMatch = name + " LIKE :prefix ESCAPE '\\'";
+        params.addValue("q", normalized)
+                .addValue("prefix", escapeLike(normalized) + "%")
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        String condition;
+        String ranking;
+        Matching matching = matching();
+        if (matching == Matching.SUBSTRING) {
+            List<String> wordMatches = new ArrayList<>();
+            for (int i = 0; i < words.size(); i++) {
+                params.addValue("word" + i, "%" + escapeLike(words.get(i)) + "%");
+                wordMatches.add(name + " LIKE :word" + i + " ESCAPE '\\'");
+            }
+            condition = wordMatches.isEmpty() ? prefixMatch : "(" + String.join(" AND ", wordMatches) + ")";
+            ranking = "length(" + nameColumn + ")";
+        } else {
+            String wordPrefixMatch = "";
+            if (!words.isEmpty()) {
+                // 'black:* & lot:*' matches "Black Lotus"
+                params.addValue("tsquery", words.stream().map(word -> word + ":*").collect(Collectors.joining(" & ")));
+                wordPrefixMatch = " OR to_tsvector('simple', " + nameColumn + ") @@ to_tsquery('simple', :tsquery)";
+            }
+            if (matching == Matching.FUZZY) {
+                condition = "(" + prefixMatch + wordPrefixMatch + " OR " + name + " % :q OR :q <% " + name + ")";
+                ranking = "word_similarity(:q, " + name + ") DESC";
+            } else {
+                condition = "(" + prefixMatch + wordPrefixMatch + ")";
+                ranking = "length(" + nameColumn + ")";
+            }
+        }
+        return condition + "\nORDER BY (" + prefixMatch + ") DESC, " + ranking + ", " + idColumn
+                + "\nLIMIT :limit OFFSET :offset";
+    }
+
+    private Matching matching() {
+        Matching current = matching;
+        if (current == Matching.WORD_PREFIX && Instant.now().isAfter(recheckAt)) {
+            current = null;
+        }
+        if (current == null) {
+            current = detectMatching(dataSource, matching);
+            recheckAt = Instant.now().plus(RECHECK_INTERVAL);
+            matching = current;
+        }
+        return current;
+    }
+
+    private static Matching detectMatching(DataSource dataSource, Matching previous) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            if (!"PostgreSQL".equals(product)) {
+                return Matching.SUBSTRING;
+            }
+            Boolean installed = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+                try (var statement = metaData.getConnection().createStatement();
+                     var rs = statement.executeQuery("SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'")) {
+                    return rs.next();
+                }
+            });
+            if (Boolean.TRUE.equals(installed)) {
+                if (previous == Matching.WORD_PREFIX) {
+                    log.info("pg_trgm is installed now, card search matches fuzzily.");
+                }
+                return Matching.FUZZY;
+            }
+            if (previous == null) {
+                log.warn("pg_trgm is not installed (see db/pg_trgm.sql), card search only matches prefixes of names and words.");
+            }
+            return Matching.WORD_PREFIX;
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database for card search, using substring matching: {}", e.getMessage());
+            return Matching.SUBSTRING;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Reusable query fragments for {@link Card} lookups.
+ * Every method returns {@code null} when its argument is absent, so the
+ * fragments can be chained with {@link Specification#and} regardless of
+ * which filters the caller actually supplied.
+ */
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> hasStatus(CardStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /** Case-insensitive "contains" match on the card name. */
+    public static Specification<Card> nameContains(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(name.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Card> priceAtLeast(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Card> priceAtMost(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Card> ownedBy(String clerkUserId) {
+        if (clerkUserId == null || clerkUserId.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("user").get("clerkUserId"), clerkUserId);
+    }
+
+    /** Keyset condition for newest-first paging: only rows older than the cursor. */
+    public static Specification<Card> idBefore(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset condition for paging ordered by (price, id).
+     * Equivalent to the row comparison {@code (price, id) > (:price, :id)} when ascending,
+     * or {@code (price, id) < (:price, :id)} when descending.
+     */
+    public static Specification<Card> afterPrice(BigDecimal price, Long id, boolean ascending) {
+        if (price == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> ascending
+                ? cb.or(
+                        cb.greaterThan(root.get("price"), price),
+                        cb.and(cb.equal(root.get("price"), price), cb.greaterThan(root.get("id"), id)))
+                : cb.or(
+                        cb.lessThan(root.get("price"), price),
+                        cb.and(cb.equal(root.get("price"), price), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
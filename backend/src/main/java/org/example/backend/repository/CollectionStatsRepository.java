@@ -0,0 +1,59 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.CollectionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface CollectionStatsRepository extends JpaRepository<CollectionStats, String> {
+
+    /**
+     * Adds the given changes to the user's totals in one statement.
+     * @return 0 if the user has no totals row yet.
+     */
+    @Modifying
+    @Query("UPDATE CollectionStats s SET " +
+            "s.inCollectionCount = s.inCollectionCount + :inCollection, " +
+            "s.forSaleCount = s.forSaleCount + :forSale, " +
+            "s.soldCount = s.soldCount + :sold, " +
+            "s.listedValue = s.listedValue + :listedValue, " +
+            "s.soldValue = s.soldValue + :soldValue " +
+            "WHERE s.clerkUserId = :clerkUserId")
+    int addChanges(@Param("clerkUserId") String clerkUserId,
+                   @Param("inCollection") long inCollection,
+                   @Param("forSale") long forSale,
+                   @Param("sold") long sold,
+                   @Param("listedValue") BigDecimal listedValue,
+                   @Param("soldValue") BigDecimal soldValue);
+
+    /**
+     * Creates the user's totals row from their cards as this transaction sees them, if it does not exist yet.
+     * Pending entity changes are flushed first so that they are counted.
+     * @return 1 if the row was created, 0 if it already existed (or was created by a concurrent transaction).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO collection_stats " +
+            "(clerk_user_id, in_collection_count, for_sale_count, sold_count, listed_value, sold_value) " +
+            "SELECT :clerkUserId, " +
+            "COUNT(CASE WHEN c.status = 'IN_COLLECTION' THEN 1 END), " +
+            "COUNT(CASE WHEN c.status = 'FOR_SALE' THEN 1 END), " +
+            "COUNT(CASE WHEN c.status = 'SOLD' THEN 1 END), " +
+            "COALESCE(SUM(CASE WHEN c.status = 'FOR_SALE' THEN c.price END), 0), " +
+            "COALESCE(SUM(CASE WHEN c.status = 'SOLD' THEN c.price END), 0) " +
+            "FROM card c JOIN users u ON u.id = c.user_id " +
+            "WHERE u.clerk_user_id = :clerkUserId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFromCards(@Param("clerkUserId") String clerkUserId);
+
+    /**
+     * The user's card count and price total per status, straight from the card table.
+     * Rows are {@code [CardStatus, Long count, BigDecimal priceSum]}.
+     */
+    @Query("SELECT c.status, COUNT(c), SUM(c.price) FROM Card c " +
+            "WHERE c.user.clerkUserId = :clerkUserId GROUP BY c.status")
+    List<Object[]> sumCardsByStatus(@Param("clerkUserId") String clerkUserId);
+}
@@ -0,0 +1,96 @@
+package org.example.backend.repository;
+
+import org.example.backend.dto.ConversationDto;
+import org.example.backend.dto.UserDto;
+import org.example.backend.model.Conversation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    /**
+     * Creates the summary row for a pair if it does not exist yet.
+     * Concurrent first messages of the same pair are resolved by the unique constraint.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_a_clerk_id, user_b_clerk_id, unread_for_a, unread_for_b) " +
+            "VALUES (:userA, :userB, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("userA") String userA, @Param("userB") String userB);
+
+    /**
+     * Records the latest of one or more new messages on the summary row in a single statement,
+     * adding the number of messages each side received to its unread counter.
+     * The last message only moves forward: batches committing out of id order never replace a newer one.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.lastMessageId = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId " +
+            "THEN :messageId ELSE c.lastMessageId END, " +
+            "c.lastMessagePreview = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId " +
+            "THEN :preview ELSE c.lastMessagePreview END, " +
+            "c.lastMessageAt = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageId < :messageId " +
+            "THEN :sentAt ELSE c.lastMessageAt END, " +
+            "c.unreadForA = c.unreadForA + :receivedByA, " +
+            "c.unreadForB = c.unreadForB + :receivedByB " +
+            "WHERE c.userAClerkId = :userA AND c.userBClerkId = :userB")
+    int recordMessages(@Param("userA") String userA,
+                       @Param("userB") String userB,
+                       @Param("messageId") Long messageId,
+                       @Param("preview") String preview,
+                       @Param("sentAt") Instant sentAt,
+                       @Param("receivedByA") int receivedByA,
+                       @Param("receivedByB") int receivedByB);
+
+    /** Clears the unread counter of {@code reader} for the given pair. */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadForA = CASE WHEN c.userAClerkId = :reader THEN 0 ELSE c.unreadForA END, " +
+            "c.unreadForB = CASE WHEN c.userBClerkId = :reader THEN 0 ELSE c.unreadForB END " +
+            "WHERE c.userAClerkId = :userA AND c.userBClerkId = :userB")
+    int markRead(@Param("userA") String userA,
+                 @Param("userB") String userB,
+                 @Param("reader") String reader);
+
+    /**
+     * Takes {@code count} messages that {@code reader} just read off their unread counter for the given pair,
+     * never going below zero.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.unreadForA = CASE WHEN c.userAClerkId = :reader " +
+            "THEN (CASE WHEN c.unreadForA > :count THEN c.unreadForA - :count ELSE 0 END) ELSE c.unreadForA END, " +
+            "c.unreadForB = CASE WHEN c.userBClerkId = :reader " +
+            "THEN (CASE WHEN c.unreadForB > :count THEN c.unreadForB - :count ELSE 0 END) ELSE c.unreadForB END " +
+            "WHERE c.userAClerkId = :userA AND c.userBClerkId = :userB")
+    int markMessagesRead(@Param("userA") String userA,
+                         @Param("userB") String userB,
+                         @Param("reader") String reader,
+                         @Param("count") int count);
+
+    /** The user's conversations, most recently active first. */
+    @Query("SELECT new org.example.backend.dto.ConversationDto(" +
+            "u.clerkUserId, u.username, c.lastMessageId, c.lastMessagePreview, c.lastMessageAt, " +
+            "CASE WHEN c.userAClerkId = :me THEN c.unreadForA ELSE c.unreadForB END) " +
+            "FROM Conversation c JOIN User u ON u.clerkUserId = " +
+            "CASE WHEN c.userAClerkId = :me THEN c.userBClerkId ELSE c.userAClerkId END " +
+            "WHERE c.userAClerkId = :me OR c.userBClerkId = :me " +
+            "ORDER BY c.lastMessageAt DESC")
+    List<ConversationDto> findInbox(@Param("me") String me, Limit limit);
+
+    /** The user's chat partners, most recently active first. */
+    @Query("SELECT new org.example.backend.dto.UserDto(u.username, u.clerkUserId) " +
+            "FROM Conversation c JOIN User u ON u.clerkUserId = " +
+            "CASE WHEN c.userAClerkId = :me THEN c.userBClerkId ELSE c.userAClerkId END " +
+            "WHERE c.userAClerkId = :me OR c.userBClerkId = :me " +
+            "ORDER BY c.lastMessageAt DESC")
+    List<UserDto> findChatPartners(@Param("me") String me);
+
+    Optional<Conversation> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,131 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.MarketplaceEvent;
+import org.example.backend.model.MarketplaceEventType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain JDBC access to marketplace events, so that a batch takes its sequence numbers in one round trip
+ * and is written as a single JDBC batch, and so that large ranges can be read back without filling up the
+ * persistence context.
+ */
+@Repository
+public class MarketplaceEventBulkRepository {
+
+    private static final String NEXT_SEQUENCES_SQL = "SELECT nextval('" + MarketplaceEvent.SEQUENCE + "') " +
+            "FROM generate_series(1, ?)";
+
+    private static final String NEXT_SEQUENCE_SQL = "SELECT nextval('" + MarketplaceEvent.SEQUENCE + "')";
+
+    private static final String INSERT_SQL = "INSERT INTO marketplace_event " +
+            "(sequence, type, card_db_id, card_id, name, price, seller_id, seller_username, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String NUMBER_PENDING_SQL = "UPDATE marketplace_event " +
+            "SET sequence = nextval('" + MarketplaceEvent.SEQUENCE + "'), created_at = ? " +
+            "WHERE sequence BETWEEN ? AND ?";
+
+    private static final String RANGE_SQL = "SELECT sequence, type, card_db_id, card_id, name, price, seller_id, " +
+            "seller_username, created_at FROM marketplace_event " +
+            "WHERE sequence > ? AND sequence < ? ORDER BY sequence LIMIT ?";
+
+    private static final RowMapper<MarketplaceEvent> EVENT_MAPPER = (rs, rowNum) -> MarketplaceEvent.builder()
+            .sequence(rs.getLong("sequence"))
+            .type(MarketplaceEventType.valueOf(rs.getString("type")))
+            .cardDbId(rs.getLong("card_db_id"))
+            .cardId(rs.getString("card_id"))
+            .name(rs.getString("name"))
+            .price(rs.getBigDecimal("price"))
+            .sellerId(rs.getString("seller_id"))
+            .sellerUsername(rs.getString("seller_username"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MarketplaceEventBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Gives the events their sequence numbers, in list order, and inserts them.
+     */
+    public void insertAll(List<MarketplaceEvent> events) {
+        insert(events, 1);
+    }
+
+    /**
+     * Inserts the events as pending: numbered with placeholders, the negated sequence numbers they are given,
+     * until {@link #numberPending} numbers them for real. Pending events are visible to the inserting
+     * transaction only, and must be numbered before it commits.
+     */
+    public void insertPending(List<MarketplaceEvent> events) {
+        insert(events, -1);
+    }
+
+    /**
+     * Gives the pending events with placeholders from {@code lowest} to {@code highest} their sequence numbers,
+     * as of {@code now}.
+     * @return The exclusive bounds of the sequence numbers they got; other events may be numbered in between.
+     */
+    public long[] numberPending(long lowest, long highest, Instant now) {
+        long before = nextSequence();
+        jdbcTemplate.update(NUMBER_PENDING_SQL, Timestamp.from(now), lowest, highest);
+        return new long[]{before, nextSequence()};
+    }
+
+    /**
+     * @return Up to {@code limit} events numbered after {@code after} and before {@code before}, oldest first.
+     */
+    public List<MarketplaceEvent> findBetween(long after, long before, int limit) {
+        return jdbcTemplate.query(RANGE_SQL, EVENT_MAPPER, after, before, limit);
+    }
+
+    private void insert(List<MarketplaceEvent> events, int sign) {
+        List<Long> sequences = jdbcTemplate.queryForList(NEXT_SEQUENCES_SQL, Long.class, events.size());
+        if (sequences.size() != events.size()) {
+            throw new IllegalStateException("Expected " + events.size() + " sequence numbers, got " + sequences.size());
+        }
+        List<Long> sorted = sequences.stream().sorted().toList();
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).setSequence(sign * sorted.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                MarketplaceEvent event = events.get(i);
+                ps.setLong(1, event.getSequence());
+                ps.setString(2, event.getType().name());
+                ps.setLong(3, event.getCardDbId());
+                ps.setString(4, event.getCardId());
+                ps.setString(5, event.getName());
+                ps.setBigDecimal(6, event.getPrice());
+                ps.setString(7, event.getSellerId());
+                ps.setString(8, event.getSellerUsername());
+                ps.setTimestamp(9, Timestamp.from(event.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    private long nextSequence() {
+        Long next = jdbcTemplate.queryForObject(NEXT_SEQUENCE_SQL, Long.class);
+        if (next == null) {
+            throw new IllegalStateException("Sequence returned no value: " + NEXT_SEQUENCE_SQL);
+        }
+        return next;
+    }
+}
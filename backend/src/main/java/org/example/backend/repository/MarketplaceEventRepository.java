@@ -0,0 +1,32 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.MarketplaceEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface MarketplaceEventRepository extends JpaRepository<MarketplaceEvent, Long> {
+
+    List<MarketplaceEvent> findBySequenceGreaterThanOrderBySequenceAsc(long after, Limit limit);
+
+    /** @return The oldest retained sequence number, {@code null} if there are no events. */
+    @Query("SELECT min(e.sequence) FROM MarketplaceEvent e")
+    Long findOldestSequence();
+
+    /** @return The newest retained sequence number, {@code null} if there are no events. */
+    @Query("SELECT max(e.sequence) FROM MarketplaceEvent e")
+    Long findNewestSequence();
+
+    /** @return The newest sequence number of the events created before {@code cutoff}, {@code null} if none. */
+    @Query("SELECT max(e.sequence) FROM MarketplaceEvent e WHERE e.createdAt < :cutoff")
+    Long findNewestSequenceCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM MarketplaceEvent e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
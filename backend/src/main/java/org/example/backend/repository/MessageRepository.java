@@ -1,6 +1,7 @@
 package org.example.backend.repository;
 
 import org.example.backend.model.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,24 +11,49 @@ import java.util.List;
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     /**
-     * Finds all messages exchanged between two users, in chronological order.
+     * Finds one page of messages exchanged between two users, walking backwards from {@code beforeId}.
      * This query finds messages where:
      * (user1 was sender AND user2 was recipient)
      * OR
      * (user2 was sender AND user1 was recipient)
+     * and returns them newest first, so the caller must reverse the page for display.
      */
     @Query("SELECT m FROM Message m WHERE " +
-            "(m.senderClerkId = :clerkId1 AND m.recipientClerkId = :clerkId2) OR " +
-            "(m.senderClerkId = :clerkId2 AND m.recipientClerkId = :clerkId1) " +
-            "ORDER BY m.timestamp ASC")
-    List<Message> findConversationHistory(@Param("clerkId1") String clerkId1,
-                                          @Param("clerkId2") String clerkId2);
+            "((m.senderClerkId = :clerkId1 AND m.recipientClerkId = :clerkId2) OR " +
+            "(m.senderClerkId = :clerkId2 AND m.recipientClerkId = :clerkId1)) " +
+            "AND m.id < :beforeId " +
+            "ORDER BY m.id DESC")
+    List<Message> findConversationPageBefore(@Param("clerkId1") String clerkId1,
+                                             @Param("clerkId2") String clerkId2,
+                                             @Param("beforeId") Long beforeId,
+                                             Limit limit);
 
-    @Query("SELECT DISTINCT CASE " +
-            "WHEN m.senderClerkId = :myId THEN m.recipientClerkId " +
-            "ELSE m.senderClerkId " +
-            "END " +
-            "FROM Message m " +
-            "WHERE m.senderClerkId = :myId OR m.recipientClerkId = :myId")
-    List<String> findChatPartnerIds(@Param("myId") String myId);
+    /**
+     * Finds the messages exchanged between two users after {@code sinceId}, in chronological order.
+     * Used by clients to fetch only what they have not seen yet.
+     */
+    @Query("SELECT m FROM Message m WHERE " +
+            "((m.senderClerkId = :clerkId1 AND m.recipientClerkId = :clerkId2) OR " +
+            "(m.senderClerkId = :clerkId2 AND m.recipientClerkId = :clerkId1)) " +
+            "AND m.id > :sinceId " +
+            "ORDER BY m.id ASC")
+    List<Message> findConversationSince(@Param("clerkId1") String clerkId1,
+                                        @Param("clerkId2") String clerkId2,
+                                        @Param("sinceId") Long sinceId,
+                                        Limit limit);
+
+    /**
+     * Messages sent to {@code recipient} that none of their clients has acknowledged yet, oldest first.
+     * Served by the partial index idx_chat_messages_undelivered (see data.sql).
+     */
+    @Query("SELECT m FROM Message m WHERE m.recipientClerkId = :recipient AND m.deliveredAt IS NULL ORDER BY m.id ASC")
+    List<Message> findUndelivered(@Param("recipient") String recipient, Limit limit);
+
+    /**
+     * Latest message id per (sender, recipient) direction.
+     * Only used once, to build the conversation summaries for history that predates them.
+     */
+    @Query("SELECT m.senderClerkId, m.recipientClerkId, MAX(m.id) FROM Message m " +
+            "GROUP BY m.senderClerkId, m.recipientClerkId")
+    List<Object[]> findLatestMessageIdPerDirection();
 }
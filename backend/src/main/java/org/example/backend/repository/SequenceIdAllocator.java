@@ -0,0 +1,41 @@
+package org.example.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ids from a database sequence without a round trip per id.
+ * <p>
+ * Uses the same block semantics as Hibernate's pooled optimizer: a {@code nextval} result {@code v}
+ * reserves the ids {@code (v - allocationSize, v]}. Because each {@code nextval} returns a distinct
+ * value, ids taken here never collide with ids Hibernate generates from the same sequence,
+ * as long as the sequence is created with an increment of at least {@code allocationSize}.
+ * With an allocation size of 1 every id is a {@code nextval} result, so ids follow the sequence's order
+ * across all nodes, at the cost of a round trip per id.
+ */
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    private long nextId;
+    private long highId = -1;
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, String sequenceName, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = "SELECT nextval('" + sequenceName + "')";
+        this.allocationSize = allocationSize;
+    }
+
+    public synchronized long nextId() {
+        if (nextId > highId) {
+            Long high = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            if (high == null) {
+                throw new IllegalStateException("Sequence returned no value: " + nextValueSql);
+            }
+            highId = high;
+            nextId = Math.max(1, high - allocationSize + 1);
+        }
+        return nextId++;
+    }
+}
@@ -1,7 +1,13 @@
 package org.example.backend.repository;
 
 import org.example.backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -10,4 +16,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Using Optional is a best practice to handle cases where the user may not exist.
      */
     Optional<User> findByClerkUserId(String clerkUserId);
+
+    /**
+     * One page of the user directory, ordered by lowercased username and then id, without the caller.
+     * {@code pattern} is a LIKE pattern, matched case-insensitively; the keyset starts after
+     * ({@code afterName}, {@code afterId}), pass ("", 0) for the first page. Served by the (lower(username), id)
+     * index in data.sql, and by the trigram index from db/pg_trgm.sql where a DBA installed it.
+     * No user is left out by the username predicates: the column is NOT NULL, and users who sign up without a
+     * username are named after their Clerk id (UserService.findOrCreateUser).
+     */
+    @Query("SELECT u FROM User u WHERE u.clerkUserId <> :excludedClerkUserId " +
+            "AND lower(u.username) LIKE lower(:pattern) ESCAPE '\\' " +
+            "AND (lower(u.username) > lower(:afterName) OR (lower(u.username) = lower(:afterName) AND u.id > :afterId)) " +
+            "ORDER BY lower(u.username), u.id")
+    List<User> findDirectoryPage(@Param("excludedClerkUserId") String excludedClerkUserId,
+                                 @Param("pattern") String pattern,
+                                 @Param("afterName") String afterName,
+                                 @Param("afterId") Long afterId,
+                                 Limit limit);
+
+    /**
+     * {@link #findDirectoryPage} for a prefix search, with the lowercased usernames also bounded to
+     * [{@code from}, {@code to}). A btree cannot bound LIKE by itself outside the C collation, so without the
+     * range a rare prefix would walk the (lower(username), id) index from the start. The bounds must hold
+     * every name the pattern matches; the pattern is still what selects them.
+     */
+    @Query("SELECT u FROM User u WHERE u.clerkUserId <> :excludedClerkUserId " +
+            "AND lower(u.username) >= :from AND lower(u.username) < :to " +
+            "AND lower(u.username) LIKE lower(:pattern) ESCAPE '\\' " +
+            "AND (lower(u.username) > lower(:afterName) OR (lower(u.username) = lower(:afterName) AND u.id > :afterId)) " +
+            "ORDER BY lower(u.username), u.id")
+    List<User> findDirectoryPageInRange(@Param("excludedClerkUserId") String excludedClerkUserId,
+                                        @Param("pattern") String pattern,
+                                        @Param("from") String from,
+                                        @Param("to") String to,
+                                        @Param("afterName") String afterName,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    /**
+     * Creates the user unless a row with this Clerk ID exists, e.g. one just created by another node.
+     * @return 1 if the user was created, 0 otherwise.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO users (clerk_user_id, username) VALUES (:clerkUserId, :username) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("clerkUserId") String clerkUserId, @Param("username") String username);
 }
@@ -0,0 +1,27 @@
+package org.example.backend.repository;
+
+import org.example.backend.model.ViewVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ViewVersionRepository extends JpaRepository<ViewVersion, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO view_version (scope, version) VALUES (:scope, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertIfAbsent(@Param("scope") String scope);
+
+    @Modifying
+    @Query("UPDATE ViewVersion v SET v.version = v.version + :delta WHERE v.scope = :scope")
+    int increment(@Param("scope") String scope, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE ViewVersion v SET v.version = :value WHERE v.scope = :scope AND v.version < :value")
+    int raise(@Param("scope") String scope, @Param("value") long value);
+
+    @Query("SELECT v.version FROM ViewVersion v WHERE v.scope = :scope")
+    Optional<Long> findVersion(@Param("scope") String scope);
+}
@@ -0,0 +1,107 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.backend.config.CardCatalogProperties;
+import org.example.backend.dto.CatalogCardDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams a catalog dump into the card_catalog table.
+ * <p>
+ * Accepted layouts: a JSON array of cards, an object whose first field is a {@code "cards"} array
+ * (the MTG API response format), or NDJSON (one card object per line).
+ * Only one batch of cards is held in memory at a time, whatever the size of the file.
+ */
+@Service
+public class CardCatalogImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CardCatalogImporter.class);
+
+    public record ImportResult(long imported, long skipped) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CardCatalogWriter catalogWriter;
+    private final CardCatalogService catalogService;
+    private final ViewVersionService viewVersionService;
+    private final int batchSize;
+
+    public CardCatalogImporter(ObjectMapper objectMapper, CardCatalogWriter catalogWriter,
+                               CardCatalogService catalogService, ViewVersionService viewVersionService,
+                               CardCatalogProperties properties) {
+        this.objectMapper = objectMapper;
+        this.catalogWriter = catalogWriter;
+        this.catalogService = catalogService;
+        this.viewVersionService = viewVersionService;
+        this.batchSize = Math.max(1, properties.getImportBatchSize());
+    }
+
+    /**
+     * Imports every card in {@code in}, inserting new cards and overwriting existing ones.
+     * Each batch is committed on its own, so a failure part way keeps the batches written so far.
+     * Cards without an id or name are skipped.
+     */
+    public ImportResult importFrom(InputStream in) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(CatalogCardDto.class);
+        // Keyed by id so that a card repeated within one batch is written once, last one wins
+        Map<String, CatalogCardDto> batch = new LinkedHashMap<>();
+        long imported = 0;
+        long skipped = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT && parser.nextToken() == JsonToken.FIELD_NAME
+                    && "cards".equals(parser.currentName())) {
+                token = parser.nextToken(); // {"cards": [ ... ]}
+            }
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            // NDJSON: the parser may be inside the first object already, which readValue picks up from
+            while (token == JsonToken.START_OBJECT || token == JsonToken.FIELD_NAME) {
+                CatalogCardDto card = reader.readValue(parser);
+                if (card.getId() == null || card.getId().isBlank() || card.getName() == null || card.getName().isBlank()) {
+                    skipped++;
+                } else {
+                    batch.put(card.getId(), card);
+                    if (batch.size() >= batchSize) {
+                        imported += flush(batch);
+                    }
+                }
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                throw new IOException("Unexpected " + token + " in catalog file at " + parser.currentLocation());
+            }
+        }
+        imported += flush(batch);
+        log.info("Imported {} catalog cards, skipped {}.", imported, skipped);
+        return new ImportResult(imported, skipped);
+    }
+
+    private int flush(Map<String, CatalogCardDto> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        catalogWriter.upsert(new ArrayList<>(batch.values()));
+        catalogService.evict(batch.keySet());
+        // After the commit: card responses are enriched from the catalog, so their ETags change too
+        viewVersionService.bump(ViewVersionService.CATALOG);
+        batch.clear();
+        return size;
+    }
+}
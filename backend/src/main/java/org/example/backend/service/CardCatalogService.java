@@ -0,0 +1,135 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CatalogCardDto;
+import org.example.backend.model.CardCatalogEntry;
+import org.example.backend.repository.CardCatalogRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read access to the local card catalog. Lookups go through the cardId cache first;
+ * misses are loaded from the database in one query per call, never from the network.
+ */
+@Service
+@Timed("binderbase.service")
+public class CardCatalogService {
+
+    private final CardCatalogRepository catalogRepository;
+    private final Cache<String, Optional<CardCatalogEntry>> catalogCache;
+
+    public CardCatalogService(CardCatalogRepository catalogRepository,
+                              Cache<String, Optional<CardCatalogEntry>> catalogCache) {
+        this.catalogRepository = catalogRepository;
+        this.catalogCache = catalogCache;
+    }
+
+    public Optional<CardCatalogEntry> find(String cardId) {
+        if (cardId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findAll(List.of(cardId)).get(cardId));
+    }
+
+    /**
+     * @return The catalog entries of the given ids that exist, keyed by cardId.
+     */
+    public Map<String, CardCatalogEntry> findAll(Collection<String> cardIds) {
+        Set<String> keys = cardIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, CardCatalogEntry> found = new HashMap<>();
+        catalogCache.getAll(keys, this::load)
+                .forEach((cardId, entry) -> entry.ifPresent(value -> found.put(cardId, value)));
+        return found;
+    }
+
+    /**
+     * Fills the catalog fields (image, type, rarity, set) of the given cards in place.
+     * @return The same list, for chaining.
+     */
+    public List<CardResponseDto> enrich(List<CardResponseDto> cards) {
+        Map<String, CardCatalogEntry> entries = findAll(cards.stream().map(CardResponseDto::getCardId).toList());
+        for (CardResponseDto card : cards) {
+            CardCatalogEntry entry = entries.get(card.getCardId());
+            if (entry != null) {
+                card.setImageUrl(entry.imageUrl());
+                card.setType(entry.type());
+                card.setRarity(entry.rarity());
+                card.setSetCode(entry.setCode());
+                card.setSetName(entry.setName());
+            }
+        }
+        return cards;
+    }
+
+    public CardResponseDto enrich(CardResponseDto card) {
+        enrich(List.of(card));
+        return card;
+    }
+
+    /**
+     * Hands the cards to {@code action} one at a time, enriched in chunks of {@code chunkSize},
+     * so a long stream never needs more than one chunk in memory.
+     */
+    public void forEachEnriched(Stream<CardResponseDto> cards, int chunkSize, Consumer<CardResponseDto> action) {
+        List<CardResponseDto> chunk = new ArrayList<>(chunkSize);
+        cards.forEachOrdered(card -> {
+            chunk.add(card);
+            if (chunk.size() == chunkSize) {
+                enrich(chunk).forEach(action);
+                chunk.clear();
+            }
+        });
+        enrich(chunk).forEach(action);
+    }
+
+    /**
+     * Drops cached entries, e.g. after the importer changed them.
+     */
+    public void evict(Collection<String> cardIds) {
+        catalogCache.invalidateAll(cardIds);
+    }
+
+    private Map<String, Optional<CardCatalogEntry>> load(Set<? extends String> cardIds) {
+        Map<String, Optional<CardCatalogEntry>> loaded = new HashMap<>();
+        cardIds.forEach(cardId -> loaded.put(cardId, Optional.empty()));
+        catalogRepository.findAllById(List.copyOf(cardIds))
+                .forEach(card -> loaded.put(card.getCardId(), Optional.of(CardCatalogEntry.of(card))));
+        return loaded;
+    }
+
+    CatalogCardDto toDto(CardCatalogEntry entry) {
+        return CatalogCardDto.builder()
+                .id(entry.cardId())
+                .name(entry.name())
+                .manaCost(entry.manaCost())
+                .cmc(entry.cmc())
+                .colors(entry.colors())
+                .type(entry.type())
+                .rarity(entry.rarity())
+                .set(entry.setCode())
+                .setName(entry.setName())
+                .text(entry.text())
+                .artist(entry.artist())
+                .number(entry.number())
+                .power(entry.power())
+                .toughness(entry.toughness())
+                .imageUrl(entry.imageUrl())
+                .build();
+    }
+}
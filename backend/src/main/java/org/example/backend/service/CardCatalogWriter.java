@@ -0,0 +1,75 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CatalogCardDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upserts a batch of catalog cards in one transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardCatalogWriter {
+
+    private static final String UPDATE_SQL = "UPDATE card_catalog SET " +
+            "name = ?, mana_cost = ?, cmc = ?, colors = ?, type_line = ?, rarity = ?, set_code = ?, set_name = ?, " +
+            "text = ?, artist = ?, collector_number = ?, power = ?, toughness = ?, image_url = ?, updated_at = ? " +
+            "WHERE card_id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO card_catalog " +
+            "(name, mana_cost, cmc, colors, type_line, rarity, set_code, set_name, " +
+            "text, artist, collector_number, power, toughness, image_url, updated_at, card_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Updates the cards that already exist as one JDBC batch, then inserts the rest as another.
+     * (Plain UPDATE + INSERT rather than ON CONFLICT DO UPDATE, which H2 does not understand.)
+     * @param cards Cards with distinct ids.
+     */
+    @Transactional
+    public void upsert(List<CatalogCardDto> cards) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, cards, cards.size(), (ps, card) -> bind(ps, card, now));
+
+        List<CatalogCardDto> missing = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(cards.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, card) -> bind(ps, card, now));
+        }
+    }
+
+    private static void bind(PreparedStatement ps, CatalogCardDto card, Timestamp now) throws SQLException {
+        ps.setString(1, card.getName());
+        ps.setString(2, card.getManaCost());
+        ps.setObject(3, card.getCmc(), Types.DOUBLE);
+        ps.setString(4, card.getColors() == null ? null : String.join(",", card.getColors()));
+        ps.setString(5, card.getType());
+        ps.setString(6, card.getRarity());
+        ps.setString(7, card.getSet());
+        ps.setString(8, card.getSetName());
+        ps.setString(9, card.getText());
+        ps.setString(10, card.getArtist());
+        ps.setString(11, card.getNumber());
+        ps.setString(12, card.getPower());
+        ps.setString(13, card.getToughness());
+        ps.setString(14, card.getImageUrl());
+        ps.setTimestamp(15, now);
+        ps.setString(16, card.getId());
+    }
+}
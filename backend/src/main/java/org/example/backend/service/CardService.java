@@ -1,25 +1,31 @@
 package org.example.backend.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.example.backend.dto.CardResponseDto;
 import org.example.backend.dto.saveCardDto;
 import org.example.backend.model.Card;
 import org.example.backend.model.CardStatus;
-import org.example.backend.model.User;
+import org.example.backend.model.UserIdentity;
 import org.example.backend.repository.CardRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed("binderbase.service")
 @RequiredArgsConstructor
 public class CardService {
 
     private final CardRepository cardRepository;
     private final UserService userService;
+    private final CardCatalogService catalogService;
+    private final ViewVersionService viewVersionService;
+    private final CollectionStatsService statsService;
 
     /**
      * Adds a card to a user's collection.
@@ -27,40 +33,51 @@ public class CardService {
      */
     @Transactional
     public CardResponseDto addCardToCollection(saveCardDto dto) {
-        User user = userService.findOrCreateUser(dto.getUserId(), dto.getUsername());
+        UserIdentity owner = userService.findOrCreateUser(dto.getUserId(), dto.getUsername());
         Card newCard = Card.builder()
                 .name(dto.getCardName())
                 .cardId(dto.getCardId())
-                .user(user) // Link the User object, not just the ID.
+                .user(userService.getReference(owner)) // Link the User row without loading it
                 .status(CardStatus.IN_COLLECTION) // Explicitly set the default status
                 .build();
 
         Card savedCard = cardRepository.save(newCard);
+        viewVersionService.bump(ViewVersionService.collection(owner.clerkUserId()));
+        statsService.apply(owner.clerkUserId(), new CollectionStatsService.Changes().added(CardStatus.IN_COLLECTION, null));
 
-        return toDto(savedCard);
+        return catalogService.enrich(toDto(savedCard, owner));
     }
 
     /**
-     * Retrieves all cards for a user based on their Clerk ID.
+     * Retrieves all cards for a user based on their Clerk ID, with image and set details from the catalog.
      */
     @Transactional(readOnly = true)
     public List<CardResponseDto> getCardsByUserId(String clerkUserId) {
-        return cardRepository.findAllByUser_ClerkUserId(clerkUserId)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return catalogService.enrich(cardRepository.findCardResponsesByClerkUserId(clerkUserId));
+    }
+
+    /**
+     * Streaming variant of {@link #getCardsByUserId}: hands the cards to {@code action} as they are read,
+     * without building the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamCardsByUserId(String clerkUserId, Consumer<CardResponseDto> action) {
+        try (Stream<CardResponseDto> cards = cardRepository.streamCardResponsesByClerkUserId(clerkUserId)) {
+            catalogService.forEachEnriched(cards, CardRepository.STREAM_FETCH_SIZE, action);
+        }
     }
 
     /**
      * Helper method to map a Card entity to a CardResponseDto.
+     * The owner is passed in so the (unloaded) user reference is never touched.
      */
-    private CardResponseDto toDto(Card card) {
+    CardResponseDto toDto(Card card, UserIdentity owner) {
         return CardResponseDto.builder()
                 .id(card.getId())
                 .name(card.getName())
                 .cardId(card.getCardId())
-                .username(card.getUser().getUsername())
-                .userId(card.getUser().getClerkUserId())
+                .username(owner.username())
+                .userId(owner.clerkUserId())
                 .status(card.getStatus())
                 .price(card.getPrice())
                 .build();
@@ -0,0 +1,76 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.model.Conversation;
+import org.example.backend.model.Message;
+import org.example.backend.repository.ConversationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a batch of chat messages, and the conversation summaries they affect, in one transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMessageWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO chat_messages " +
+            "(id, sender_clerk_id, recipient_clerk_id, sender_username, recipient_username, content, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConversationRepository conversationRepository;
+
+    /**
+     * Inserts the messages as a single JDBC batch, then updates each affected conversation once.
+     * @param messages Messages with their id and timestamp already assigned, in id order.
+     */
+    @Transactional
+    public void write(List<Message> messages) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getId());
+            ps.setString(2, message.getSenderClerkId());
+            ps.setString(3, message.getRecipientClerkId());
+            ps.setString(4, message.getSenderUsername());
+            ps.setString(5, message.getRecipientUsername());
+            ps.setString(6, message.getContent());
+            ps.setTimestamp(7, Timestamp.from(message.getTimestamp()));
+        });
+
+        // Collapse the batch to one summary update per user pair
+        Map<List<String>, ConversationDelta> deltas = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String[] pair = Conversation.canonicalPair(message.getSenderClerkId(), message.getRecipientClerkId());
+            deltas.computeIfAbsent(List.of(pair), key -> new ConversationDelta()).add(message, pair[0]);
+        }
+        deltas.forEach((pair, delta) -> {
+            conversationRepository.insertIfAbsent(pair.get(0), pair.get(1));
+            conversationRepository.recordMessages(pair.get(0), pair.get(1),
+                    delta.last.getId(), Conversation.previewOf(delta.last.getContent()), delta.last.getTimestamp(),
+                    delta.receivedByA, delta.receivedByB);
+        });
+    }
+
+    private static final class ConversationDelta {
+        private Message last;
+        private int receivedByA;
+        private int receivedByB;
+
+        void add(Message message, String userA) {
+            if (last == null || message.getId() > last.getId()) {
+                last = message;
+            }
+            if (message.getRecipientClerkId().equals(userA)) {
+                receivedByA++;
+            } else {
+                receivedByB++;
+            }
+        }
+    }
+}
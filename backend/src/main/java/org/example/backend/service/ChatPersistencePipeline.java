@@ -0,0 +1,228 @@
+package org.example.backend.service;
+
+import org.example.backend.config.ChatPersistenceProperties;
+import org.example.backend.model.Message;
+import org.example.backend.repository.SequenceIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind queue for chat messages.
+ * <p>
+ * Senders enqueue messages with their timestamp assigned; the pipeline gives each its id as it is queued,
+ * so that ids follow queue order, and the sender gets a future that completes once the message is committed.
+ * A single writer thread drains the bounded queue and hands batches to {@link ChatMessageWriter}, so a node
+ * commits its messages in id order. When the queue is full, senders block for up to the configured
+ * enqueue timeout and are then rejected, which pushes back on the inbound STOMP channel instead of
+ * growing the heap. The pipeline stops after the web server and the STOMP broker, so messages still
+ * arriving during shutdown are accepted; it then stops accepting messages and drains the queue before
+ * the application context closes the datasource. Every accepted message's future is completed, or
+ * failed if it could not be written.
+ */
+@Component
+public class ChatPersistencePipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPersistencePipeline.class);
+
+    /** Starts before and stops after the web server and the STOMP broker, which use the phases above this one. */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ChatMessageWriter writer;
+    private final SequenceIdAllocator idAllocator;
+    private final ChatPersistenceProperties properties;
+    private final BlockingQueue<PendingMessage> queue;
+    // Held from taking an id until the message is queued, so that no message overtakes one with a lower id
+    private final Lock orderLock = new ReentrantLock();
+    // Held shared while queueing and exclusively to stop accepting, so nothing is queued after the writer's last look
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread workerThread;
+
+    public ChatPersistencePipeline(ChatMessageWriter writer, SequenceIdAllocator chatMessageIdAllocator,
+                                   ChatPersistenceProperties properties) {
+        this.writer = writer;
+        this.idAllocator = chatMessageIdAllocator;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Gives the message its id and queues it for persistence.
+     * @return A future completed when the message has been committed, or failed if the write failed.
+     * @throws IllegalStateException if the queue stays full for longer than the enqueue timeout,
+     *                               or the pipeline is shutting down.
+     */
+    public CompletableFuture<Void> enqueue(Message message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new IllegalStateException("Chat persistence is not accepting messages.");
+            }
+            // Senders wait for the lock while the queue is full, so the timeout covers both
+            long timeout = properties.getEnqueueTimeout().toNanos();
+            long deadline = System.nanoTime() + timeout;
+            if (!orderLock.tryLock(timeout, TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Chat persistence queue is full; message rejected.");
+            }
+            try {
+                message.setId(idAllocator.nextId());
+                if (!queue.offer(pending, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Chat persistence queue is full; message rejected.");
+                }
+            } finally {
+                orderLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing chat message.", e);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return pending.persisted();
+    }
+
+    /** Number of messages waiting to be written. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        workerThread = new Thread(this::runWriter, "chat-persistence-writer");
+        workerThread.setDaemon(false);
+        workerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        stopAccepting();
+        running = false;
+        try {
+            workerThread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (workerThread.isAlive()) {
+            int dropped = failQueued(new IllegalStateException("Chat persistence shut down before the message was written."));
+            log.error("Chat persistence did not drain within {}; {} messages were not written.",
+                    properties.getShutdownTimeout(), dropped);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            // Keep going after stop() until everything that was accepted has been written
+            while (running || !queue.isEmpty()) {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopAccepting();
+            running = false;
+            IllegalStateException failure = new IllegalStateException("Chat persistence was interrupted.", e);
+            batch.forEach(pending -> pending.persisted().completeExceptionally(failure));
+            int dropped = batch.size() + failQueued(failure);
+            log.error("Chat persistence writer was interrupted; {} messages were not written.", dropped);
+        }
+    }
+
+    /** Waits for senders already inside enqueue(); once this returns, nothing more is queued. */
+    private void stopAccepting() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fails the futures of the messages still queued.
+     * @return The number of messages removed from the queue.
+     */
+    private int failQueued(RuntimeException failure) {
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.persisted().completeExceptionally(failure));
+        return remaining.size();
+    }
+
+    /** Takes whatever is already queued, then lingers up to the flush interval for a fuller batch. */
+    private void fillBatch(List<PendingMessage> batch) throws InterruptedException {
+        int batchSize = properties.getBatchSize();
+        queue.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+        while (batch.size() < batchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        List<Message> messages = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            messages.add(pending.message());
+        }
+        try {
+            writer.write(messages);
+            batch.forEach(pending -> pending.persisted().complete(null));
+        } catch (RuntimeException e) {
+            log.error("Failed to persist a batch of {} chat messages.", messages.size(), e);
+            batch.forEach(pending -> pending.persisted().completeExceptionally(e));
+        }
+    }
+
+    private record PendingMessage(Message message, CompletableFuture<Void> persisted) {
+    }
+}
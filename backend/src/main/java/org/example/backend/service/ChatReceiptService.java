@@ -0,0 +1,116 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.ChatAckDto;
+import org.example.backend.dto.ChatReceiptDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery and read acknowledgements of chat messages.
+ * <p>
+ * Acknowledgements arrive one STOMP frame at a time, often several per second from one reader. They are merged
+ * per (recipient, sender) pair in memory, written together on every flush, and the senders are told what changed
+ * on {@code /user/{senderId}/private-receipts}, one frame per pair. Losing the acknowledgements of the last flush
+ * interval in a crash is harmless: messages not marked delivered are sent again as part of the pending backlog,
+ * and acknowledged again.
+ */
+@Service
+public class ChatReceiptService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatReceiptService.class);
+
+    public static final String RECEIPTS_DESTINATION = "/private-receipts";
+
+    /** Most message ids one acknowledgement may carry; the pending backlog is never larger. */
+    static final int MAX_ACK_IDS = ChatService.MAX_PENDING_MESSAGES;
+
+    private record Pair(String recipientClerkId, String senderClerkId) {
+    }
+
+    private static final class Pending {
+        private final Set<Long> delivered = new LinkedHashSet<>();
+        private Long readUpTo;
+    }
+
+    private final ChatReceiptWriter writer;
+    private final ClusterMessageRouter messageRouter;
+
+    private final Map<Pair, Pending> pending = new ConcurrentHashMap<>();
+
+    public ChatReceiptService(ChatReceiptWriter writer, ClusterMessageRouter messageRouter) {
+        this.writer = writer;
+        this.messageRouter = messageRouter;
+    }
+
+    /**
+     * Records an acknowledgement by {@code recipientClerkId}, to be written on the next flush.
+     */
+    public void acknowledge(String recipientClerkId, ChatAckDto ack) {
+        if (ack.getSenderClerkId() == null || ack.getSenderClerkId().equals(recipientClerkId)) {
+            throw new IllegalArgumentException("An acknowledgement needs the sender of the messages.");
+        }
+        List<Long> delivered = ack.getDelivered() == null ? List.of() : ack.getDelivered();
+        if (delivered.size() > MAX_ACK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_ACK_IDS + " messages per acknowledgement.");
+        }
+        if (delivered.isEmpty() && ack.getReadUpTo() == null) {
+            return;
+        }
+        // compute() locks the entry, so acknowledgements of the same pair merge safely
+        pending.compute(new Pair(recipientClerkId, ack.getSenderClerkId()), (pair, receipts) -> {
+            Pending merged = receipts != null ? receipts : new Pending();
+            delivered.stream().filter(Objects::nonNull).forEach(merged.delivered::add);
+            if (ack.getReadUpTo() != null && (merged.readUpTo == null || ack.getReadUpTo() > merged.readUpTo)) {
+                merged.readUpTo = ack.getReadUpTo();
+            }
+            return merged;
+        });
+    }
+
+    /**
+     * Writes the acknowledgements collected since the previous call and notifies their senders.
+     */
+    @Scheduled(fixedDelayString = "${binderbase.chat.receipts.flush-interval:250ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ChatReceiptWriter.Receipts> batch = new ArrayList<>();
+        for (Pair pair : pending.keySet()) {
+            // Once removed, an entry is no longer reachable by acknowledge(); later ones start a new entry
+            Pending receipts = pending.remove(pair);
+            if (receipts != null) {
+                batch.add(new ChatReceiptWriter.Receipts(pair.recipientClerkId(), pair.senderClerkId(),
+                        receipts.delivered, receipts.readUpTo));
+            }
+        }
+        List<ChatReceiptWriter.Receipts> changed;
+        try {
+            changed = writer.write(batch, Instant.now());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} chat acknowledgements; the messages stay pending.", batch.size(), e);
+            return;
+        }
+        for (ChatReceiptWriter.Receipts receipts : changed) {
+            messageRouter.sendToUser(receipts.senderClerkId(), RECEIPTS_DESTINATION, new ChatReceiptDto(
+                    receipts.recipientClerkId(), List.copyOf(receipts.delivered()), receipts.readUpTo()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.model.Conversation;
+import org.example.backend.repository.ConversationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes collected delivery and read acknowledgements in one transaction, as two JDBC batches,
+ * and takes the messages read off the readers' unread counters in the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatReceiptWriter {
+
+    /** The acknowledgements of one recipient for the messages of one sender. */
+    public record Receipts(String recipientClerkId, String senderClerkId, Set<Long> delivered, Long readUpTo) {
+    }
+
+    // The sender and recipient conditions make sure clients can only acknowledge messages sent to them
+    private static final String DELIVERED_SQL = "UPDATE chat_messages SET delivered_at = ? " +
+            "WHERE id = ? AND sender_clerk_id = ? AND recipient_clerk_id = ? AND delivered_at IS NULL";
+    // A range over the (sender, recipient, id) index; reading a message implies it was delivered
+    private static final String READ_SQL = "UPDATE chat_messages SET read_at = ?, delivered_at = COALESCE(delivered_at, ?) " +
+            "WHERE sender_clerk_id = ? AND recipient_clerk_id = ? AND id <= ? AND read_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConversationRepository conversationRepository;
+
+    /**
+     * @return What actually changed, for the pairs where something did; acknowledgements of messages already
+     *         in that state, or not sent to the acknowledging user, are left out.
+     */
+    @Transactional
+    public List<Receipts> write(List<Receipts> receipts, Instant at) {
+        Timestamp timestamp = Timestamp.from(at);
+        List<DeliveredRow> deliveredRows = new ArrayList<>();
+        List<Receipts> reads = new ArrayList<>();
+        for (Receipts receipt : receipts) {
+            receipt.delivered().forEach(id -> deliveredRows.add(new DeliveredRow(receipt, id)));
+            if (receipt.readUpTo() != null) {
+                reads.add(receipt);
+            }
+        }
+
+        Map<Receipts, Changes> changed = new LinkedHashMap<>();
+        int[][] deliveredCounts = jdbcTemplate.batchUpdate(DELIVERED_SQL, deliveredRows, Math.max(1, deliveredRows.size()),
+                (ps, row) -> {
+                    ps.setTimestamp(1, timestamp);
+                    ps.setLong(2, row.id());
+                    ps.setString(3, row.receipts().senderClerkId());
+                    ps.setString(4, row.receipts().recipientClerkId());
+                });
+        int index = 0;
+        for (int[] counts : deliveredCounts) {
+            for (int count : counts) {
+                DeliveredRow row = deliveredRows.get(index++);
+                if (count > 0) {
+                    changed.computeIfAbsent(row.receipts(), key -> new Changes()).delivered.add(row.id());
+                }
+            }
+        }
+
+        int[][] readCounts = jdbcTemplate.batchUpdate(READ_SQL, reads, Math.max(1, reads.size()), (ps, receipt) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setString(3, receipt.senderClerkId());
+            ps.setString(4, receipt.recipientClerkId());
+            ps.setLong(5, receipt.readUpTo());
+        });
+        index = 0;
+        for (int[] counts : readCounts) {
+            for (int count : counts) {
+                Receipts receipt = reads.get(index++);
+                if (count > 0) {
+                    changed.computeIfAbsent(receipt, key -> new Changes()).readUpTo = receipt.readUpTo();
+                    String[] pair = Conversation.canonicalPair(receipt.senderClerkId(), receipt.recipientClerkId());
+                    conversationRepository.markMessagesRead(pair[0], pair[1], receipt.recipientClerkId(), count);
+                }
+            }
+        }
+        List<Receipts> result = new ArrayList<>(changed.size());
+        changed.forEach((pair, changes) -> result.add(new Receipts(pair.recipientClerkId(),
+                pair.senderClerkId(), changes.delivered, changes.readUpTo)));
+        return result;
+    }
+
+    private static final class Changes {
+        private final Set<Long> delivered = new LinkedHashSet<>();
+        private Long readUpTo;
+    }
+
+    private record DeliveredRow(Receipts receipts, long id) {
+    }
+}
@@ -1,62 +1,187 @@
 package org.example.backend.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.config.ChatPersistenceProperties;
+import org.example.backend.dto.ConversationDto;
 import org.example.backend.model.ChatMessage;
+import org.example.backend.model.Conversation;
 import org.example.backend.model.Message;
+import org.example.backend.repository.ConversationRepository;
 import org.example.backend.repository.MessageRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("binderbase.service")
 @RequiredArgsConstructor
 public class ChatService {
 
+    static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    static final int MAX_HISTORY_PAGE_SIZE = 200;
+
+    static final int MAX_PENDING_MESSAGES = 500;
+
+    static final int DEFAULT_INBOX_SIZE = 50;
+    static final int MAX_INBOX_SIZE = 200;
+
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ChatPersistencePipeline persistencePipeline;
+    private final ChatPersistenceProperties persistenceProperties;
 
     /**
-     * Saves a new chat message to the database.
+     * Accepts a new chat message for delivery and persistence.
+     * The timestamp is assigned immediately and the server id as the message is queued; the database
+     * write happens in the background, batched with other messages.
      * @param messageDto The ChatMessage DTO containing message details.
-     * @return The saved ChatMessage DTO.
+     * @return The ChatMessage DTO with its server id and timestamp, completed according to the
+     *         configured durability mode: once queued, or once committed.
      */
-    @Transactional
-    public ChatMessage saveMessage(ChatMessage messageDto) {
+    public CompletableFuture<ChatMessage> sendMessage(ChatMessage messageDto) {
         Message message = Message.builder()
                 .senderClerkId(messageDto.getSenderClerkId())
                 .recipientClerkId(messageDto.getRecipientClerkId())
                 .senderUsername(messageDto.getSenderUsername())
                 .recipientUsername(messageDto.getRecipientUsername())
                 .content(messageDto.getContent())
+                .timestamp(Instant.now())
                 .build();
 
-        Message savedMessage = messageRepository.save(message);
-        return toDto(savedMessage);
+        CompletableFuture<Void> persisted = persistencePipeline.enqueue(message);
+        ChatMessage accepted = toDto(message);
+        if (persistenceProperties.getDurability() == ChatPersistenceProperties.Durability.ACK_AFTER_ENQUEUE) {
+            return CompletableFuture.completedFuture(accepted);
+        }
+        return persisted.thenApply(ignored -> accepted);
+    }
+
+    /**
+     * Returns the oldest messages sent to the user that none of their clients has acknowledged yet,
+     * at most {@value #MAX_PENDING_MESSAGES}. Once these are acknowledged, the next call returns the rest.
+     */
+    @Transactional(readOnly = true)
+    public List<ChatMessage> getPendingMessages(String recipientClerkId) {
+        return messageRepository.findUndelivered(recipientClerkId, Limit.of(MAX_PENDING_MESSAGES))
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the user's conversations, most recently active first,
+     * with the last message preview and the user's unread count.
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationDto> getInbox(String clerkUserId, Integer limit) {
+        Limit pageSize = Limit.of(limit == null ? DEFAULT_INBOX_SIZE : Math.max(1, Math.min(limit, MAX_INBOX_SIZE)));
+        return conversationRepository.findInbox(clerkUserId, pageSize);
     }
 
     /**
-     * Retrieves the full chat history between two users.
+     * Resets the reader's unread counter for the conversation with {@code partnerClerkId}.
+     */
+    @Transactional
+    public void markConversationRead(String readerClerkId, String partnerClerkId) {
+        String[] pair = Conversation.canonicalPair(readerClerkId, partnerClerkId);
+        conversationRepository.markRead(pair[0], pair[1], readerClerkId);
+    }
+
+    /**
+     * Creates the conversation summaries for messages saved before the summary table existed.
+     * Does nothing once any summary row is present.
+     * @return The number of summary rows created.
+     */
+    @Transactional
+    public int backfillConversations() {
+        if (conversationRepository.findFirstByOrderByIdAsc().isPresent()) {
+            return 0;
+        }
+        // Merge the two directions of every pair, keeping the latest message id
+        Map<List<String>, Long> latestPerPair = new HashMap<>();
+        for (Object[] row : messageRepository.findLatestMessageIdPerDirection()) {
+            List<String> pair = List.of(Conversation.canonicalPair((String) row[0], (String) row[1]));
+            latestPerPair.merge(pair, (Long) row[2], Math::max);
+        }
+        if (latestPerPair.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Message> lastMessages = messageRepository.findAllById(latestPerPair.values())
+                .stream()
+                .collect(Collectors.toMap(Message::getId, Function.identity()));
+        List<Conversation> conversations = latestPerPair.entrySet().stream()
+                .map(entry -> {
+                    Message last = lastMessages.get(entry.getValue());
+                    return Conversation.builder()
+                            .userAClerkId(entry.getKey().get(0))
+                            .userBClerkId(entry.getKey().get(1))
+                            .lastMessageId(last.getId())
+                            .lastMessagePreview(Conversation.previewOf(last.getContent()))
+                            .lastMessageAt(last.getTimestamp())
+                            .build();
+                })
+                .collect(Collectors.toList());
+        conversationRepository.saveAll(conversations);
+        return conversations.size();
+    }
+
+    /**
+     * Retrieves one page of the chat history between two users, in chronological order.
+     * <ul>
+     *     <li>Without {@code beforeId}/{@code sinceId}: the latest {@code limit} messages.</li>
+     *     <li>With {@code beforeId}: the {@code limit} messages preceding that message (scrolling back).</li>
+     *     <li>With {@code sinceId}: up to {@code limit} messages after that message (catching up).</li>
+     * </ul>
      * @param clerkId1 The Clerk ID of the first user.
      * @param clerkId2 The Clerk ID of the second user.
-     * @return A list of ChatMessage DTOs.
+     * @return A list of ChatMessage DTOs, oldest first.
      */
     @Transactional(readOnly = true)
-    public List<ChatMessage> getConversationHistory(String clerkId1, String clerkId2) {
-        return messageRepository.findConversationHistory(clerkId1, clerkId2)
+    public List<ChatMessage> getConversationHistory(String clerkId1, String clerkId2,
+                                                    Long beforeId, Long sinceId, Integer limit) {
+        if (beforeId != null && sinceId != null) {
+            throw new IllegalArgumentException("Use either 'before' or 'since', not both.");
+        }
+        Limit pageSize = Limit.of(limit == null ? DEFAULT_HISTORY_PAGE_SIZE
+                : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE)));
+
+        if (sinceId != null) {
+            return messageRepository.findConversationSince(clerkId1, clerkId2, sinceId, pageSize)
+                    .stream()
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+        }
+
+        List<ChatMessage> page = messageRepository.findConversationPageBefore(
+                        clerkId1, clerkId2, beforeId != null ? beforeId : Long.MAX_VALUE, pageSize)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
+        Collections.reverse(page); // The query walks backwards; clients expect oldest first
+        return page;
     }
-    
-    private ChatMessage toDto(Message message) {
+
+    ChatMessage toDto(Message message) {
         return ChatMessage.builder()
+                .id(message.getId())
                 .senderClerkId(message.getSenderClerkId())
                 .recipientClerkId(message.getRecipientClerkId())
                 .senderUsername(message.getSenderUsername())
                 .recipientUsername(message.getRecipientUsername())
                 .content(message.getContent())
                 .timestamp(message.getTimestamp().toString()) // Convert Instant to String
+                .status(message.getStatus())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.List;
+
+/**
+ * Delivers STOMP messages to users and topics regardless of which instance holds the sessions.
+ * <p>
+ * User messages go to the local broker when the recipient is connected here, and are forwarded
+ * only to the other instances the {@link SessionRouteDirectory} lists for the recipient.
+ * Topic broadcasts go to the local broker and to every other instance. Whenever this instance
+ * writes routes to the directory, the other instances are told to drop what they cached about them.
+ */
+public class ClusterMessageRouter implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMessageRouter.class);
+
+    /**
+     * What travels between instances. {@code userId} is null for topic broadcasts.
+     * Route change notices carry only {@code changedRoutes}, the users whose routes changed.
+     */
+    record Envelope(String userId, String destination, JsonNode payload, List<String> changedRoutes) {
+    }
+
+    private final LocalSessionRegistry sessionRegistry;
+    private final SessionRouteDirectory directory;
+    private final ClusterTransport transport;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ClusterMessageRouter(LocalSessionRegistry sessionRegistry, SessionRouteDirectory directory,
+                                ClusterTransport transport, SimpMessageSendingOperations messagingTemplate,
+                                ObjectMapper objectMapper) {
+        this.sessionRegistry = sessionRegistry;
+        this.directory = directory;
+        this.transport = transport;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Routes left behind by a previous process with the same node id are stale
+        directory.clearNode(nodeId());
+        transport.register(nodeId(), this::receive);
+        sessionRegistry.addRoutesListener(userIds ->
+                transport.broadcast(nodeId(), serialize(new Envelope(null, null, null, userIds))));
+    }
+
+    @Override
+    public void destroy() {
+        transport.unregister(nodeId());
+        directory.clearNode(nodeId());
+    }
+
+    /**
+     * Sends {@code payload} to {@code /user/{userId}{destination}} on every instance holding a session of the user.
+     */
+    public void sendToUser(String userId, String destination, Object payload) {
+        if (sessionRegistry.hasLocalSession(userId)) {
+            messagingTemplate.convertAndSendToUser(userId, destination, payload);
+        }
+        String message = null;
+        for (String node : directory.nodesFor(userId)) {
+            if (node.equals(nodeId())) {
+                continue;
+            }
+            if (message == null) {
+                message = serialize(new Envelope(userId, destination, objectMapper.valueToTree(payload), null));
+            }
+            transport.sendToNode(node, message);
+        }
+    }
+
+    /**
+     * Sends {@code payload} to the topic {@code destination} on every instance.
+     */
+    public void broadcast(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+        transport.broadcast(nodeId(), serialize(new Envelope(null, destination, objectMapper.valueToTree(payload), null)));
+    }
+
+    private void receive(String message) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(message, Envelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable cluster message: {}", e.getMessage());
+            return;
+        }
+        if (envelope.changedRoutes() != null) {
+            directory.invalidate(envelope.changedRoutes());
+        } else if (envelope.userId() == null) {
+            messagingTemplate.convertAndSend(envelope.destination(), envelope.payload());
+        } else if (sessionRegistry.hasLocalSession(envelope.userId())) {
+            messagingTemplate.convertAndSendToUser(envelope.userId(), envelope.destination(), envelope.payload());
+        }
+    }
+
+    private String serialize(Envelope envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Message payload cannot be serialized.", e);
+        }
+    }
+
+    private String nodeId() {
+        return sessionRegistry.getNodeId();
+    }
+}
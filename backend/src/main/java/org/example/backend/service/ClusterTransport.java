@@ -0,0 +1,21 @@
+package org.example.backend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries serialized messages between backend instances.
+ */
+public interface ClusterTransport {
+
+    /** Starts handing messages addressed to {@code nodeId}, and broadcasts, to {@code handler}. */
+    void register(String nodeId, Consumer<String> handler);
+
+    /** Stops delivering messages to {@code nodeId}. */
+    void unregister(String nodeId);
+
+    /** Sends a message to a single instance. */
+    void sendToNode(String nodeId, String message);
+
+    /** Sends a message to every instance except {@code originNodeId}. */
+    void broadcast(String originNodeId, String message);
+}
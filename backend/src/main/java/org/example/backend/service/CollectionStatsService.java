@@ -0,0 +1,146 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CollectionStatsDto;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.CollectionStats;
+import org.example.backend.repository.CollectionStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Per-user collection statistics, maintained incrementally by the services that change cards.
+ * <p>
+ * A user's totals row is created from their cards the first time one of their cards changes, and from
+ * then on only has changes added to it. Until then the statistics are computed from the cards on read.
+ */
+@Service
+@Timed("binderbase.service")
+@RequiredArgsConstructor
+public class CollectionStatsService {
+
+    private final CollectionStatsRepository statsRepository;
+
+    /**
+     * The changes one card operation makes to a user's totals, collected card by card and then
+     * applied in a single statement.
+     */
+    public static final class Changes {
+
+        private long inCollection;
+        private long forSale;
+        private long sold;
+        private BigDecimal listedValue = BigDecimal.ZERO;
+        private BigDecimal soldValue = BigDecimal.ZERO;
+
+        /** A card that was not in the collection before, e.g. a newly added or imported one. */
+        public Changes added(CardStatus status, BigDecimal price) {
+            count(status, price, 1);
+            return this;
+        }
+
+        /** A card that went from one status or price to another. */
+        public Changes moved(CardStatus fromStatus, BigDecimal fromPrice, CardStatus toStatus, BigDecimal toPrice) {
+            count(fromStatus, fromPrice, -1);
+            count(toStatus, toPrice, 1);
+            return this;
+        }
+
+        private void count(CardStatus status, BigDecimal price, int sign) {
+            BigDecimal value = Objects.requireNonNullElse(price, BigDecimal.ZERO);
+            if (sign < 0) {
+                value = value.negate();
+            }
+            switch (status) {
+                case IN_COLLECTION -> inCollection += sign;
+                case FOR_SALE -> {
+                    forSale += sign;
+                    listedValue = listedValue.add(value);
+                }
+                case SOLD -> {
+                    sold += sign;
+                    soldValue = soldValue.add(value);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return inCollection == 0 && forSale == 0 && sold == 0
+                    && listedValue.signum() == 0 && soldValue.signum() == 0;
+        }
+    }
+
+    /**
+     * Adds {@code changes} to the user's totals. Joins the caller's transaction, which must already have
+     * made the card changes, and holds the totals row locked until it ends.
+     * <p>
+     * The totals stay exact only if {@code changes} holds each card's real old and new values: callers
+     * build it from updates that compare-and-set on the status and price they read, so a card changed
+     * concurrently fails the whole operation instead of being counted from stale values.
+     */
+    @Transactional
+    public void apply(String clerkUserId, Changes changes) {
+        if (changes.isEmpty() || addChanges(clerkUserId, changes) > 0) {
+            return;
+        }
+        // No totals row yet: create it from the cards, which already include this transaction's changes.
+        // If a concurrent transaction created it first, ours were not part of its count, so add them.
+        if (statsRepository.insertFromCards(clerkUserId) == 0) {
+            addChanges(clerkUserId, changes);
+        }
+    }
+
+    /**
+     * @return The user's statistics: a single row read, or a scan of their cards if none of them changed
+     * since the statistics were introduced.
+     */
+    @Transactional(readOnly = true)
+    public CollectionStatsDto getStats(String clerkUserId) {
+        return statsRepository.findById(clerkUserId)
+                .map(CollectionStatsService::toDto)
+                .orElseGet(() -> computeFromCards(clerkUserId));
+    }
+
+    private int addChanges(String clerkUserId, Changes changes) {
+        return statsRepository.addChanges(clerkUserId, changes.inCollection, changes.forSale, changes.sold,
+                changes.listedValue, changes.soldValue);
+    }
+
+    private CollectionStatsDto computeFromCards(String clerkUserId) {
+        CollectionStats stats = CollectionStats.builder()
+                .clerkUserId(clerkUserId)
+                .listedValue(BigDecimal.ZERO)
+                .soldValue(BigDecimal.ZERO)
+                .build();
+        for (Object[] row : statsRepository.sumCardsByStatus(clerkUserId)) {
+            long count = (Long) row[1];
+            BigDecimal value = Objects.requireNonNullElse((BigDecimal) row[2], BigDecimal.ZERO);
+            switch ((CardStatus) row[0]) {
+                case IN_COLLECTION -> stats.setInCollectionCount(count);
+                case FOR_SALE -> {
+                    stats.setForSaleCount(count);
+                    stats.setListedValue(value);
+                }
+                case SOLD -> {
+                    stats.setSoldCount(count);
+                    stats.setSoldValue(value);
+                }
+            }
+        }
+        return toDto(stats);
+    }
+
+    private static CollectionStatsDto toDto(CollectionStats stats) {
+        return new CollectionStatsDto(
+                stats.getInCollectionCount(),
+                stats.getForSaleCount(),
+                stats.getSoldCount(),
+                stats.getInCollectionCount() + stats.getForSaleCount() + stats.getSoldCount(),
+                stats.getListedValue(),
+                stats.getSoldValue());
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CollectionCardRowDto;
+import org.example.backend.dto.CollectionFileFormat;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.CardBulkRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk import and export of a whole collection as CSV or JSON.
+ * Both directions stream: only one JDBC batch of cards is held in memory at a time.
+ */
+@Service
+@Timed("binderbase.service")
+public class CollectionTransferService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL) // An empty price column means no price
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CSV_MAPPER.schemaFor(CollectionCardRowDto.class).withHeader();
+
+    public record ImportResult(int imported, int skipped) {
+    }
+
+    private final CardBulkRepository cardBulkRepository;
+    private final UserService userService;
+    private final ViewVersionService viewVersionService;
+    private final MarketplaceEventService eventService;
+    private final CollectionStatsService statsService;
+    private final ObjectMapper objectMapper;
+
+    public CollectionTransferService(CardBulkRepository cardBulkRepository, UserService userService,
+                                     ViewVersionService viewVersionService, MarketplaceEventService eventService,
+                                     CollectionStatsService statsService, ObjectMapper objectMapper) {
+        this.cardBulkRepository = cardBulkRepository;
+        this.userService = userService;
+        this.viewVersionService = viewVersionService;
+        this.eventService = eventService;
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Adds every card in the file to the user's collection, all or nothing.
+     * The user is resolved once; cards are inserted in JDBC batches of {@value #BATCH_SIZE}.
+     * Cards without an id or name, and cards FOR_SALE without a positive price, are skipped.
+     */
+    @Transactional
+    public ImportResult importCollection(String clerkUserId, String username, CollectionFileFormat format,
+                                         InputStream in) throws IOException {
+        UserIdentity owner = userService.findOrCreateUser(clerkUserId, username);
+        List<CollectionCardRowDto> batch = new ArrayList<>(BATCH_SIZE);
+        CollectionStatsService.Changes statsChanges = new CollectionStatsService.Changes();
+        int imported = 0;
+        int skipped = 0;
+
+        try (MappingIterator<CollectionCardRowDto> rows = readerFor(format).readValues(in)) {
+            while (rows.hasNextValue()) {
+                CollectionCardRowDto row = normalize(rows.nextValue());
+                if (row == null) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    imported += insert(owner, batch, statsChanges);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid collection file: " + e.getOriginalMessage());
+        } catch (RuntimeJsonMappingException e) {
+            throw new IllegalArgumentException("Invalid collection file: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            imported += insert(owner, batch, statsChanges);
+        }
+        if (imported > 0) {
+            // Imported cards may be FOR_SALE
+            viewVersionService.bump(ViewVersionService.collection(clerkUserId), ViewVersionService.marketplace(clerkUserId));
+            statsService.apply(clerkUserId, statsChanges);
+        }
+        return new ImportResult(imported, skipped);
+    }
+
+    /**
+     * Inserts the batch, publishes the cards it puts up for sale and counts all of them in {@code statsChanges}.
+     */
+    private int insert(UserIdentity owner, List<CollectionCardRowDto> batch,
+                       CollectionStatsService.Changes statsChanges) {
+        List<Long> ids = cardBulkRepository.insertAll(owner.id(), batch);
+        List<CardResponseDto> listed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            CollectionCardRowDto row = batch.get(i);
+            statsChanges.added(row.getStatus(), row.getPrice());
+            if (row.getStatus() == CardStatus.FOR_SALE) {
+                listed.add(CardResponseDto.builder()
+                        .id(ids.get(i))
+                        .cardId(row.getCardId())
+                        .name(row.getName())
+                        .status(row.getStatus())
+                        .price(row.getPrice())
+                        .userId(owner.clerkUserId())
+                        .username(owner.username())
+                        .build());
+            }
+        }
+        eventService.publishBulk(MarketplaceEventType.LISTED, listed);
+        return batch.size();
+    }
+
+    /**
+     * Writes the user's collection to {@code out}, row by row as it is read from the database.
+     */
+    @Transactional(readOnly = true)
+    public void exportCollection(String clerkUserId, CollectionFileFormat format, OutputStream out) throws IOException {
+        // Flushing after every row would turn each one into its own network write
+        try (SequenceWriter writer = format == CollectionFileFormat.CSV
+                ? CSV_MAPPER.writer(CSV_SCHEMA).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).writeValues(out)
+                : objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).writeValuesAsArray(out)) {
+            cardBulkRepository.forEachInCollection(clerkUserId, row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Typically the client went away
+        }
+    }
+
+    private ObjectReader readerFor(CollectionFileFormat format) {
+        return format == CollectionFileFormat.CSV
+                ? CSV_MAPPER.readerFor(CollectionCardRowDto.class).with(CSV_SCHEMA)
+                : objectMapper.readerFor(CollectionCardRowDto.class);
+    }
+
+    /**
+     * @return The row with its defaults applied, or null if it cannot be imported.
+     */
+    private static CollectionCardRowDto normalize(CollectionCardRowDto row) {
+        if (row.getCardId() == null || row.getCardId().isBlank() || row.getName() == null || row.getName().isBlank()) {
+            return null;
+        }
+        if (row.getStatus() == null) {
+            row.setStatus(CardStatus.IN_COLLECTION);
+        }
+        if (row.getStatus() == CardStatus.IN_COLLECTION) {
+            row.setPrice(null);
+        } else if (row.getStatus() == CardStatus.FOR_SALE
+                && (row.getPrice() == null || row.getPrice().compareTo(BigDecimal.ZERO) <= 0)) {
+            return null;
+        }
+        return row;
+    }
+}
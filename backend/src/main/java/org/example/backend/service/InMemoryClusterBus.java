@@ -0,0 +1,74 @@
+package org.example.backend.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ClusterTransport} and {@link SessionRouteDirectory} for instances living in the same JVM.
+ * Used for single-instance deployments, and to run several routers side by side in tests.
+ */
+public class InMemoryClusterBus implements ClusterTransport, SessionRouteDirectory {
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String nodeId, Consumer<String> handler) {
+        handlers.put(nodeId, handler);
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        handlers.remove(nodeId);
+    }
+
+    @Override
+    public void sendToNode(String nodeId, String message) {
+        Consumer<String> handler = handlers.get(nodeId);
+        if (handler != null) {
+            handler.accept(message);
+        }
+    }
+
+    @Override
+    public void broadcast(String originNodeId, String message) {
+        handlers.forEach((nodeId, handler) -> {
+            if (!nodeId.equals(originNodeId)) {
+                handler.accept(message);
+            }
+        });
+    }
+
+    @Override
+    public void userConnected(String userId, String nodeId) {
+        routes.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(nodeId);
+    }
+
+    @Override
+    public void userDisconnected(String userId, String nodeId) {
+        routes.computeIfPresent(userId, (key, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    @Override
+    public Set<String> nodesFor(String userId) {
+        Set<String> nodes = routes.get(userId);
+        return nodes == null ? Set.of() : Set.copyOf(nodes);
+    }
+
+    @Override
+    public Set<String> connectedUsers(Collection<String> userIds) {
+        return userIds.stream().filter(routes::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void clearNode(String nodeId) {
+        routes.keySet().forEach(userId -> userDisconnected(userId, nodeId));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the STOMP sessions connected to this instance and keeps the cluster-wide
+ * {@link SessionRouteDirectory} in sync: a user is registered for this node when their first
+ * session opens and removed when their last one closes.
+ * <p>
+ * Directory writes happen on the route writer, never while a user's entry is locked. Users whose
+ * route changed are collected and written together, each with their state at the time of the write,
+ * so a quick disconnect/reconnect can never leave the directory out of date.
+ */
+public class LocalSessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSessionRegistry.class);
+
+    /**
+     * Notified when the first session of a user opens on this instance, or their last one closes.
+     * Called while the user's entry is being updated, so it must be quick and must not call back into the registry.
+     */
+    public interface Listener {
+        void userConnectionChanged(String userId, boolean connected);
+    }
+
+    /** Notified on the route writer after the directory routes of some users of this instance were written. */
+    public interface RoutesListener {
+        void routesWritten(List<String> userIds);
+    }
+
+    private final String nodeId;
+    private final SessionRouteDirectory directory;
+    private final Executor routeWriter;
+
+    private final Map<String, String> userBySession = new ConcurrentHashMap<>();
+    private final Map<String, Integer> sessionCountByUser = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<RoutesListener> routesListeners = new CopyOnWriteArrayList<>();
+
+    /** Users whose directory route may not match their local sessions yet. */
+    private final Set<String> staleRoutes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    /**
+     * Writes directory routes on the calling thread, right after the session change.
+     */
+    public LocalSessionRegistry(String nodeId, SessionRouteDirectory directory) {
+        this(nodeId, directory, Runnable::run);
+    }
+
+    public LocalSessionRegistry(String nodeId, SessionRouteDirectory directory, Executor routeWriter) {
+        this.nodeId = nodeId;
+        this.directory = directory;
+        this.routeWriter = routeWriter;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void addRoutesListener(RoutesListener listener) {
+        routesListeners.add(listener);
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user != null && sessionId != null) {
+            sessionOpened(sessionId, user.getName());
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        sessionClosed(event.getSessionId());
+    }
+
+    public void sessionOpened(String sessionId, String userId) {
+        if (userBySession.putIfAbsent(sessionId, userId) != null) {
+            return;
+        }
+        boolean[] first = new boolean[1];
+        sessionCountByUser.compute(userId, (key, count) -> {
+            if (count == null) {
+                first[0] = true;
+                listeners.forEach(listener -> listener.userConnectionChanged(userId, true));
+                return 1;
+            }
+            return count + 1;
+        });
+        if (first[0]) {
+            routeChanged(userId);
+        }
+    }
+
+    public void sessionClosed(String sessionId) {
+        String userId = userBySession.remove(sessionId);
+        if (userId == null) {
+            return;
+        }
+        boolean[] last = new boolean[1];
+        sessionCountByUser.computeIfPresent(userId, (key, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            last[0] = true;
+            listeners.forEach(listener -> listener.userConnectionChanged(userId, false));
+            return null;
+        });
+        if (last[0]) {
+            routeChanged(userId);
+        }
+    }
+
+    private void routeChanged(String userId) {
+        staleRoutes.add(userId);
+        // At most one write is scheduled; changes made until it runs are written with it
+        if (writeScheduled.compareAndSet(false, true)) {
+            routeWriter.execute(this::writeRoutes);
+        }
+    }
+
+    /**
+     * Writes the current route of every user whose route changed since the previous write, as one batch.
+     */
+    synchronized void writeRoutes() {
+        // Cleared before reading the stale users, so a change from now on schedules another write
+        writeScheduled.set(false);
+        List<String> connected = new ArrayList<>();
+        List<String> disconnected = new ArrayList<>();
+        for (String userId : staleRoutes) {
+            staleRoutes.remove(userId);
+            // The state now, not the one that marked the route stale; a later change marks it again
+            (hasLocalSession(userId) ? connected : disconnected).add(userId);
+        }
+        if (connected.isEmpty() && disconnected.isEmpty()) {
+            return;
+        }
+        try {
+            directory.updateRoutes(nodeId, connected, disconnected);
+        } catch (RuntimeException e) {
+            // Retried with the next change
+            staleRoutes.addAll(connected);
+            staleRoutes.addAll(disconnected);
+            log.warn("Failed to write the session routes of {} users: {}",
+                    connected.size() + disconnected.size(), e.getMessage());
+            return;
+        }
+        List<String> written = new ArrayList<>(connected);
+        written.addAll(disconnected);
+        routesListeners.forEach(listener -> listener.routesWritten(written));
+    }
+
+    public boolean hasLocalSession(String userId) {
+        return sessionCountByUser.containsKey(userId);
+    }
+
+    public int getLocalSessionCount() {
+        return userBySession.size();
+    }
+
+    public int getLocalUserCount() {
+        return sessionCountByUser.size();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
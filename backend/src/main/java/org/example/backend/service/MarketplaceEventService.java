@@ -0,0 +1,274 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.example.backend.config.MarketplaceProperties;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.MarketplaceEventDto;
+import org.example.backend.dto.MarketplaceEventsDto;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEvent;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.repository.MarketplaceEventBulkRepository;
+import org.example.backend.repository.MarketplaceEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The marketplace change feed: clients load the listings once, then apply the changes pushed to
+ * {@value #TOPIC} instead of polling.
+ * <p>
+ * Every change gets a sequence number from a database sequence, taken at the end of the changing transaction
+ * and stored with it. The numbers have gaps (rolled back changes), and changes to different cards may commit
+ * slightly out of order; changes to the same card follow its row lock, so they are numbered in commit order.
+ * Changes are pushed after the commit on a best effort basis, and clients catch up with {@link #eventsAfter}
+ * when they reconnect and every now and then. That only moves them past changes older than the settle time,
+ * so that a change committing after a newer one is still replayed.
+ */
+@Service
+@Timed("binderbase.service")
+public class MarketplaceEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketplaceEventService.class);
+
+    public static final String TOPIC = "/topic/marketplace";
+
+    // Everything up to this sequence number may have been deleted by the retention cleanup
+    static final String EXPIRED_SCOPE = "marketplace-events-expired";
+
+    // Keeps the frames of a large batch well below the WebSocket send buffer limit
+    static final int BROADCAST_CHUNK_SIZE = 100;
+
+    private final MarketplaceEventRepository eventRepository;
+    private final MarketplaceEventBulkRepository eventBulkRepository;
+    private final ViewVersionService viewVersionService;
+    private final CardCatalogService catalogService;
+    private final ClusterMessageRouter messageRouter;
+    private final MarketplaceProperties properties;
+
+    public MarketplaceEventService(MarketplaceEventRepository eventRepository,
+                                   MarketplaceEventBulkRepository eventBulkRepository,
+                                   ViewVersionService viewVersionService, CardCatalogService catalogService,
+                                   ClusterMessageRouter messageRouter, MarketplaceProperties properties) {
+        this.eventRepository = eventRepository;
+        this.eventBulkRepository = eventBulkRepository;
+        this.viewVersionService = viewVersionService;
+        this.catalogService = catalogService;
+        this.messageRouter = messageRouter;
+        this.properties = properties;
+    }
+
+    /**
+     * Records a change in the caller's transaction, and pushes it to {@value #TOPIC} once that has committed.
+     *
+     * @param card The card as it is after the change.
+     */
+    @Transactional
+    public void publish(MarketplaceEventType type, CardResponseDto card) {
+        publish(type, List.of(card));
+    }
+
+    /**
+     * Records one change of the same type per card, see {@link #publish(MarketplaceEventType, CardResponseDto)}.
+     * All of them are pushed together, in as few frames as possible.
+     */
+    @Transactional
+    public void publish(MarketplaceEventType type, List<CardResponseDto> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        List<MarketplaceEvent> events = toEvents(type, cards);
+        eventBulkRepository.insertAll(events);
+
+        List<MarketplaceEventDto> messages = toDtos(events);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast(messages);
+            }
+        });
+    }
+
+    /**
+     * Records changes like {@link #publish(MarketplaceEventType, List)}, for a transaction that records more of
+     * them than are worth keeping in memory, or runs on for a while after recording them. They are numbered just
+     * before the transaction commits, rather than straight away, and read back in frames to be pushed once it
+     * has committed.
+     */
+    @Transactional
+    public void publishBulk(MarketplaceEventType type, List<CardResponseDto> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        List<MarketplaceEvent> events = toEvents(type, cards);
+        eventBulkRepository.insertPending(events);
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        // Placeholders are negated sequence numbers, so the last event has the lowest one
+        pending.include(events.get(events.size() - 1).getSequence(), events.get(0).getSequence());
+    }
+
+    /**
+     * Returns the changes after sequence number {@code after}, oldest first, and the sequence number to resume
+     * from next time: every change up to it has committed. It can be older than the changes returned, which
+     * the client then sees again; replaying a change the client already has is harmless.
+     * Without {@code after}, only that sequence number: the starting point for a client that is about to load
+     * the listings.
+     */
+    @Transactional(readOnly = true)
+    public MarketplaceEventsDto eventsAfter(Long after) {
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("Sequence number must not be negative.");
+        }
+        long expired = viewVersionService.version(EXPIRED_SCOPE);
+        Long settled = eventRepository.findNewestSequenceCreatedBefore(
+                Instant.now().minus(properties.getEventSettleTime()));
+        long latest = settled == null ? expired : Math.max(settled, expired);
+        if (after == null) {
+            return new MarketplaceEventsDto(List.of(), latest, false);
+        }
+        Long newest = eventRepository.findNewestSequence();
+        if (after < expired || (newest != null && after > newest)) {
+            return new MarketplaceEventsDto(List.of(), latest, true);
+        }
+        List<MarketplaceEvent> events = eventRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                after, Limit.of(properties.getMaxResumeEvents() + 1));
+        if (events.size() > properties.getMaxResumeEvents()) {
+            return new MarketplaceEventsDto(List.of(), latest, true);
+        }
+        return new MarketplaceEventsDto(toDtos(events), Math.max(after, latest), false);
+    }
+
+    /**
+     * Deletes changes older than the retention period; clients that were away longer refetch the listings.
+     */
+    @Scheduled(fixedDelayString = "${binderbase.marketplace.event-cleanup-interval:10m}")
+    @Transactional
+    public void deleteExpiredEvents() {
+        Instant cutoff = Instant.now().minus(properties.getEventRetention());
+        Long newestExpired = eventRepository.findNewestSequenceCreatedBefore(cutoff);
+        if (newestExpired == null) {
+            return;
+        }
+        viewVersionService.raise(EXPIRED_SCOPE, newestExpired);
+        int deleted = eventRepository.deleteCreatedBefore(cutoff);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired marketplace events.", deleted);
+        }
+    }
+
+    private static List<MarketplaceEvent> toEvents(MarketplaceEventType type, List<CardResponseDto> cards) {
+        Instant now = Instant.now();
+        List<MarketplaceEvent> events = new ArrayList<>(cards.size());
+        for (CardResponseDto card : cards) {
+            events.add(MarketplaceEvent.builder()
+                    .type(type)
+                    .cardDbId(card.getId())
+                    .cardId(card.getCardId())
+                    .name(card.getName())
+                    .price(card.getPrice())
+                    .sellerId(card.getUserId())
+                    .sellerUsername(card.getUsername())
+                    .createdAt(now)
+                    .build());
+        }
+        return events;
+    }
+
+    private void broadcast(List<MarketplaceEventDto> messages) {
+        for (int from = 0; from < messages.size(); from += BROADCAST_CHUNK_SIZE) {
+            List<MarketplaceEventDto> chunk = messages.subList(from, Math.min(from + BROADCAST_CHUNK_SIZE, messages.size()));
+            try {
+                messageRouter.broadcast(TOPIC, chunk);
+            } catch (RuntimeException e) {
+                // Already committed; clients pick these up with their next eventsAfter
+                log.warn("Could not push marketplace events from {}: {}", chunk.get(0).getSequence(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The events a transaction has recorded through {@link #publishBulk}, by their placeholders.
+     */
+    private class PendingEvents implements TransactionSynchronization {
+
+        private long lowest = Long.MAX_VALUE;
+        private long highest = Long.MIN_VALUE;
+        private long[] numbered;
+
+        void include(long from, long to) {
+            lowest = Math.min(lowest, from);
+            highest = Math.max(highest, to);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            numbered = eventBulkRepository.numberPending(lowest, highest, Instant.now());
+        }
+
+        @Override
+        public void afterCommit() {
+            // Still on the transaction's connection, which now sees the committed events
+            long after = numbered[0];
+            try {
+                while (true) {
+                    List<MarketplaceEvent> events = eventBulkRepository.findBetween(after, numbered[1], BROADCAST_CHUNK_SIZE);
+                    if (events.isEmpty()) {
+                        return;
+                    }
+                    broadcast(toDtos(events));
+                    after = events.get(events.size() - 1).getSequence();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not push marketplace events after {}: {}", after, e.getMessage());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MarketplaceEventService.this);
+        }
+    }
+
+    private List<MarketplaceEventDto> toDtos(List<MarketplaceEvent> events) {
+        List<CardResponseDto> cards = new ArrayList<>(events.size());
+        for (MarketplaceEvent event : events) {
+            cards.add(CardResponseDto.builder()
+                    .id(event.getCardDbId())
+                    .cardId(event.getCardId())
+                    .name(event.getName())
+                    .price(event.getPrice())
+                    .userId(event.getSellerId())
+                    .username(event.getSellerUsername())
+                    .status(statusAfter(event.getType()))
+                    .build());
+        }
+        List<CardResponseDto> enriched = catalogService.enrich(cards);
+        List<MarketplaceEventDto> dtos = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            dtos.add(new MarketplaceEventDto(events.get(i).getSequence(), events.get(i).getType(), enriched.get(i)));
+        }
+        return dtos;
+    }
+
+    private static CardStatus statusAfter(MarketplaceEventType type) {
+        return switch (type) {
+            case LISTED, PRICE_CHANGED -> CardStatus.FOR_SALE;
+            case UNLISTED -> CardStatus.IN_COLLECTION;
+            case SOLD -> CardStatus.SOLD;
+        };
+    }
+}
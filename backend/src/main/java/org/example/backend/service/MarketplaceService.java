@@ -1,25 +1,63 @@
 package org.example.backend.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CardPriceDto;
 import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.MarketplaceFilterDto;
+import org.example.backend.dto.MarketplaceSort;
+import org.example.backend.exception.CardAccessDeniedException;
+import org.example.backend.exception.CardNotFoundException;
+import org.example.backend.exception.CardStateConflictException;
 import org.example.backend.model.Card;
 import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.repository.CardBulkRepository;
 import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.CardSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("binderbase.service")
 @RequiredArgsConstructor // Automatically injects final fields via constructor
 public class MarketplaceService {
 
+    static final int DEFAULT_PAGE_SIZE = 24;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BATCH_SIZE = 500;
+
+    private static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
     private final CardRepository cardRepository;
+    private final CardBulkRepository cardBulkRepository;
+    private final CardCatalogService catalogService;
+    private final ViewVersionService viewVersionService;
+    private final MarketplaceEventService eventService;
+    private final CollectionStatsService statsService;
 
     /**
-     * Lists a card for sale.
+     * Lists a card for sale, or changes the price of a card already listed.
      * @param cardDbId The database ID of the card to sell.
      * @param price The proposed selling price.
      * @param currentUserId The ID of the user performing the action (for security).
@@ -27,48 +65,155 @@ public class MarketplaceService {
      */
     @Transactional
     public CardResponseDto listCardForSale(Long cardDbId, BigDecimal price, String currentUserId) {
-        Card card = findAndVerifyOwnership(cardDbId, currentUserId);
-
         if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Price must be a positive value.");
         }
+        CardResponseDto card = findAndVerifyOwnership(cardDbId, currentUserId);
 
-        card.setStatus(CardStatus.FOR_SALE);
-        card.setPrice(price);
-        Card updatedCard = cardRepository.save(card);
+        if (card.getStatus() == CardStatus.SOLD) {
+            throw new CardStateConflictException("Sold cards cannot be listed again.");
+        }
+        boolean alreadyListed = card.getStatus() == CardStatus.FOR_SALE;
+        transition(card, CardStatus.FOR_SALE, price);
 
-        return toDto(updatedCard);
+        eventService.publish(alreadyListed ? MarketplaceEventType.PRICE_CHANGED : MarketplaceEventType.LISTED, card);
+        return catalogService.enrich(card);
     }
 
     /**
-     * Removes a card listing from the marketplace.
+     * Removes a card listing from the marketplace. A card that is not listed is returned unchanged.
      */
     @Transactional
     public CardResponseDto unlistCard(Long cardDbId, String currentUserId) {
-        Card card = findAndVerifyOwnership(cardDbId, currentUserId);
-
-        card.setStatus(CardStatus.IN_COLLECTION);
-        card.setPrice(null); // Clear the price
-        Card updatedCard = cardRepository.save(card);
+        CardResponseDto card = findAndVerifyOwnership(cardDbId, currentUserId);
 
-        return toDto(updatedCard);
+        if (card.getStatus() == CardStatus.SOLD) {
+            throw new CardStateConflictException("Sold cards cannot be unlisted.");
+        }
+        if (card.getStatus() == CardStatus.FOR_SALE) {
+            transition(card, CardStatus.IN_COLLECTION, null); // Clear the price
+            eventService.publish(MarketplaceEventType.UNLISTED, card);
+        }
+        return catalogService.enrich(card);
     }
 
     /**
-     * Marks a card as sold.
+     * Marks a card as sold. Of concurrent requests for the same card exactly one succeeds.
      */
     @Transactional
     public CardResponseDto markCardAsSold(Long cardDbId, String currentUserId) {
-        Card card = findAndVerifyOwnership(cardDbId, currentUserId);
+        CardResponseDto card = findAndVerifyOwnership(cardDbId, currentUserId);
 
         if (card.getStatus() != CardStatus.FOR_SALE) {
-            throw new IllegalStateException("Card must be listed for sale to be marked as sold.");
+            throw new CardStateConflictException("Card must be listed for sale to be marked as sold.");
+        }
+        transition(card, CardStatus.SOLD, card.getPrice());
+
+        eventService.publish(MarketplaceEventType.SOLD, card);
+        return catalogService.enrich(card);
+    }
+
+    /**
+     * Lists many cards for sale at once, or changes their prices if already listed; all or nothing.
+     * Ownership is checked for the whole set in one query and the cards are updated in one JDBC batch,
+     * each row with the same compare-and-set on its status and price as a single listing.
+     */
+    @Transactional
+    public List<CardResponseDto> listCardsForSale(List<CardPriceDto> listings, String currentUserId) {
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        for (CardPriceDto listing : Objects.requireNonNullElse(listings, List.<CardPriceDto>of())) {
+            if (listing.getPrice() == null || listing.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Price must be a positive value.");
+            }
+            prices.put(listing.getCardDbId(), listing.getPrice());
+        }
+        List<CardResponseDto> cards = findAllAndVerifyOwnership(prices.keySet(), currentUserId);
+        if (cards.stream().anyMatch(card -> card.getStatus() == CardStatus.SOLD)) {
+            throw new CardStateConflictException("Sold cards cannot be listed again.");
+        }
+
+        List<BigDecimal> newPrices = cards.stream().map(card -> prices.get(card.getId())).toList();
+        boolean[] changed = cardBulkRepository.listAll(cards, newPrices);
+        List<CardResponseDto> listed = new ArrayList<>();
+        List<CardResponseDto> repriced = new ArrayList<>();
+        CollectionStatsService.Changes statsChanges = new CollectionStatsService.Changes();
+        for (int i = 0; i < cards.size(); i++) {
+            CardResponseDto card = cards.get(i);
+            if (!changed[i]) {
+                throw new CardStateConflictException("Card " + card.getId() + " was changed by another request, reload it and try again.");
+            }
+            (card.getStatus() == CardStatus.FOR_SALE ? repriced : listed).add(card);
+            statsChanges.moved(card.getStatus(), card.getPrice(), CardStatus.FOR_SALE, newPrices.get(i));
+            card.setStatus(CardStatus.FOR_SALE);
+            card.setPrice(newPrices.get(i));
+        }
+        bumpViews(currentUserId);
+        statsService.apply(currentUserId, statsChanges);
+
+        eventService.publish(MarketplaceEventType.LISTED, listed);
+        eventService.publish(MarketplaceEventType.PRICE_CHANGED, repriced);
+        return catalogService.enrich(cards);
+    }
+
+    /**
+     * Removes many cards from the marketplace at once, in one JDBC batch; all or nothing.
+     * Cards in the set that are not listed are returned unchanged.
+     */
+    @Transactional
+    public List<CardResponseDto> unlistCards(Collection<Long> cardDbIds, String currentUserId) {
+        List<CardResponseDto> cards = findAllAndVerifyOwnership(idSet(cardDbIds), currentUserId);
+        if (cards.stream().anyMatch(card -> card.getStatus() == CardStatus.SOLD)) {
+            throw new CardStateConflictException("Sold cards cannot be unlisted.");
         }
 
-        card.setStatus(CardStatus.SOLD);
-        Card updatedCard = cardRepository.save(card);
+        List<CardResponseDto> listed = cards.stream().filter(card -> card.getStatus() == CardStatus.FOR_SALE).toList();
+        if (!listed.isEmpty()) {
+            requireAllChanged(cardBulkRepository.unlistAll(listed));
+            CollectionStatsService.Changes statsChanges = new CollectionStatsService.Changes();
+            listed.forEach(card -> {
+                statsChanges.moved(CardStatus.FOR_SALE, card.getPrice(), CardStatus.IN_COLLECTION, null);
+                card.setStatus(CardStatus.IN_COLLECTION);
+                card.setPrice(null);
+            });
+            bumpViews(currentUserId);
+            statsService.apply(currentUserId, statsChanges);
+            eventService.publish(MarketplaceEventType.UNLISTED, listed);
+        }
+        return catalogService.enrich(cards);
+    }
 
-        return toDto(updatedCard);
+    /**
+     * Changes the prices of many listed cards by the same percentage, in one JDBC batch; all or nothing.
+     * New prices are rounded to the cent, and never drop below one cent.
+     *
+     * @param percentChange E.g. -10 for 10% off; must be greater than -100.
+     */
+    @Transactional
+    public List<CardResponseDto> repriceCards(Collection<Long> cardDbIds, BigDecimal percentChange, String currentUserId) {
+        if (percentChange == null || percentChange.compareTo(HUNDRED.negate()) <= 0) {
+            throw new IllegalArgumentException("Percent change must be greater than -100.");
+        }
+        List<CardResponseDto> cards = findAllAndVerifyOwnership(idSet(cardDbIds), currentUserId);
+        if (cards.stream().anyMatch(card -> card.getStatus() != CardStatus.FOR_SALE)) {
+            throw new CardStateConflictException("Only cards listed for sale can be repriced.");
+        }
+
+        BigDecimal factor = BigDecimal.ONE.add(percentChange.divide(HUNDRED));
+        List<BigDecimal> newPrices = cards.stream()
+                .map(card -> card.getPrice().multiply(factor).setScale(2, RoundingMode.HALF_UP).max(MIN_PRICE))
+                .toList();
+        requireAllChanged(cardBulkRepository.repriceAll(cards, newPrices));
+        CollectionStatsService.Changes statsChanges = new CollectionStatsService.Changes();
+        for (int i = 0; i < cards.size(); i++) {
+            CardResponseDto card = cards.get(i);
+            statsChanges.moved(CardStatus.FOR_SALE, card.getPrice(), CardStatus.FOR_SALE, newPrices.get(i));
+            card.setPrice(newPrices.get(i));
+        }
+        bumpViews(currentUserId);
+        statsService.apply(currentUserId, statsChanges);
+
+        eventService.publish(MarketplaceEventType.PRICE_CHANGED, cards);
+        return catalogService.enrich(cards);
     }
 
     /**
@@ -76,30 +221,180 @@ public class MarketplaceService {
      */
     @Transactional(readOnly = true)
     public List<CardResponseDto> getAllCardsForSale() {
-        return cardRepository.findAllByStatus(CardStatus.FOR_SALE)
-                .stream()
+        return catalogService.enrich(cardRepository.findCardResponsesByStatus(CardStatus.FOR_SALE));
+    }
+
+    /**
+     * Streaming variant of {@link #getAllCardsForSale}, newest listings first: hands the cards to
+     * {@code action} as they are read, without building the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamCardsForSale(Consumer<CardResponseDto> action) {
+        try (Stream<CardResponseDto> cards = cardRepository.streamCardResponsesByStatus(CardStatus.FOR_SALE)) {
+            catalogService.forEachEnriched(cards, CardRepository.STREAM_FETCH_SIZE, action);
+        }
+    }
+
+    /**
+     * Retrieves one page of marketplace listings using keyset (cursor) pagination.
+     * Each page is a bounded index range scan, so the cost does not grow with the
+     * total number of listings or with how deep the client has paged.
+     *
+     * @param filter Optional name, price range and seller filters.
+     * @param sort   The ordering of the listing; defaults to NEWEST.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit  The page size, capped at {@value #MAX_PAGE_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<CardResponseDto> getCardsForSalePage(MarketplaceFilterDto filter, MarketplaceSort sort,
+                                                              String cursor, Integer limit) {
+        MarketplaceSort effectiveSort = sort != null ? sort : MarketplaceSort.NEWEST;
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Card> spec = CardSpecifications.hasStatus(CardStatus.FOR_SALE);
+        if (filter != null) {
+            spec = spec.and(CardSpecifications.nameContains(filter.getName()))
+                    .and(CardSpecifications.priceAtLeast(filter.getMinPrice()))
+                    .and(CardSpecifications.priceAtMost(filter.getMaxPrice()))
+                    .and(CardSpecifications.ownedBy(filter.getSellerId()));
+        }
+        spec = spec.and(keysetCondition(effectiveSort, cursor));
+
+        // Fetch one extra row to find out whether another page exists
+        // project("user") fetches the seller in the same query instead of once per row
+        List<Card> rows = cardRepository.findBy(spec, query -> query
+                .project("user")
+                .sortBy(sortFor(effectiveSort))
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Card> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(effectiveSort, page.get(page.size() - 1)) : null;
+
+        List<CardResponseDto> items = page.stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
+        return new CursorPageDto<>(catalogService.enrich(items), nextCursor, hasMore);
+    }
+
+    private Sort sortFor(MarketplaceSort sort) {
+        return switch (sort) {
+            case NEWEST -> Sort.by(Sort.Direction.DESC, "id");
+            case PRICE_ASC -> Sort.by(Sort.Direction.ASC, "price", "id");
+            case PRICE_DESC -> Sort.by(Sort.Direction.DESC, "price", "id");
+        };
+    }
+
+    /**
+     * Cursors are opaque to clients: the sort key of the last row on the page,
+     * Base64-encoded so they can be passed around as plain query parameters.
+     */
+    private String encodeCursor(MarketplaceSort sort, Card last) {
+        String raw = sort == MarketplaceSort.NEWEST
+                ? String.valueOf(last.getId())
+                : last.getPrice().toPlainString() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Specification<Card> keysetCondition(MarketplaceSort sort, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (sort == MarketplaceSort.NEWEST) {
+                return CardSpecifications.idBefore(Long.parseLong(raw));
+            }
+            int separator = raw.lastIndexOf(':');
+            BigDecimal price = new BigDecimal(raw.substring(0, separator));
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            return CardSpecifications.afterPrice(price, id, sort == MarketplaceSort.PRICE_ASC);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor for sort " + sort + ".");
+        }
     }
 
     /**
      * A private helper to find a card and verify the current user owns it.
+     * Reads a projection rather than the entity: the change itself is a single UPDATE, see {@link #transition}.
      */
-    private Card findAndVerifyOwnership(Long cardDbId, String currentUserId) {
-        Card card = cardRepository.findById(cardDbId)
-                .orElseThrow(() -> new RuntimeException("Card not found with id: " + cardDbId)); // TODO: Use a proper custom exception
+    private CardResponseDto findAndVerifyOwnership(Long cardDbId, String currentUserId) {
+        CardResponseDto card = cardRepository.findCardResponseById(cardDbId)
+                .orElseThrow(() -> new CardNotFoundException(cardDbId));
 
-        if (!card.getUser().getClerkUserId().equals(currentUserId)) {
+        if (!card.getUserId().equals(currentUserId)) {
             // This prevents one user from selling another user's cards
-            throw new SecurityException("User does not have permission to modify this card."); // TODO: Use a proper custom exception
+            throw new CardAccessDeniedException();
         }
         return card;
     }
 
+    /**
+     * Batch variant of {@link #findAndVerifyOwnership}, with a single query for the whole set.
+     * @return The cards, ordered by id.
+     */
+    private List<CardResponseDto> findAllAndVerifyOwnership(Collection<Long> cardDbIds, String currentUserId) {
+        if (cardDbIds.isEmpty() || cardDbIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_SIZE + " cards can be changed at once.");
+        }
+        if (cardDbIds.contains(null)) {
+            throw new IllegalArgumentException("Card ids must not be null.");
+        }
+        List<CardResponseDto> cards = cardRepository.findCardResponsesByIdIn(cardDbIds);
+        if (cards.size() != cardDbIds.size()) {
+            Set<Long> found = cards.stream().map(CardResponseDto::getId).collect(Collectors.toSet());
+            throw new CardNotFoundException(cardDbIds.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow());
+        }
+        if (cards.stream().anyMatch(card -> !card.getUserId().equals(currentUserId))) {
+            throw new CardAccessDeniedException();
+        }
+        return cards;
+    }
+
+    /**
+     * The batch variant of the check in {@link #transition}: the cards were all read with their current
+     * status and price, so the old and new values known here are the exact ones.
+     */
+    private static void requireAllChanged(boolean[] changed) {
+        for (boolean cardChanged : changed) {
+            if (!cardChanged) {
+                throw new CardStateConflictException("Some of the cards were changed by another request, reload them and try again.");
+            }
+        }
+    }
+
+    private static Set<Long> idSet(Collection<Long> cardDbIds) {
+        return cardDbIds == null ? Set.of() : new LinkedHashSet<>(cardDbIds);
+    }
+
+    /**
+     * Moves the card from the status and price it was read with to {@code status}, and updates {@code card}
+     * and the owner's collection statistics to match.
+     * Fails without writing anything if a concurrent request changed the status or price in the meantime,
+     * so {@code card} holds the values the change was actually made from.
+     */
+    private void transition(CardResponseDto card, CardStatus status, BigDecimal price) {
+        if (cardRepository.compareAndSetStatus(card.getId(), card.getStatus(), card.getPrice(), status, price) == 0) {
+            throw new CardStateConflictException("Card " + card.getId() + " was changed by another request, reload it and try again.");
+        }
+        CollectionStatsService.Changes statsChanges = new CollectionStatsService.Changes()
+                .moved(card.getStatus(), card.getPrice(), status, price);
+        card.setStatus(status);
+        card.setPrice(price);
+        bumpViews(card.getUserId());
+        statsService.apply(card.getUserId(), statsChanges);
+    }
+
+    /** A status or price change shows in the owner's collection and in the marketplace. */
+    private void bumpViews(String ownerId) {
+        viewVersionService.bump(ViewVersionService.collection(ownerId), ViewVersionService.marketplace(ownerId));
+    }
+
     /**
      * Maps a Card entity to a CardResponseDto.
      */
-    private CardResponseDto toDto(Card card) {
+    CardResponseDto toDto(Card card) {
         return CardResponseDto.builder()
                 .id(card.getId())
                 .name(card.getName())
@@ -0,0 +1,186 @@
+package org.example.backend.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClusterTransport} on PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Every instance listens on its own channel plus a shared broadcast channel, over a dedicated
+ * connection outside the pool. NOTIFY payloads are limited to 8000 bytes, so larger messages are
+ * written to the {@code cluster_outbox} table and only their id is sent.
+ * <p>
+ * Delivery is best effort: notifications sent while a listener reconnects are lost. Chat clients
+ * recover them from the history endpoint ({@code since=<last id>}).
+ */
+public class PostgresClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresClusterTransport.class);
+
+    static final String BROADCAST_CHANNEL = "binderbase_broadcast";
+    static final String NODE_CHANNEL_PREFIX = "binderbase_node_";
+    static final int MAX_INLINE_PAYLOAD_BYTES = 7900;
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    // Notification payload: <origin node>|<M: inline message | O: outbox id>|<body>
+    private static final char INLINE = 'M';
+    private static final char OUTBOX = 'O';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+
+    public PostgresClusterTransport(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Override
+    public void register(String nodeId, Consumer<String> handler) {
+        Listener listener = new Listener(nodeId, handler);
+        Listener previous = listeners.put(nodeId, listener);
+        if (previous != null) {
+            previous.stop();
+        }
+        listener.start();
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        Listener listener = listeners.remove(nodeId);
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Override
+    public void sendToNode(String nodeId, String message) {
+        notify(channelFor(nodeId), "", message); // Only the addressed node listens, no origin needed
+    }
+
+    @Override
+    public void broadcast(String originNodeId, String message) {
+        notify(BROADCAST_CHANNEL, originNodeId, message);
+    }
+
+    /**
+     * Outbox rows only need to live until every listener has read them.
+     */
+    @Scheduled(fixedDelayString = "${binderbase.cluster.outbox-cleanup-interval:1m}")
+    public void deleteDeliveredOutboxRows() {
+        jdbcTemplate.update("DELETE FROM cluster_outbox WHERE created_at < now() - interval '1 minute'");
+    }
+
+    static String channelFor(String nodeId) {
+        String name = NODE_CHANNEL_PREFIX + nodeId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        return name.length() > 63 ? name.substring(0, 63) : name; // Identifier length limit
+    }
+
+    private void notify(String channel, String originNodeId, String message) {
+        String payload = originNodeId + "|" + INLINE + "|" + message;
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_INLINE_PAYLOAD_BYTES) {
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO cluster_outbox (payload) VALUES (?) RETURNING id", Long.class, message);
+            payload = originNodeId + "|" + OUTBOX + "|" + id;
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    private final class Listener implements Runnable {
+
+        private final String nodeId;
+        private final Consumer<String> handler;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Listener(String nodeId, Consumer<String> handler) {
+            this.nodeId = nodeId;
+            this.handler = handler;
+            this.thread = new Thread(this, "cluster-listener-" + nodeId);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("LISTEN " + channelFor(nodeId));
+                        statement.execute("LISTEN " + BROADCAST_CHANNEL);
+                    }
+                    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    while (running) {
+                        PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                dispatch(notification.getParameter());
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    if (!running) {
+                        return;
+                    }
+                    log.warn("Cluster listener for node {} lost its connection, reconnecting: {}", nodeId, e.getMessage());
+                    try {
+                        Thread.sleep(RECONNECT_DELAY_MILLIS);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void dispatch(String payload) {
+            int first = payload.indexOf('|');
+            if (first < 0 || payload.length() < first + 3) {
+                return;
+            }
+            if (payload.substring(0, first).equals(nodeId)) {
+                return; // Our own broadcast
+            }
+            String body = payload.substring(first + 3);
+            try {
+                if (payload.charAt(first + 1) == OUTBOX) {
+                    List<String> stored = jdbcTemplate.queryForList(
+                            "SELECT payload FROM cluster_outbox WHERE id = ?", String.class, Long.parseLong(body));
+                    if (stored.isEmpty()) {
+                        return;
+                    }
+                    body = stored.get(0);
+                }
+                handler.accept(body);
+            } catch (RuntimeException e) {
+                log.warn("Failed to handle cluster message on node {}: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+}
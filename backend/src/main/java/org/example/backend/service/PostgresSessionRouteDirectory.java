@@ -0,0 +1,127 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.example.backend.config.ClusterProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link SessionRouteDirectory} in the shared PostgreSQL database.
+ * <p>
+ * Each instance refreshes its row in {@code cluster_nodes} on a fixed schedule. Routes pointing to
+ * instances that stopped refreshing (crashed pods) are ignored on lookup and pruned periodically.
+ * <p>
+ * Lookups are cached per user. An instance changing routes drops its own entries for those users
+ * right away; the other instances drop theirs when the {@link ClusterMessageRouter} relays the change
+ * ({@link #invalidate}). Entries also expire after the configured route cache TTL, in case such a
+ * notification was lost.
+ */
+public class PostgresSessionRouteDirectory implements SessionRouteDirectory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final ClusterProperties properties;
+    private final Cache<String, Set<String>> routeCache;
+
+    private static final String INSERT_ROUTE_SQL = "INSERT INTO stomp_session_routes (clerk_user_id, node_id) VALUES (?, ?) "
+            + "ON CONFLICT DO NOTHING";
+    private static final String DELETE_ROUTE_SQL = "DELETE FROM stomp_session_routes WHERE clerk_user_id = ? AND node_id = ?";
+
+    public PostgresSessionRouteDirectory(JdbcTemplate jdbcTemplate, String nodeId, ClusterProperties properties,
+                                         Cache<String, Set<String>> routeCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.properties = properties;
+        this.routeCache = routeCache;
+    }
+
+    @Override
+    public void userConnected(String userId, String nodeId) {
+        jdbcTemplate.update(INSERT_ROUTE_SQL, userId, nodeId);
+        routeCache.invalidate(userId);
+    }
+
+    @Override
+    public void userDisconnected(String userId, String nodeId) {
+        jdbcTemplate.update(DELETE_ROUTE_SQL, userId, nodeId);
+        routeCache.invalidate(userId);
+    }
+
+    /**
+     * One JDBC batch for the new routes and one for the removed ones.
+     */
+    @Override
+    public void updateRoutes(String nodeId, Collection<String> connected, Collection<String> disconnected) {
+        List<Object[]> inserts = connected.stream().map(userId -> new Object[]{userId, nodeId}).toList();
+        List<Object[]> deletes = disconnected.stream().map(userId -> new Object[]{userId, nodeId}).toList();
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROUTE_SQL, inserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ROUTE_SQL, deletes);
+        }
+        routeCache.invalidateAll(connected);
+        routeCache.invalidateAll(disconnected);
+    }
+
+    @Override
+    public Set<String> nodesFor(String userId) {
+        return routeCache.get(userId, this::loadNodes);
+    }
+
+    private Set<String> loadNodes(String userId) {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT r.node_id FROM stomp_session_routes r JOIN cluster_nodes n ON n.node_id = r.node_id "
+                        + "WHERE r.clerk_user_id = ? AND n.last_seen > now() - make_interval(secs => ?)",
+                String.class, userId, properties.getNodeTimeout().toSeconds()));
+    }
+
+    @Override
+    public void invalidate(Collection<String> userIds) {
+        routeCache.invalidateAll(userIds);
+    }
+
+    @Override
+    public Set<String> connectedUsers(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        // One round trip whatever the number of users; uses the primary key of stomp_session_routes
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(
+                    "SELECT DISTINCT r.clerk_user_id FROM stomp_session_routes r JOIN cluster_nodes n ON n.node_id = r.node_id "
+                            + "WHERE r.clerk_user_id = ANY (?) AND n.last_seen > now() - make_interval(secs => ?)");
+            statement.setArray(1, con.createArrayOf("varchar", userIds.toArray()));
+            statement.setLong(2, properties.getNodeTimeout().toSeconds());
+            return statement;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    @Override
+    public void clearNode(String nodeId) {
+        jdbcTemplate.update("DELETE FROM stomp_session_routes WHERE node_id = ?", nodeId);
+        routeCache.invalidateAll();
+    }
+
+    /**
+     * Marks this instance as alive and prunes the routes of instances that are gone.
+     */
+    @Scheduled(fixedDelayString = "${binderbase.cluster.heartbeat-interval:10s}")
+    public void heartbeat() {
+        jdbcTemplate.update("INSERT INTO cluster_nodes (node_id, last_seen) VALUES (?, now()) "
+                + "ON CONFLICT (node_id) DO UPDATE SET last_seen = now()", nodeId);
+        long timeoutSeconds = properties.getNodeTimeout().toSeconds();
+        int pruned = jdbcTemplate.update("DELETE FROM stomp_session_routes r USING cluster_nodes n "
+                + "WHERE n.node_id = r.node_id AND n.last_seen < now() - make_interval(secs => ?)", timeoutSeconds);
+        if (pruned > 0) {
+            routeCache.invalidateAll();
+        }
+        jdbcTemplate.update("DELETE FROM cluster_nodes WHERE last_seen < now() - make_interval(secs => ?)", timeoutSeconds);
+    }
+}
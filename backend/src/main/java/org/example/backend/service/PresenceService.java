@@ -0,0 +1,98 @@
+package org.example.backend.service;
+
+import org.example.backend.config.PresenceProperties;
+import org.example.backend.dto.PresenceChangesDto;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online status of users, as seen by the STOMP sessions of every instance.
+ * <p>
+ * The {@link LocalSessionRegistry} reports when a user's first session on this instance opens or their last one
+ * closes. Those changes are collected per user, last one wins, and published on {@value #TOPIC} once per flush
+ * interval, so a flapping connection costs at most one message per interval rather than one per reconnect.
+ * Clients load the initial state, and reconcile after a reconnect, through {@link #presenceOf}.
+ */
+@Service
+public class PresenceService {
+
+    public static final String TOPIC = "/topic/presence";
+
+    // Users per message, so that a burst of (dis)connects does not become one huge frame
+    static final int BROADCAST_CHUNK_SIZE = 500;
+
+    private final SessionRouteDirectory directory;
+    private final ClusterMessageRouter messageRouter;
+    private final PresenceProperties properties;
+
+    /** Changes not published yet: true for connected, false for disconnected. */
+    private final Map<String, Boolean> pending = new ConcurrentHashMap<>();
+
+    public PresenceService(LocalSessionRegistry sessionRegistry, SessionRouteDirectory directory,
+                           ClusterMessageRouter messageRouter, PresenceProperties properties) {
+        this.directory = directory;
+        this.messageRouter = messageRouter;
+        this.properties = properties;
+        sessionRegistry.addListener(this::userConnectionChanged);
+    }
+
+    /**
+     * @return For each of the given users, whether they are connected to any instance, in the order asked for.
+     */
+    public Map<String, Boolean> presenceOf(Collection<String> userIds) {
+        Set<String> distinct = new LinkedHashSet<>(userIds);
+        distinct.remove(null);
+        if (distinct.size() > properties.getMaxLookupSize()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxLookupSize() + " users per presence lookup.");
+        }
+        Set<String> connected = distinct.isEmpty() ? Set.of() : directory.connectedUsers(distinct);
+        Map<String, Boolean> presence = new LinkedHashMap<>();
+        distinct.forEach(userId -> presence.put(userId, connected.contains(userId)));
+        return presence;
+    }
+
+    /**
+     * Publishes the changes collected since the previous call.
+     */
+    @Scheduled(fixedDelayString = "${binderbase.presence.flush-interval:1s}")
+    public void publishChanges() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> online = new ArrayList<>();
+        List<String> offline = new ArrayList<>();
+        for (String userId : pending.keySet()) {
+            Boolean connected = pending.remove(userId);
+            if (connected != null) {
+                (connected ? online : offline).add(userId);
+            }
+        }
+        if (!offline.isEmpty()) {
+            // The last session closed here, but the user may still be connected to another instance
+            offline.removeAll(directory.connectedUsers(offline));
+        }
+        for (int from = 0; from < Math.max(online.size(), offline.size()); from += BROADCAST_CHUNK_SIZE) {
+            messageRouter.broadcast(TOPIC, new PresenceChangesDto(chunk(online, from), chunk(offline, from)));
+        }
+    }
+
+    private void userConnectionChanged(String userId, boolean connected) {
+        // Changes of one user on one instance alternate, so a pending change is always the opposite one:
+        // the two cancel out, e.g. a page reload within the flush interval publishes nothing
+        pending.compute(userId, (key, previous) -> previous == null ? connected : null);
+    }
+
+    private static List<String> chunk(List<String> userIds, int from) {
+        return List.copyOf(userIds.subList(Math.min(from, userIds.size()),
+                Math.min(from + BROADCAST_CHUNK_SIZE, userIds.size())));
+    }
+}
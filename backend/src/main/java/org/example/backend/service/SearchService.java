@@ -0,0 +1,104 @@
+package org.example.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CatalogCardDto;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.SearchScope;
+import org.example.backend.repository.CardSearchRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Timed("binderbase.service")
+@RequiredArgsConstructor
+public class SearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 50;
+    static final int MIN_QUERY_LENGTH = 2;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    // Relevance-ranked results are only useful for the first few pages
+    static final int MAX_OFFSET = 1000;
+
+    private final CardSearchRepository cardSearchRepository;
+    private final CardCatalogService catalogService;
+
+    /**
+     * Searches card names, best matches first.
+     * Results are ranked by relevance rather than by a unique key, so the cursor is an opaque offset.
+     * @param clerkUserId The caller, used by the {@link SearchScope#COLLECTION} scope.
+     */
+    public CursorPageDto<CardResponseDto> searchCards(String query, SearchScope scope, String clerkUserId,
+                                                      String cursor, Integer limit) {
+        String trimmed = validateQuery(query);
+        int pageSize = pageSize(limit);
+        int offset = decodeCursor(cursor);
+
+        // Fetch one extra row to find out whether another page exists
+        List<CardResponseDto> rows = cardSearchRepository.search(trimmed, scope, clerkUserId, offset, pageSize + 1);
+        CursorPageDto<CardResponseDto> page = toPage(rows, offset, pageSize);
+        catalogService.enrich(page.getItems());
+        return page;
+    }
+
+    /**
+     * Searches the local card catalog by name, with the same matching and paging as {@link #searchCards}.
+     */
+    public CursorPageDto<CatalogCardDto> searchCatalog(String query, String cursor, Integer limit) {
+        String trimmed = validateQuery(query);
+        int pageSize = pageSize(limit);
+        int offset = decodeCursor(cursor);
+
+        List<CatalogCardDto> rows = cardSearchRepository.searchCatalog(trimmed, offset, pageSize + 1)
+                .stream()
+                .map(catalogService::toDto)
+                .collect(Collectors.toList());
+        return toPage(rows, offset, pageSize);
+    }
+
+    private static String validateQuery(String query) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.length() < MIN_QUERY_LENGTH || trimmed.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be between " + MIN_QUERY_LENGTH
+                    + " and " + MAX_QUERY_LENGTH + " characters.");
+        }
+        return trimmed;
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static <T> CursorPageDto<T> toPage(List<T> rows, int offset, int pageSize) {
+        boolean hasMore = rows.size() > pageSize && offset + pageSize < MAX_OFFSET;
+        List<T> items = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        return new CursorPageDto<>(items, hasMore ? encodeCursor(offset + pageSize) : null, hasMore);
+    }
+
+    private static String encodeCursor(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0 || offset >= MAX_OFFSET) {
+                throw new IllegalArgumentException("Invalid search cursor.");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor.");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.backend.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Cluster-wide record of which instances hold at least one STOMP session for a user.
+ */
+public interface SessionRouteDirectory {
+
+    /** Called when the first session of {@code userId} opens on {@code nodeId}. */
+    void userConnected(String userId, String nodeId);
+
+    /** Called when the last session of {@code userId} on {@code nodeId} closes. */
+    void userDisconnected(String userId, String nodeId);
+
+    /**
+     * Registers {@code nodeId} for the {@code connected} users and removes it for the {@code disconnected} ones.
+     */
+    default void updateRoutes(String nodeId, Collection<String> connected, Collection<String> disconnected) {
+        connected.forEach(userId -> userConnected(userId, nodeId));
+        disconnected.forEach(userId -> userDisconnected(userId, nodeId));
+    }
+
+    /** The live instances currently holding a session for {@code userId}. */
+    Set<String> nodesFor(String userId);
+
+    /** Of the given users, those holding a session on at least one live instance. */
+    Set<String> connectedUsers(Collection<String> userIds);
+
+    /** Drops what is cached about the routes of the given users, after another instance changed them. */
+    default void invalidate(Collection<String> userIds) {
+    }
+
+    /** Forgets every route of {@code nodeId}, e.g. left over from a previous run under the same name. */
+    void clearNode(String nodeId);
+}
@@ -1,74 +1,195 @@
 package org.example.backend.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.annotation.Timed;
+import org.example.backend.dto.CursorPageDto;
 import org.example.backend.model.User;
 import org.example.backend.dto.UserDto;
-import org.example.backend.repository.MessageRepository;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.ConversationRepository;
 import org.example.backend.repository.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
+@Timed("binderbase.service")
 public class UserService {
 
+    static final int DEFAULT_DIRECTORY_PAGE_SIZE = 20;
+    static final int MAX_DIRECTORY_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final Cache<String, UserIdentity> identityCache;
+    // Only a cache miss needs the database, so only the miss runs in a transaction
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(UserRepository userRepository,
+                       ConversationRepository conversationRepository,
+                       Cache<String, UserIdentity> identityCache,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.conversationRepository = conversationRepository;
+        this.identityCache = identityCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Finds a user by their Clerk ID. If the user does not exist,
      * it creates and saves a new user.
+     * <p>
+     * Served from the identity cache when possible, so the common case costs no query, nor a transaction
+     * or pooled connection. Concurrent calls for the same unknown user wait for a single load/insert
+     * instead of racing.
+     * An existing user is never renamed: {@code username} comes from the request and is only used
+     * for a user created here.
      *
      * @param clerkUserId The user's unique ID from Clerk.
      * @param username    The user's username.
-     * @return The existing or newly created User entity.
+     * @return The identity of the existing or newly created user.
+     */
+    public UserIdentity findOrCreateUser(String clerkUserId, String username) {
+        return identityCache.get(clerkUserId, id -> transactionTemplate.execute(status -> loadOrCreate(id, username)));
+    }
+
+    /**
+     * Returns a reference to the user row that can be used to link entities to it,
+     * without loading the user.
+     */
+    public User getReference(UserIdentity identity) {
+        return userRepository.getReferenceById(identity.id());
+    }
+
+    /**
+     * Joins the caller's transaction, or runs in its own outside of one. The insert skips a row another node created first instead of
+     * failing, so it never poisons that transaction; if the transaction rolls back, the identity of
+     * the row it created is dropped from the cache again.
      */
-    @Transactional
-    public User findOrCreateUser(String clerkUserId, String username) {
-        return userRepository.findByClerkUserId(clerkUserId)
-                .orElseGet(() -> {
-                    User newUser = User.builder()
-                            .clerkUserId(clerkUserId)
-                            .username(username)
-                            .build();
-                    return userRepository.save(newUser);
-                });
+    private UserIdentity loadOrCreate(String clerkUserId, String username) {
+        Optional<User> existing = userRepository.findByClerkUserId(clerkUserId);
+        if (existing.isPresent()) {
+            return UserIdentity.of(existing.get());
+        }
+        String name = username == null || username.isBlank() ? clerkUserId : username;
+        if (userRepository.insertIfAbsent(clerkUserId, name) > 0
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        identityCache.invalidate(clerkUserId);
+                    }
+                }
+            });
+        }
+        return UserIdentity.of(userRepository.findByClerkUserId(clerkUserId).orElseThrow());
     }
 
     /**
-     * Fetches all users from the database, converts them to DTOs,
-     * and filters out the user who is making the request.
+     * Returns one page of the user directory, ordered by username, for starting new chats.
+     * The caller is excluded and the page is cut in the query, so the cost depends on the page size only,
+     * not on the number of users; pages follow a keyset rather than an offset for the same reason.
      *
      * @param clerkUserIdOfCurrentUser The Clerk ID of the logged-in user.
-     * @return A list of UserDto objects.
+     * @param query  Optional case-insensitive username prefix.
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit  The page size, capped at {@value #MAX_DIRECTORY_PAGE_SIZE}.
      */
     @Transactional(readOnly = true)
-    public List<UserDto> getAllChatUsers(String clerkUserIdOfCurrentUser) {
-        return userRepository.findAll()
-                .stream()
-                // Filter out the current user (you don't want to chat with yourself)
-                .filter(user -> !user.getClerkUserId().equals(clerkUserIdOfCurrentUser))
-                // Map to the safe DTO
+    public CursorPageDto<UserDto> getChatUserPage(String clerkUserIdOfCurrentUser, String query,
+                                                  String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_DIRECTORY_PAGE_SIZE
+                : Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+        String pattern = query == null || query.isBlank() ? "%" : escapeLike(query.trim()) + "%";
+        String afterName = "";
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf(':');
+                afterName = raw.substring(0, separator);
+                afterId = Long.parseLong(raw.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid user directory cursor.");
+            }
+        }
+
+        // Fetch one extra row to find out whether another page exists
+        PrefixRange range = query == null ? null : PrefixRange.of(query.trim());
+        List<User> rows = range == null
+                ? userRepository.findDirectoryPage(
+                        clerkUserIdOfCurrentUser, pattern, afterName, afterId, Limit.of(pageSize + 1))
+                : userRepository.findDirectoryPageInRange(clerkUserIdOfCurrentUser, pattern, range.from(), range.to(),
+                        afterName, afterId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<User> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            User last = page.get(page.size() - 1);
+            // Usernames may contain ':', ids cannot, hence lastIndexOf above. The query lowercases the name itself.
+            String raw = last.getUsername() + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<UserDto> users = page.stream()
                 .map(user -> new UserDto(user.getUsername(), user.getClerkUserId()))
                 .collect(Collectors.toList());
+        return new CursorPageDto<>(users, nextCursor, hasMore);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Index bounds holding every lowercased username that starts with a prefix. Only the prefix's leading ASCII
+     * letters and digits are used: linguistic collations compare those one by one, while they may skip punctuation
+     * or weigh accents later. The upper bound carries past a trailing 'z' or '9', as the next character is
+     * punctuation, which such collations sort before letters and digits.
+     */
+    record PrefixRange(String from, String to) {
+
+        /** @return The bounds, or null if the prefix does not start with an ASCII letter or digit. */
+        static PrefixRange of(String prefix) {
+            String lower = prefix.toLowerCase(Locale.ROOT);
+            int end = 0;
+            while (end < lower.length() && isAsciiLetterOrDigit(lower.charAt(end))) {
+                end++;
+            }
+            String from = lower.substring(0, end);
+            int last = end;
+            while (last > 0 && (from.charAt(last - 1) == 'z' || from.charAt(last - 1) == '9')) {
+                last--;
+            }
+            if (last == 0) {
+                return null;
+            }
+            return new PrefixRange(from, from.substring(0, last - 1) + (char) (from.charAt(last - 1) + 1));
+        }
+
+        private static boolean isAsciiLetterOrDigit(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+        }
     }
 
     /**
-     * Returns users who have an existing chat history with the current user.
+     * Returns users who have an existing chat history with the current user,
+     * most recently active conversation first.
      */
     @Transactional(readOnly = true)
     public List<UserDto> getUsersWithChatHistory(String currentUserClerkId) {
-        // 1. Get IDs of everyone we've talked to
-        List<String> partnerIds = messageRepository.findChatPartnerIds(currentUserClerkId);
-
-        // 2. Find those User entities in the database
-        // (Note: You might need to add 'findByClerkUserIdIn' to UserRepository, or just filter/loop)
-        return userRepository.findAll().stream()
-                .filter(user -> partnerIds.contains(user.getClerkUserId()))
-                .map(user -> new UserDto(user.getUsername(), user.getClerkUserId()))
-                .collect(Collectors.toList());
+        return conversationRepository.findChatPartners(currentUserClerkId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package org.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.model.ViewVersion;
+import org.example.backend.repository.ViewVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Change counters behind the ETags of the collection and marketplace reads.
+ * <p>
+ * Every write bumps the counters of the views it changes inside its own transaction, so a reader can never
+ * see a new version together with old data. Readers fetch the version before the data: if a write commits
+ * in between, the response merely carries an older tag than its content, and the next request refetches.
+ */
+@Service
+@RequiredArgsConstructor
+public class ViewVersionService {
+
+    /**
+     * The marketplace's tag covers {@value #MARKETPLACE_SHARDS} counters, one of which each change bumps (see
+     * {@link #marketplace(String)}), so that sellers rarely wait for each other's counter row.
+     */
+    public static final String MARKETPLACE = "marketplace";
+    static final int MARKETPLACE_SHARDS = 16;
+    private static final List<String> MARKETPLACE_SCOPES = IntStream.range(0, MARKETPLACE_SHARDS)
+            .mapToObj(shard -> MARKETPLACE + ":" + shard)
+            .toList();
+    /** Changes whenever catalog data, which every card response is enriched with, changes. */
+    public static final String CATALOG = "catalog";
+
+    private final ViewVersionRepository viewVersionRepository;
+
+    public static String collection(String clerkUserId) {
+        return "collection:" + clerkUserId;
+    }
+
+    /**
+     * The marketplace counter to bump for a change to the seller's listings. Picked by seller, whose collection
+     * counter the change locks anyway, so that the marketplace counter adds no waiting between one seller's changes.
+     */
+    public static String marketplace(String sellerClerkId) {
+        return MARKETPLACE_SCOPES.get(Math.floorMod(sellerClerkId.hashCode(), MARKETPLACE_SHARDS));
+    }
+
+    /**
+     * Marks the given views as changed. Joins the caller's transaction, and holds the counter rows
+     * locked until it ends; they are always locked in the same (sorted) order to rule out deadlocks.
+     */
+    @Transactional
+    public void bump(String... scopes) {
+        for (String scope : new TreeSet<>(Arrays.asList(scopes))) {
+            increment(scope, 1);
+        }
+    }
+
+    /**
+     * Raises the counter to {@code value}, if it is lower.
+     */
+    @Transactional
+    public void raise(String scope, long value) {
+        viewVersionRepository.insertIfAbsent(scope);
+        viewVersionRepository.raise(scope, value);
+    }
+
+    /**
+     * @return The committed value of the counter, 0 if it was never changed.
+     */
+    @Transactional(readOnly = true)
+    public long version(String scope) {
+        return viewVersionRepository.findVersion(scope).orElse(0L);
+    }
+
+    /**
+     * @return A strong ETag for the view, covering the catalog data it is enriched with.
+     *         Read where the request reads the view from, so the view is never older than its tag;
+     *         see {@link org.example.backend.config.ReadYourWritesInterceptor}.
+     */
+    @Transactional(readOnly = true)
+    public String etag(String scope) {
+        if (MARKETPLACE.equals(scope)) {
+            return marketplaceEtag();
+        }
+        Map<String, Long> versions = versions(List.of(scope, CATALOG));
+        return "\"" + versions.getOrDefault(scope, 0L) + "-" + versions.getOrDefault(CATALOG, 0L) + "\"";
+    }
+
+    /**
+     * Every committed change raises one of the counters, so their sum changes whenever the marketplace does.
+     * The shard count is part of the tag, so that tags handed out under another count never match.
+     */
+    private String marketplaceEtag() {
+        List<String> scopes = new ArrayList<>(MARKETPLACE_SCOPES);
+        scopes.add(CATALOG);
+        Map<String, Long> versions = versions(scopes);
+        long marketplace = 0;
+        for (String scope : MARKETPLACE_SCOPES) {
+            marketplace += versions.getOrDefault(scope, 0L);
+        }
+        return "\"" + MARKETPLACE_SHARDS + "x" + marketplace + "-" + versions.getOrDefault(CATALOG, 0L) + "\"";
+    }
+
+    private Map<String, Long> versions(List<String> scopes) {
+        return viewVersionRepository.findAllById(scopes).stream()
+                .collect(Collectors.toMap(ViewVersion::getScope, ViewVersion::getVersion));
+    }
+
+    private void increment(String scope, long delta) {
+        if (viewVersionRepository.increment(scope, delta) == 0) {
+            // First change of this counter. A concurrent first change blocks on the insert until
+            // the other transaction commits, and then still counts itself with the second increment.
+            viewVersionRepository.insertIfAbsent(scope);
+            viewVersionRepository.increment(scope, delta);
+        }
+    }
+}
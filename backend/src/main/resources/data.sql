@@ -0,0 +1,55 @@
+-- Runs on every start after Hibernate has updated the schema (spring.sql.init.mode=always,
+-- spring.jpa.defer-datasource-initialization=true). Every statement must be idempotent.
+
+-- chat_messages moved from IDENTITY to a pooled sequence (INCREMENT BY 50, see Message.ID_ALLOCATION_SIZE).
+-- Make sure the sequence never hands out ids that the identity column already used.
+CREATE SEQUENCE IF NOT EXISTS chat_messages_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('chat_messages_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM chat_messages),
+                                            (SELECT last_value FROM chat_messages_seq)));
+
+-- card moved from IDENTITY to a pooled sequence as well (INCREMENT BY 50, see Card.ID_ALLOCATION_SIZE)
+CREATE SEQUENCE IF NOT EXISTS card_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('card_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM card),
+                                   (SELECT last_value FROM card_seq)));
+
+-- Marketplace events moved from a view_version counter to a sequence (see MarketplaceEvent.SEQUENCE).
+-- Continue after every number clients may have seen, and count the events gone before the move as expired.
+CREATE SEQUENCE IF NOT EXISTS marketplace_event_seq START WITH 1 INCREMENT BY 1;
+SELECT setval('marketplace_event_seq', GREATEST((SELECT COALESCE(MAX(sequence), 1) FROM marketplace_event),
+                                                (SELECT COALESCE(MAX(version), 1) FROM view_version WHERE scope = 'marketplace-events'),
+                                                (SELECT last_value FROM marketplace_event_seq)));
+INSERT INTO view_version (scope, version)
+SELECT 'marketplace-events-expired',
+       COALESCE(MIN(sequence) - 1, (SELECT MAX(version) FROM view_version WHERE scope = 'marketplace-events'), 0)
+FROM marketplace_event
+ON CONFLICT DO NOTHING;
+
+-- Cross-instance STOMP delivery (binderbase.cluster.mode=postgres). Pure runtime state, so unlogged.
+CREATE UNLOGGED TABLE IF NOT EXISTS cluster_nodes (
+    node_id   varchar(255) PRIMARY KEY,
+    last_seen timestamptz  NOT NULL
+);
+CREATE UNLOGGED TABLE IF NOT EXISTS stomp_session_routes (
+    clerk_user_id varchar(255) NOT NULL,
+    node_id       varchar(255) NOT NULL,
+    PRIMARY KEY (clerk_user_id, node_id)
+);
+CREATE INDEX IF NOT EXISTS idx_stomp_session_routes_node ON stomp_session_routes (node_id);
+-- Messages too large for a NOTIFY payload
+CREATE UNLOGGED TABLE IF NOT EXISTS cluster_outbox (
+    id         bigserial   PRIMARY KEY,
+    payload    text        NOT NULL,
+    created_at timestamptz NOT NULL DEFAULT now()
+);
+
+-- Card name search (CardSearchRepository): word-prefix matching through a 'simple' full-text index.
+-- Fuzzy matching needs pg_trgm and its indexes, which a DBA installs with db/pg_trgm.sql.
+CREATE INDEX IF NOT EXISTS idx_card_name_fts ON card USING gin (to_tsvector('simple', name));
+CREATE INDEX IF NOT EXISTS idx_card_catalog_name_fts ON card_catalog USING gin (to_tsvector('simple', name));
+
+-- User directory (UserRepository.findDirectoryPage): keyset paging in (lower(username), id) order
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username), id);
+
+-- Chat messages waiting for the recipient's acknowledgement (MessageRepository.findUndelivered).
+-- Partial, so that it only ever holds the backlog rather than the whole history.
+CREATE INDEX IF NOT EXISTS idx_chat_messages_undelivered ON chat_messages (recipient_clerk_id, id) WHERE delivered_at IS NULL;
@@ -0,0 +1,10 @@
+-- Fuzzy card and user name search (CardSearchRepository, UserRepository.findDirectoryPage).
+-- Creating the extension needs a privilege the application's database user usually lacks, so this is
+-- not part of data.sql: a DBA runs it once, after the application has created the schema, e.g.
+--   psql "$DATABASE_URL" -f pg_trgm.sql
+-- The application notices the extension within a few minutes, without a restart; until then card search
+-- matches by prefix and word prefix only. Every statement is idempotent.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_card_name_trgm ON card USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_card_catalog_name_trgm ON card_catalog USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
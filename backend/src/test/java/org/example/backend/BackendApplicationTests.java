@@ -2,10 +2,16 @@ package org.example.backend;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 @SpringBootTest
 class BackendApplicationTests {
 
+    // The real decoder resolves the Clerk issuer over the network at startup
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
     @Test
     void contextLoads() {
     }
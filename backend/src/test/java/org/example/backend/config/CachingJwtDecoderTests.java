@@ -0,0 +1,88 @@
+package org.example.backend.config;
+
+import org.example.backend.support.LocalJwtIssuer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTests {
+
+    private LocalJwtIssuer issuer;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        issuer = new LocalJwtIssuer();
+        decoder = new CachingJwtDecoder(issuer.getIssuerUri(), new JwtCacheProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        decoder.destroy();
+        issuer.close();
+    }
+
+    @Test
+    void resolvesIssuerAndKeysAtStartupInsteadOfOnFirstRequest() {
+        decoder.afterSingletonsInstantiated();
+        assertThat(issuer.getDiscoveryRequests()).isEqualTo(1);
+        assertThat(issuer.getJwksRequests()).isEqualTo(1);
+
+        decoder.decode(issuer.issue("user_1", Duration.ofMinutes(1)));
+        decoder.decode(issuer.issue("user_2", Duration.ofMinutes(1)));
+
+        assertThat(issuer.getDiscoveryRequests()).isEqualTo(1);
+        assertThat(issuer.getJwksRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToLazyResolutionWhenIssuerIsDownAtStartup() {
+        String issuerUri = issuer.getIssuerUri();
+        issuer.close();
+        CachingJwtDecoder offline = new CachingJwtDecoder(issuerUri, new JwtCacheProperties());
+
+        offline.afterSingletonsInstantiated(); // Must not throw
+
+        assertThatThrownBy(() -> offline.decode("not-a-token")).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void reusesVerificationForTheSameToken() {
+        String token = issuer.issue("user_1", Duration.ofMinutes(1));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertThat(first.getSubject()).isEqualTo("user_1");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKeys() {
+        String token = issuer.issueWithUnknownKey("user_1", Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsTokensFromAnotherIssuer() {
+        String token = issuer.issueForIssuer("https://someone-else.example", "user_1", Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokensAndDoesNotCacheThem() {
+        String token = issuer.issue("user_1", Duration.ofMinutes(-2));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+}
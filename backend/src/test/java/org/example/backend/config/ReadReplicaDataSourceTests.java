@@ -0,0 +1,242 @@
+package org.example.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing between two in-memory databases standing in for the primary and a replica; each has a single
+ * row naming itself.
+ */
+class ReadReplicaDataSourceTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReadReplicaDataSource replicas;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        replicas = new ReadReplicaDataSource(primary,
+                List.of(new ReadReplicaDataSource.Replica("replica-1", replica)), Duration.ofSeconds(10));
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        jdbcTemplate = new JdbcTemplate(proxy);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadReplicaDataSource.clearRoute();
+    }
+
+    private static DataSource database(String node) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node VALUES (?)", node);
+        return dataSource;
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToTheReplicaAndTheRestToThePrimary() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void connectionsWithExplicitCredentialsAreRoutedTheSameWay() throws SQLException {
+        try (Connection connection = replicas.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL()).contains("replica");
+        }
+        ReadReplicaDataSource.usePrimaryOnly();
+        try (Connection connection = replicas.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL()).contains("primary");
+        }
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaIsUnhealthy() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+        replicas = new ReadReplicaDataSource(primary,
+                List.of(new ReadReplicaDataSource.Replica("replica-1", broken)), Duration.ofSeconds(10));
+
+        try (Connection connection = replicas.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains("primary");
+        }
+        assertThat(replicas.getHealthyReplicaCount()).isZero();
+    }
+
+    @Test
+    void aPinnedThreadKeepsReadingFromTheSameReplica() {
+        replicas = new ReadReplicaDataSource(primary, List.of(
+                new ReadReplicaDataSource.Replica("replica-1", replica),
+                new ReadReplicaDataSource.Replica("replica-2", database("other-replica"))), Duration.ofSeconds(10));
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicas);
+        jdbcTemplate = new JdbcTemplate(proxy);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        readOnly.setReadOnly(true);
+
+        assertThat(List.of(nodeIn(readOnly), nodeIn(readOnly))).containsExactly("replica", "other-replica");
+
+        ReadReplicaDataSource.pinReplica();
+        String pinned = nodeIn(readOnly);
+        assertThat(List.of(nodeIn(readOnly), nodeIn(readOnly), nodeIn(readOnly))).containsOnly(pinned);
+    }
+
+    @Test
+    void aPinnedThreadFallsBackToThePrimaryRatherThanAnotherReplica() throws SQLException {
+        DataSource failing = spy(replica);
+        doCallRealMethod().doThrow(new SQLException("Connection refused")).when(failing).getConnection();
+        replicas = new ReadReplicaDataSource(primary, List.of(
+                new ReadReplicaDataSource.Replica("replica-1", failing),
+                new ReadReplicaDataSource.Replica("replica-2", database("other-replica"))), Duration.ofSeconds(10));
+
+        ReadReplicaDataSource.pinReplica();
+        try (Connection connection = replicas.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains(":mem:replica-");
+        }
+        try (Connection connection = replicas.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).contains("primary");
+        }
+    }
+
+    @Test
+    void healthCheckSkipsLaggingReplicasAndTakesThemBackOnceCaughtUp() throws SQLException {
+        ResultSet lag = mock(ResultSet.class);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenReturn(30.0, 0.0);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(lag);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource lagging = mock(DataSource.class);
+        when(lagging.getConnection()).thenReturn(connection);
+        replicas = new ReadReplicaDataSource(primary,
+                List.of(new ReadReplicaDataSource.Replica("replica-1", lagging)), Duration.ofSeconds(10));
+
+        replicas.checkHealth();
+        assertThat(replicas.getHealthyReplicaCount()).isZero();
+
+        replicas.checkHealth();
+        assertThat(replicas.getHealthyReplicaCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFollowingAWriteGoToThePrimaryWithinTheWindow() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockHttpServletRequest write = new MockHttpServletRequest("PUT", "/api/v1/marketplace/list/1");
+        write.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(write, response, null);
+        interceptor.afterCompletion(write, response, null, null);
+
+        MockHttpServletRequest ownRead = new MockHttpServletRequest("GET", "/api/v1/marketplace");
+        ownRead.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(ownRead, response, null);
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+        interceptor.afterCompletion(ownRead, response, null, null);
+
+        MockHttpServletRequest otherRead = new MockHttpServletRequest("GET", "/api/v1/marketplace");
+        otherRead.setUserPrincipal(() -> "user_2");
+        interceptor.preHandle(otherRead, response, null);
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+        interceptor.afterCompletion(otherRead, response, null, null);
+    }
+
+    @Test
+    void anAsyncRequestDoesNotLeaveItsThreadOnThePrimary() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockHttpServletRequest write = new MockHttpServletRequest("PUT", "/api/v1/marketplace/list/1");
+        write.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(write, response, null);
+        interceptor.afterCompletion(write, response, null, null);
+
+        // A streamed read: the request thread is handed back before the response completes
+        MockHttpServletRequest streamedRead = new MockHttpServletRequest("GET", "/api/v1/cards/stream");
+        streamedRead.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(streamedRead, response, null);
+        interceptor.afterConcurrentHandlingStarted(streamedRead, response, null);
+
+        // The next request served by this thread
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void aStreamedBodyReadsWhereItsRequestDoes() throws Exception {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockHttpServletRequest write = new MockHttpServletRequest("PUT", "/api/v1/marketplace/list/1");
+        write.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(write, response, null);
+        interceptor.afterCompletion(write, response, null, null);
+
+        MockHttpServletRequest streamedRead = new MockHttpServletRequest("GET", "/api/v1/cards/stream");
+        streamedRead.setUserPrincipal(() -> "user_1");
+        interceptor.preHandle(streamedRead, response, null);
+        AtomicReference<String> readFrom = new AtomicReference<>();
+        StreamingResponseBody body = ReadYourWritesInterceptor.onRequestRoute(out -> readFrom.set(nodeIn(readOnly)));
+        interceptor.afterConcurrentHandlingStarted(streamedRead, response, null);
+
+        // Written by the async executor, which has not been through the interceptor
+        ExecutorService asyncExecutor = Executors.newSingleThreadExecutor();
+        try {
+            asyncExecutor.submit(() -> {
+                body.writeTo(OutputStream.nullOutputStream());
+                return null;
+            }).get();
+            assertThat(readFrom.get()).isEqualTo("primary");
+            assertThat(asyncExecutor.submit(() -> nodeIn(readOnly)).get()).isEqualTo("replica");
+        } finally {
+            asyncExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.User;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.service.CardService;
+import org.example.backend.service.MarketplaceService;
+import org.example.backend.support.CardDataTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The NDJSON endpoints must return exactly what the list endpoints return, one card per line.
+ */
+@AutoConfigureMockMvc
+class CardStreamingTests extends CardDataTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user("streamer");
+        List<Card> cards = new ArrayList<>();
+        // More than one fetch/enrichment chunk
+        for (int i = 0; i < CardRepository.STREAM_FETCH_SIZE + 20; i++) {
+            boolean forSale = i % 3 == 0;
+            cards.add(forSale
+                    ? card(owner, "Card " + i, CardStatus.FOR_SALE, BigDecimal.valueOf(i + 1))
+                    : card(owner, "Card " + i, CardStatus.IN_COLLECTION));
+        }
+        cardRepository.saveAll(cards);
+    }
+
+    @Test
+    void collectionStreamMatchesTheCollectionList() throws Exception {
+        List<CardResponseDto> streamed = readNdjson("/api/v1/collection/stream?userId=streamer");
+
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(cardService.getCardsByUserId("streamer"));
+    }
+
+    @Test
+    void marketplaceStreamMatchesTheMarketplaceListNewestFirst() throws Exception {
+        List<CardResponseDto> streamed = readNdjson("/api/v1/marketplace/stream");
+
+        assertThat(streamed).containsExactlyInAnyOrderElementsOf(marketplaceService.getAllCardsForSale());
+        assertThat(streamed).extracting(CardResponseDto::getId).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+    }
+
+    private List<CardResponseDto> readNdjson(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).with(jwt())).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        List<CardResponseDto> cards = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            cards.add(objectMapper.readValue(line, CardResponseDto.class));
+        }
+        return cards;
+    }
+}
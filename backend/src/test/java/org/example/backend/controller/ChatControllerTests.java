@@ -0,0 +1,67 @@
+package org.example.backend.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.model.ChatMessage;
+import org.example.backend.service.ChatReceiptService;
+import org.example.backend.service.ChatService;
+import org.example.backend.service.ClusterMessageRouter;
+import org.example.backend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delivery of sent messages, against a chat service whose messages are persisted on a separate writer thread.
+ */
+class ChatControllerTests {
+
+    private final ChatService chatService = mock(ChatService.class);
+    private final ClusterMessageRouter messageRouter = mock(ClusterMessageRouter.class);
+    private final ExecutorService deliveryExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "delivery"));
+    private final ChatController controller = new ChatController(messageRouter, chatService, mock(UserService.class),
+            mock(ChatReceiptService.class), new SimpleMeterRegistry(), deliveryExecutor);
+
+    @AfterEach
+    void tearDown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    @Test
+    void deliversOffThePersistenceWriterThread() throws Exception {
+        CompletableFuture<ChatMessage> persisted = new CompletableFuture<>();
+        when(chatService.sendMessage(any())).thenReturn(persisted);
+        AtomicReference<String> deliveredOn = new AtomicReference<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            deliveredOn.set(Thread.currentThread().getName());
+            delivered.countDown();
+            return null;
+        }).when(messageRouter).sendToUser(eq("user_bob"), eq("/private"), any());
+
+        Principal sender = () -> "user_ann";
+        controller.sendPrivateMessage(ChatMessage.builder().recipientClerkId("user_bob").content("Hi").build(), sender);
+        Thread writer = new Thread(() -> persisted.complete(
+                ChatMessage.builder().id(1L).senderClerkId("user_ann").recipientClerkId("user_bob").build()),
+                "chat-persistence-writer");
+        writer.start();
+        writer.join();
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(deliveredOn.get()).isEqualTo("delivery");
+    }
+}
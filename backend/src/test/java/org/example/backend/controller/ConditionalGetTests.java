@@ -0,0 +1,105 @@
+package org.example.backend.controller;
+
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.ViewVersion;
+import org.example.backend.service.MarketplaceService;
+import org.example.backend.service.ViewVersionService;
+import org.example.backend.support.CardDataTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class ConditionalGetTests extends CardDataTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = saveCard(user("etag-owner"), "Black Lotus", CardStatus.IN_COLLECTION);
+    }
+
+    @Test
+    void unchangedCollectionIsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/collection").param("userId", "etag-owner").with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        mockMvc.perform(get("/api/v1/collection").param("userId", "etag-owner").with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void listingACardChangesTheCollectionAndMarketplaceTags() throws Exception {
+        String collectionTag = etag("/api/v1/collection?userId=etag-owner");
+        String marketplaceTag = etag("/api/v1/marketplace");
+
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("25000"), "etag-owner");
+
+        mockMvc.perform(get("/api/v1/collection").param("userId", "etag-owner").with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, collectionTag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("FOR_SALE")));
+        mockMvc.perform(get("/api/v1/marketplace").with(jwt()).header(HttpHeaders.IF_NONE_MATCH, marketplaceTag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Black Lotus")));
+        assertThat(etag("/api/v1/collection?userId=etag-owner")).isNotEqualTo(collectionTag);
+        assertThat(etag("/api/v1/marketplace")).isNotEqualTo(marketplaceTag);
+    }
+
+    @Test
+    void listingsOnlyLockTheirSellersMarketplaceCounter() {
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("25000"), "etag-owner");
+
+        assertThat(viewVersionRepository.findVersion(ViewVersionService.marketplace("etag-owner"))).contains(1L);
+        assertThat(viewVersionRepository.findAll()).extracting(ViewVersion::getScope)
+                .containsExactlyInAnyOrder(ViewVersionService.collection("etag-owner"),
+                        ViewVersionService.marketplace("etag-owner"));
+    }
+
+    @Test
+    void otherCollectionsKeepTheirTag() throws Exception {
+        String otherTag = etag("/api/v1/collection?userId=someone-else");
+
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("25000"), "etag-owner");
+
+        mockMvc.perform(get("/api/v1/collection").param("userId", "someone-else").with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, otherTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/marketplace/stream").with(jwt())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag("/api/v1/marketplace")))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path).with(jwt()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.backend.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects request latencies per endpoint and prints throughput and percentiles.
+ */
+final class LatencyRecorder {
+
+    private static final class Samples {
+        long[] latencies = new long[1024];
+        int count;
+        int errors;
+        long elapsedNanos;
+    }
+
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    synchronized void record(String endpoint, long latencyNanos, boolean success) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, key -> new Samples());
+        if (!success) {
+            endpointSamples.errors++;
+            return;
+        }
+        if (endpointSamples.count == endpointSamples.latencies.length) {
+            endpointSamples.latencies = Arrays.copyOf(endpointSamples.latencies, endpointSamples.count * 2);
+        }
+        endpointSamples.latencies[endpointSamples.count++] = latencyNanos;
+    }
+
+    /** The wall-clock time the endpoint was driven for, used for the throughput column. */
+    synchronized void elapsed(String endpoint, long elapsedNanos) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).elapsedNanos = elapsedNanos;
+    }
+
+    synchronized int errors(String endpoint) {
+        Samples endpointSamples = samples.get(endpoint);
+        return endpointSamples == null ? 0 : endpointSamples.errors;
+    }
+
+    synchronized String report() {
+        StringBuilder report = new StringBuilder(String.format("%n%-48s %9s %7s %9s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        samples.forEach((endpoint, endpointSamples) -> {
+            long[] sorted = Arrays.copyOf(endpointSamples.latencies, endpointSamples.count);
+            Arrays.sort(sorted);
+            double seconds = endpointSamples.elapsedNanos / 1e9;
+            report.append(String.format("%-48s %9d %7d %9.0f %8.1f %8.1f %8.1f %8.1f%n",
+                    endpoint, sorted.length, endpointSamples.errors,
+                    seconds > 0 ? sorted.length / seconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0)));
+        });
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.max(0, (int) Math.ceil(sorted.length * quantile) - 1);
+        return sorted[index] / 1e6;
+    }
+}
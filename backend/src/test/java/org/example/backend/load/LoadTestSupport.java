@@ -0,0 +1,43 @@
+package org.example.backend.load;
+
+import org.example.backend.support.LocalJwtIssuer;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Common setup of the load tests: the full application on a random port, tokens signed by a
+ * {@link LocalJwtIssuer} instead of Clerk, and the in-memory H2 database of the test profile.
+ * <p>
+ * Set {@code LOADTEST_JDBC_URL} (plus {@code LOADTEST_JDBC_USERNAME}/{@code LOADTEST_JDBC_PASSWORD})
+ * to run against a local PostgreSQL instead; its schema is recreated by the run.
+ * <p>
+ * Run with {@code mvn test -Pload-tests}. Sizes can be changed with {@code -Dloadtest.*} properties.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class LoadTestSupport {
+
+    // Shared by every load test class, so they also share one application context
+    static final LocalJwtIssuer ISSUER = new LocalJwtIssuer();
+
+    @DynamicPropertySource
+    static void localStandIns(DynamicPropertyRegistry registry) {
+        registry.add("spring.security.oauth2.resourceserver.jwt.issuer-uri", ISSUER::getIssuerUri);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "false");
+
+        String jdbcUrl = System.getenv("LOADTEST_JDBC_URL");
+        if (jdbcUrl != null && !jdbcUrl.isBlank()) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getenv("LOADTEST_JDBC_USERNAME"));
+            registry.add("spring.datasource.password", () -> System.getenv("LOADTEST_JDBC_PASSWORD"));
+            registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+            registry.add("spring.sql.init.mode", () -> "always");
+        }
+    }
+
+    @LocalServerPort
+    int port;
+}
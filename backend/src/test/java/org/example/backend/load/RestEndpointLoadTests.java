@@ -0,0 +1,175 @@
+package org.example.backend.load;
+
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.Message;
+import org.example.backend.model.User;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.SequenceIdAllocator;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.service.ChatMessageWriter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives every read endpoint with concurrent authenticated clients over seeded data
+ * and reports throughput and latency percentiles per endpoint.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RestEndpointLoadTests extends LoadTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(RestEndpointLoadTests.class);
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 200);
+    private static final int CARDS_PER_USER = Integer.getInteger("loadtest.cardsPerUser", 50);
+    private static final int MESSAGES_PER_CONVERSATION = Integer.getInteger("loadtest.messagesPerConversation", 200);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 10));
+
+    private static final String USER_PREFIX = "rest_";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+
+    @Autowired
+    private SequenceIdAllocator chatMessageIdAllocator;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final String[] tokens = new String[USERS];
+
+    @BeforeAll
+    void seed() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().clerkUserId(clerkId(i)).username("collector" + i).build());
+            tokens[i] = ISSUER.issue(clerkId(i), Duration.ofHours(1));
+        }
+        users = userRepository.saveAll(users);
+
+        List<Card> cards = new ArrayList<>(USERS * CARDS_PER_USER);
+        for (User user : users) {
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                boolean forSale = c % 5 < 2; // 40% of every collection is listed
+                cards.add(Card.builder()
+                        .name("Card " + c + " of " + user.getUsername())
+                        .cardId("set-" + c)
+                        .user(user)
+                        .status(forSale ? CardStatus.FOR_SALE : CardStatus.IN_COLLECTION)
+                        .price(forSale ? BigDecimal.valueOf(100 + c, 2) : null)
+                        .build());
+            }
+        }
+        cardRepository.saveAll(cards);
+
+        // Every user talks to the next one, through the same writer the chat pipeline uses
+        Instant start = Instant.now().minus(Duration.ofDays(30));
+        for (int i = 0; i < USERS; i++) {
+            int partner = (i + 1) % USERS;
+            List<Message> conversation = new ArrayList<>(MESSAGES_PER_CONVERSATION);
+            for (int m = 0; m < MESSAGES_PER_CONVERSATION; m++) {
+                boolean outgoing = m % 2 == 0;
+                conversation.add(Message.builder()
+                        .id(chatMessageIdAllocator.nextId())
+                        .senderClerkId(clerkId(outgoing ? i : partner))
+                        .recipientClerkId(clerkId(outgoing ? partner : i))
+                        .senderUsername("collector" + (outgoing ? i : partner))
+                        .recipientUsername("collector" + (outgoing ? partner : i))
+                        .content("Message " + m)
+                        .timestamp(start.plusSeconds(m))
+                        .build());
+            }
+            chatMessageWriter.write(conversation);
+        }
+    }
+
+    @Test
+    void readEndpointsUnderConcurrentLoad() throws Exception {
+        Map<String, IntFunction<String>> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/v1/collection", user -> "/api/v1/collection?userId=" + clerkId(user));
+        endpoints.put("GET /api/v1/marketplace", user -> "/api/v1/marketplace");
+        endpoints.put("GET /api/v1/marketplace/listings", user -> "/api/v1/marketplace/listings?sort=PRICE_ASC");
+        endpoints.put("GET /api/v1/chat/history/{partner}", user -> "/api/v1/chat/history/" + clerkId((user + 1) % USERS));
+        endpoints.put("GET /api/v1/chat/inbox", user -> "/api/v1/chat/inbox");
+        endpoints.put("GET /api/v1/users", user -> "/api/v1/users");
+        endpoints.put("GET /api/v1/users?q=", user -> "/api/v1/users?q=collector" + (user % 10));
+        endpoints.put("GET /api/v1/users/chat-partners", user -> "/api/v1/users/chat-partners");
+
+        for (Map.Entry<String, IntFunction<String>> endpoint : endpoints.entrySet()) {
+            drive(endpoint.getKey(), endpoint.getValue());
+        }
+        log.info("Load test results:{}", recorder.report());
+
+        endpoints.keySet().forEach(endpoint ->
+                assertThat(recorder.errors(endpoint)).as("failed requests to %s", endpoint).isZero());
+    }
+
+    private void drive(String endpoint, IntFunction<String> pathForUser) throws InterruptedException {
+        run(endpoint, pathForUser, WARMUP, new LatencyRecorder());
+        long elapsed = run(endpoint, pathForUser, DURATION, recorder);
+        recorder.elapsed(endpoint, elapsed);
+    }
+
+    private long run(String endpoint, IntFunction<String> pathForUser, Duration duration, LatencyRecorder target)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        for (int w = 0; w < CONCURRENCY; w++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int user = ThreadLocalRandom.current().nextInt(USERS);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + pathForUser.apply(user)))
+                            .header("Authorization", "Bearer " + tokens[user])
+                            .GET()
+                            .build();
+                    long sent = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    target.record(endpoint, System.nanoTime() - sent, success);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private static String clerkId(int user) {
+        return USER_PREFIX + user;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.backend.load;
+
+import org.example.backend.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Private-message throughput and delivery latency as the number of concurrent STOMP sessions grows.
+ * Every session sends to the next one at a fixed pace; latency is measured from send to arrival at the recipient.
+ */
+class WebSocketDeliveryLoadTests extends LoadTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketDeliveryLoadTests.class);
+
+    private static final int[] SESSION_COUNTS = {10, 50, 200};
+    private static final int MESSAGES_PER_SESSION = 50;
+
+    /** Every session sends one message per interval, so latency is not dominated by a single burst. */
+    private static final long SEND_INTERVAL_MILLIS = 20;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @Test
+    void privateMessageDeliveryUnderGrowingConcurrency() throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+
+        runRound(client, "warmup_", SESSION_COUNTS[0], new LatencyRecorder());
+        for (int sessions : SESSION_COUNTS) {
+            runRound(client, "load_" + sessions + "_", sessions, recorder);
+        }
+        client.stop();
+        log.info("Load test results:{}", recorder.report());
+    }
+
+    private void runRound(WebSocketStompClient client, String round, int sessionCount, LatencyRecorder target)
+            throws Exception {
+        String endpoint = "STOMP /app/private-message (" + sessionCount + " sessions)";
+        int expected = sessionCount * MESSAGES_PER_SESSION;
+        CountDownLatch delivered = new CountDownLatch(expected);
+
+        List<StompSession> sessions = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + ISSUER.issue(round + i, Duration.ofMinutes(10)));
+            StompSession session = client.connectAsync("ws://localhost:" + port + "/ws/websocket",
+                    handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() {
+                    }).get(10, TimeUnit.SECONDS);
+            session.subscribe("/user/" + round + i + "/private", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return ChatMessage.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long sent = Long.parseLong(((ChatMessage) payload).getContent());
+                    target.record(endpoint, System.nanoTime() - sent, true);
+                    delivered.countDown();
+                }
+            });
+            sessions.add(session);
+        }
+        Thread.sleep(500); // Let the subscriptions reach the broker
+
+        long start = System.nanoTime();
+        for (int m = 0; m < MESSAGES_PER_SESSION; m++) {
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.get(i).send("/app/private-message", ChatMessage.builder()
+                        .senderUsername(round + i)
+                        .recipientClerkId(round + ((i + 1) % sessionCount))
+                        .recipientUsername(round + ((i + 1) % sessionCount))
+                        .content(Long.toString(System.nanoTime()))
+                        .build());
+            }
+            Thread.sleep(SEND_INTERVAL_MILLIS);
+        }
+        boolean complete = delivered.await(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        sessions.forEach(StompSession::disconnect);
+
+        target.elapsed(endpoint, elapsed);
+        assertThat(complete).as("all %d messages delivered", expected).isTrue();
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CatalogCardDto;
+import org.example.backend.dto.saveCardDto;
+import org.example.backend.model.CardCatalogEntry;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.CardCatalogRepository;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CardCatalogImporterTests {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private CardCatalogImporter importer;
+
+    @Autowired
+    private CardCatalogService catalogService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private Cache<String, UserIdentity> identityCache;
+
+    @Autowired
+    private CardCatalogRepository catalogRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        catalogRepository.deleteAllInBatch();
+        catalogService.evict(List.of("lea-232", "lea-233", "m10-146", "unknown-1"));
+        identityCache.invalidate("collector");
+    }
+
+    @Test
+    void importsAJsonArrayAcrossSeveralBatches() throws IOException {
+        String cards = IntStream.range(0, 2500)
+                .mapToObj(i -> "{\"id\": \"card-" + i + "\", \"name\": \"Card " + i + "\", \"set\": \"LEA\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        CardCatalogImporter.ImportResult result = importFrom(cards);
+
+        assertThat(result.imported()).isEqualTo(2500);
+        assertThat(catalogRepository.count()).isEqualTo(2500);
+    }
+
+    @Test
+    void importsTheMtgApiResponseFormat() throws IOException {
+        CardCatalogImporter.ImportResult result = importFrom("""
+                {"cards": [
+                  {"id": "lea-232", "name": "Black Lotus", "type": "Artifact", "rarity": "Rare", "set": "LEA",
+                   "setName": "Limited Edition Alpha", "colors": [], "imageUrl": "https://img/lea-232.jpg",
+                   "legalities": [{"format": "Vintage"}]},
+                  {"name": "No id, skipped"}
+                ]}
+                """);
+
+        assertThat(result).isEqualTo(new CardCatalogImporter.ImportResult(1, 1));
+        CardCatalogEntry lotus = catalogService.find("lea-232").orElseThrow();
+        assertThat(lotus.setName()).isEqualTo("Limited Edition Alpha");
+        assertThat(lotus.colors()).isEmpty();
+    }
+
+    @Test
+    void importsNdjsonAndOverwritesExistingCards() throws IOException {
+        importFrom("""
+                {"id": "m10-146", "name": "Lightning Bolt", "colors": ["R"], "rarity": "Common"}
+                {"id": "lea-233", "name": "Lotus Petal"}
+                """);
+        assertThat(catalogService.find("m10-146")).map(CardCatalogEntry::rarity).hasValue("Common");
+
+        // Re-imports evict what they change from the cache
+        importFrom("""
+                {"id": "m10-146", "name": "Lightning Bolt", "colors": ["R"], "rarity": "Uncommon"}
+                """);
+
+        assertThat(catalogRepository.count()).isEqualTo(2);
+        assertThat(catalogService.find("m10-146")).map(CardCatalogEntry::rarity).hasValue("Uncommon");
+    }
+
+    @Test
+    void rejectsMalformedFiles() {
+        assertThatThrownBy(() -> importFrom("\"not a catalog\""))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void enrichesCollectionCardsFromTheCatalog() throws IOException {
+        importFrom("""
+                [{"id": "lea-232", "name": "Black Lotus", "type": "Artifact", "set": "LEA", "imageUrl": "https://img/lea-232.jpg"}]
+                """);
+        cardService.addCardToCollection(saveCard("lea-232", "Black Lotus"));
+        cardService.addCardToCollection(saveCard("unknown-1", "Homebrew Card"));
+
+        List<CardResponseDto> collection = cardService.getCardsByUserId("collector");
+
+        assertThat(collection).extracting(CardResponseDto::getImageUrl)
+                .containsExactlyInAnyOrder("https://img/lea-232.jpg", null);
+    }
+
+    @Test
+    void searchesTheCatalog() throws IOException {
+        importFrom("""
+                {"id": "lea-232", "name": "Black Lotus"}
+                {"id": "lea-233", "name": "Lotus Petal"}
+                {"id": "m10-146", "name": "Lightning Bolt"}
+                """);
+
+        List<CatalogCardDto> items = searchService.searchCatalog("lotus", null, null).getItems();
+
+        assertThat(items).extracting(CatalogCardDto::getId).containsExactly("lea-233", "lea-232");
+    }
+
+    private CardCatalogImporter.ImportResult importFrom(String content) throws IOException {
+        return importer.importFrom(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static saveCardDto saveCard(String cardId, String name) {
+        return new saveCardDto(name, cardId, "collector", "collector");
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.MarketplaceFilterDto;
+import org.example.backend.dto.MarketplaceSort;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.User;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the card read paths against N+1 queries: the number of SQL statements
+ * must stay the same whether a user owns a handful of cards or many.
+ */
+@SpringBootTest
+class CardReadQueryCountTests {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void collectionReadIsASingleQueryRegardlessOfSize() {
+        seedSellers(1, 3);
+        long small = countStatements(() -> cardService.getCardsByUserId("seller-0"));
+
+        seedSellers(1, 40);
+        long large = countStatements(() -> cardService.getCardsByUserId("seller-0"));
+
+        assertThat(cardService.getCardsByUserId("seller-0")).hasSize(43);
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void marketplaceReadIsASingleQueryRegardlessOfSellerCount() {
+        seedSellers(2, 2);
+        long small = countStatements(() -> marketplaceService.getAllCardsForSale());
+
+        seedSellers(25, 2);
+        long large = countStatements(() -> marketplaceService.getAllCardsForSale());
+
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void marketplacePageDoesNotLoadSellersOneByOne() {
+        seedSellers(2, 2);
+        long small = countStatements(() -> firstPage(50));
+
+        seedSellers(30, 1);
+        long large = countStatements(() -> firstPage(50));
+
+        assertThat(firstPage(50).getItems()).allSatisfy(dto -> assertThat(dto.getUsername()).isNotNull());
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private CursorPageDto<CardResponseDto> firstPage(int limit) {
+        return marketplaceService.getCardsForSalePage(new MarketplaceFilterDto(), MarketplaceSort.NEWEST, null, limit);
+    }
+
+    private long countStatements(Supplier<?> action) {
+        action.get(); // Warm the catalog cache, whose misses cost one extra (batched) lookup
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Creates (or reuses) {@code sellers} users, each with {@code cardsEach} cards listed for sale. */
+    private void seedSellers(int sellers, int cardsEach) {
+        List<Card> cards = new ArrayList<>();
+        for (int s = 0; s < sellers; s++) {
+            String clerkId = "seller-" + s;
+            User user = userRepository.findByClerkUserId(clerkId)
+                    .orElseGet(() -> userRepository.save(User.builder().clerkUserId(clerkId).username("user" + clerkId).build()));
+            for (int c = 0; c < cardsEach; c++) {
+                cards.add(Card.builder()
+                        .name("Card " + c)
+                        .cardId("card-" + c)
+                        .user(user)
+                        .status(CardStatus.FOR_SALE)
+                        .price(BigDecimal.valueOf(c + 1))
+                        .build());
+            }
+        }
+        cardRepository.saveAll(cards);
+    }
+}
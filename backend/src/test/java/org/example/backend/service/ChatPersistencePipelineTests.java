@@ -0,0 +1,170 @@
+package org.example.backend.service;
+
+import org.example.backend.config.ChatPersistenceProperties;
+import org.example.backend.model.Message;
+import org.example.backend.repository.SequenceIdAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The pipeline against a writer that records the batches it is given, and can be held up to fill the queue.
+ */
+class ChatPersistencePipelineTests {
+
+    private final ChatMessageWriter writer = mock(ChatMessageWriter.class);
+    private final SequenceIdAllocator idAllocator = mock(SequenceIdAllocator.class);
+    private final AtomicLong lastId = new AtomicLong();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ChatPersistenceProperties properties = new ChatPersistenceProperties();
+    private ChatPersistencePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void writesMessagesInTheOrderTheyWereQueued() {
+        properties.setBatchSize(3);
+        start(false);
+
+        List<CompletableFuture<Void>> persisted = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> pipeline.enqueue(message(id)))
+                .toList();
+        CompletableFuture.allOf(persisted.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        assertThat(batches.stream().flatMap(List::stream))
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void writesConcurrentSendersInIdOrder() throws Exception {
+        properties.setBatchSize(7);
+        start(false);
+
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompletableFuture<Void>>> sent = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                long n = i;
+                sent.add(senders.submit(() -> pipeline.enqueue(message(n))));
+            }
+            for (Future<CompletableFuture<Void>> future : sent) {
+                future.get(5, TimeUnit.SECONDS).join();
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+
+        assertThat(batches.stream().flatMap(List::stream).toList()).hasSize(400).isSorted();
+    }
+
+    @Test
+    void tellsTheSenderWhenTheQueueStaysFull() throws InterruptedException {
+        properties.setQueueCapacity(2);
+        properties.setBatchSize(1);
+        properties.setEnqueueTimeout(Duration.ofMillis(50));
+        start(true);
+
+        List<CompletableFuture<Void>> persisted = new ArrayList<>();
+        persisted.add(pipeline.enqueue(message(1)));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        persisted.add(pipeline.enqueue(message(2)));
+        persisted.add(pipeline.enqueue(message(3)));
+
+        assertThatThrownBy(() -> pipeline.enqueue(message(4)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("full");
+
+        release.countDown();
+        CompletableFuture.allOf(persisted.toArray(CompletableFuture[]::new)).join();
+        assertThat(batches).containsExactly(List.of(1L), List.of(2L), List.of(3L));
+    }
+
+    @Test
+    void stopWritesEverythingAlreadyAccepted() throws InterruptedException {
+        properties.setBatchSize(1);
+        start(true);
+
+        List<CompletableFuture<Void>> persisted = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> pipeline.enqueue(message(id)))
+                .toList();
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        pipeline.stop();
+
+        assertThat(persisted).allSatisfy(future -> assertThat(future).isCompleted());
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThatThrownBy(() -> pipeline.enqueue(message(6))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsWhatCouldNotBeWrittenBeforeTheShutdownTimeout() throws InterruptedException {
+        properties.setBatchSize(1);
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        start(true);
+
+        CompletableFuture<Void> first = pipeline.enqueue(message(1));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> queued = List.of(pipeline.enqueue(message(2)), pipeline.enqueue(message(3)));
+        pipeline.stop();
+
+        // No future is left waiting: the queued ones failed, the one being written still completes
+        assertThat(queued).allSatisfy(future -> assertThat(future).isCompletedExceptionally());
+        release.countDown();
+        first.join();
+        assertThat(batches).containsExactly(List.of(1L));
+    }
+
+    private void start(boolean holdFirstBatch) {
+        doAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            if (holdFirstBatch && batches.isEmpty()) {
+                writing.countDown();
+                release.await();
+            }
+            batches.add(messages.stream().map(Message::getId).toList());
+            return null;
+        }).when(writer).write(any());
+        when(idAllocator.nextId()).thenAnswer(invocation -> lastId.incrementAndGet());
+        pipeline = new ChatPersistencePipeline(writer, idAllocator, properties);
+        pipeline.start();
+    }
+
+    /** The n-th message sent; the pipeline numbers messages from 1 in the order they are queued. */
+    private static Message message(long n) {
+        return Message.builder()
+                .senderClerkId("user_ann")
+                .recipientClerkId("user_bob")
+                .content("Message " + n)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
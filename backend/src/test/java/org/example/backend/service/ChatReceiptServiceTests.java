@@ -0,0 +1,148 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.ChatAckDto;
+import org.example.backend.dto.ChatReceiptDto;
+import org.example.backend.model.ChatMessage;
+import org.example.backend.model.Conversation;
+import org.example.backend.model.MessageStatus;
+import org.example.backend.repository.ConversationRepository;
+import org.example.backend.repository.MessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ChatReceiptServiceTests {
+
+    private static final String ANN = "user_ann";
+    private static final String BOB = "user_bob";
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @MockitoSpyBean
+    private ClusterMessageRouter messageRouter;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ChatReceiptService receiptService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAllInBatch();
+        conversationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void messagesStayPendingUntilAcknowledged() {
+        List<Long> toAnn = send(BOB, ANN, 3);
+        send(ANN, BOB, 1);
+
+        assertThat(chatService.getPendingMessages(ANN))
+                .extracting(ChatMessage::getId, ChatMessage::getStatus)
+                .containsExactly(
+                        tuple(toAnn.get(0), MessageStatus.SENT),
+                        tuple(toAnn.get(1), MessageStatus.SENT),
+                        tuple(toAnn.get(2), MessageStatus.SENT));
+
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(toAnn.get(0)), null));
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(toAnn.get(1), toAnn.get(0)), null));
+        receiptService.flush();
+
+        assertThat(chatService.getPendingMessages(ANN)).extracting(ChatMessage::getId).containsExactly(toAnn.get(2));
+        assertThat(chatService.getPendingMessages(BOB)).hasSize(1);
+        // Both acknowledgements in one frame, without the duplicate
+        verify(messageRouter).sendToUser(BOB, ChatReceiptService.RECEIPTS_DESTINATION,
+                new ChatReceiptDto(ANN, List.of(toAnn.get(0), toAnn.get(1)), null));
+    }
+
+    @Test
+    void readingAMessageReadsEveryEarlierOne() {
+        List<Long> toAnn = send(BOB, ANN, 3);
+
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(), toAnn.get(0)));
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(), toAnn.get(1)));
+        receiptService.flush();
+
+        assertThat(chatService.getConversationHistory(ANN, BOB, null, null, null))
+                .extracting(ChatMessage::getStatus)
+                .containsExactly(MessageStatus.READ, MessageStatus.READ, MessageStatus.SENT);
+        verify(messageRouter).sendToUser(BOB, ChatReceiptService.RECEIPTS_DESTINATION,
+                new ChatReceiptDto(ANN, List.of(), toAnn.get(1)));
+
+        // Nothing changes the second time, so the sender is not told again
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(toAnn.get(0)), toAnn.get(1)));
+        receiptService.flush();
+        verify(messageRouter, times(1)).sendToUser(eq(BOB), eq(ChatReceiptService.RECEIPTS_DESTINATION), any());
+    }
+
+    @Test
+    void readingMessagesTakesThemOffTheReadersUnreadCount() {
+        List<Long> toAnn = send(BOB, ANN, 3);
+        send(ANN, BOB, 1);
+
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(), toAnn.get(1)));
+        receiptService.flush();
+        // Already read, so it does not count twice
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(), toAnn.get(0)));
+        receiptService.flush();
+
+        // Ann sorts first, so she is user A of the pair
+        assertThat(conversationRepository.findAll())
+                .extracting(Conversation::getUnreadForA, Conversation::getUnreadForB)
+                .containsExactly(tuple(1, 1));
+
+        receiptService.acknowledge(ANN, new ChatAckDto(BOB, List.of(), toAnn.get(2)));
+        receiptService.flush();
+        assertThat(conversationRepository.findAll())
+                .extracting(Conversation::getUnreadForA, Conversation::getUnreadForB)
+                .containsExactly(tuple(0, 1));
+    }
+
+    @Test
+    void onlyTheRecipientCanAcknowledgeAMessage() {
+        List<Long> toAnn = send(BOB, ANN, 1);
+
+        // Claims to be a recipient of Bob's message to Ann
+        receiptService.acknowledge("user_eve", new ChatAckDto(BOB, toAnn, toAnn.get(0)));
+        receiptService.flush();
+
+        assertThat(chatService.getPendingMessages(ANN)).hasSize(1);
+        verify(messageRouter, never()).sendToUser(eq(BOB), eq(ChatReceiptService.RECEIPTS_DESTINATION), any());
+    }
+
+    private List<Long> send(String sender, String recipient, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> chatService.sendMessage(ChatMessage.builder()
+                        .senderClerkId(sender)
+                        .recipientClerkId(recipient)
+                        .senderUsername(sender)
+                        .recipientUsername(recipient)
+                        .content("Message " + i)
+                        .build()).join().getId())
+                .toList();
+    }
+}
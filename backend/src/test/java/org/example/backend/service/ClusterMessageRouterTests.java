@@ -0,0 +1,136 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.model.ChatMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Three instances sharing one {@link InMemoryClusterBus}, each with its own session registry and broker.
+ */
+class ClusterMessageRouterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryClusterBus bus = new InMemoryClusterBus();
+
+    private Node nodeA;
+    private Node nodeB;
+    private Node nodeC;
+
+    private final class Node {
+        final LocalSessionRegistry sessions;
+        final SimpMessageSendingOperations broker = mock(SimpMessageSendingOperations.class);
+        final ClusterMessageRouter router;
+
+        Node(String nodeId) {
+            this(nodeId, bus);
+        }
+
+        Node(String nodeId, SessionRouteDirectory directory) {
+            sessions = new LocalSessionRegistry(nodeId, directory);
+            router = new ClusterMessageRouter(sessions, directory, bus, broker, objectMapper);
+            router.afterPropertiesSet();
+        }
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+        nodeC = new Node("node-c");
+    }
+
+    @Test
+    void deliversOnlyOnTheNodeHoldingTheRecipientsSession() {
+        nodeB.sessions.sessionOpened("session-1", "user_bob");
+
+        nodeA.router.sendToUser("user_bob", "/private", ChatMessage.builder().id(7L).content("hi").build());
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(nodeB.broker).convertAndSendToUser(eq("user_bob"), eq("/private"), payload.capture());
+        assertThat(((JsonNode) payload.getValue()).get("content").asText()).isEqualTo("hi");
+        verify(nodeA.broker, never()).convertAndSendToUser(anyString(), anyString(), any());
+        verify(nodeC.broker, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void deliversLocallyWithoutForwarding() {
+        nodeA.sessions.sessionOpened("session-1", "user_bob");
+
+        nodeA.router.sendToUser("user_bob", "/private", "hi");
+
+        verify(nodeA.broker).convertAndSendToUser("user_bob", "/private", "hi");
+        verify(nodeB.broker, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void reachesEveryNodeWhereTheUserHasSessions() {
+        nodeA.sessions.sessionOpened("session-1", "user_bob");
+        nodeC.sessions.sessionOpened("session-2", "user_bob");
+
+        nodeB.router.sendToUser("user_bob", "/private", "hi");
+
+        verify(nodeA.broker).convertAndSendToUser(eq("user_bob"), eq("/private"), any());
+        verify(nodeC.broker).convertAndSendToUser(eq("user_bob"), eq("/private"), any());
+        verify(nodeB.broker, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void keepsTheRouteUntilTheLastSessionCloses() {
+        nodeB.sessions.sessionOpened("session-1", "user_bob");
+        nodeB.sessions.sessionOpened("session-2", "user_bob");
+
+        nodeB.sessions.sessionClosed("session-1");
+        assertThat(bus.nodesFor("user_bob")).containsExactly("node-b");
+
+        nodeB.sessions.sessionClosed("session-2");
+        assertThat(bus.nodesFor("user_bob")).isEmpty();
+        assertThat(nodeB.sessions.hasLocalSession("user_bob")).isFalse();
+    }
+
+    @Test
+    void tellsTheOtherNodesToDropTheirCachedRoutesWhenRoutesChange() {
+        SessionRouteDirectory cachingDirectory = spy(bus);
+        new Node("node-d", cachingDirectory);
+
+        nodeB.sessions.sessionOpened("session-1", "user_bob");
+        verify(cachingDirectory).invalidate(List.of("user_bob"));
+
+        nodeB.sessions.sessionClosed("session-1");
+        verify(cachingDirectory, times(2)).invalidate(List.of("user_bob"));
+    }
+
+    @Test
+    void broadcastsTopicsToAllNodes() {
+        nodeA.router.broadcast("/topic/marketplace", "changed");
+
+        verify(nodeA.broker).convertAndSend("/topic/marketplace", "changed");
+        verify(nodeB.broker).convertAndSend(eq("/topic/marketplace"), any(Object.class));
+        verify(nodeC.broker).convertAndSend(eq("/topic/marketplace"), any(Object.class));
+    }
+
+    @Test
+    void stoppedNodeNoLongerReceivesMessages() {
+        nodeB.sessions.sessionOpened("session-1", "user_bob");
+        nodeB.router.destroy();
+
+        nodeA.router.sendToUser("user_bob", "/private", "hi");
+
+        verify(nodeB.broker, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.CardPriceDto;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CollectionFileFormat;
+import org.example.backend.dto.CollectionStatsDto;
+import org.example.backend.dto.saveCardDto;
+import org.example.backend.exception.CardStateConflictException;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.User;
+import org.example.backend.support.CardDataTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class CollectionStatsTests extends CardDataTest {
+
+    private static final String COLLECTOR = "stats-collector";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CollectionStatsService statsService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @Autowired
+    private CollectionTransferService transferService;
+
+    @Test
+    void keepsTheTotalsInStepWithEveryKindOfChange() throws IOException {
+        Long first = add("lea-232").getId();
+        Long second = add("lea-233").getId();
+        Long third = add("m10-146").getId();
+        assertStats(3, 0, 0, "0", "0");
+
+        marketplaceService.listCardForSale(first, new BigDecimal("100.00"), COLLECTOR);
+        marketplaceService.listCardsForSale(List.of(
+                new CardPriceDto(second, new BigDecimal("20.00")),
+                new CardPriceDto(third, new BigDecimal("5.50"))), COLLECTOR);
+        assertStats(0, 3, 0, "125.50", "0");
+
+        marketplaceService.listCardForSale(first, new BigDecimal("90.00"), COLLECTOR); // Reprice
+        marketplaceService.repriceCards(List.of(second, third), new BigDecimal("-10"), COLLECTOR);
+        assertStats(0, 3, 0, "112.95", "0");
+
+        marketplaceService.markCardAsSold(first, COLLECTOR);
+        marketplaceService.unlistCard(second, COLLECTOR);
+        assertStats(1, 1, 1, "4.95", "90.00");
+
+        marketplaceService.unlistCards(List.of(third), COLLECTOR);
+        transferService.importCollection(COLLECTOR, COLLECTOR, CollectionFileFormat.JSON, new ByteArrayInputStream("""
+                {"cardId": "lea-161", "name": "Time Walk", "status": "FOR_SALE", "price": 4000}
+                {"cardId": "lea-162", "name": "Timetwister", "status": "SOLD", "price": 3000}
+                {"cardId": "lea-163", "name": "Ancestral Recall"}
+                """.getBytes(StandardCharsets.UTF_8)));
+        assertStats(3, 1, 2, "4000.00", "3090.00");
+    }
+
+    @Test
+    void staysExactWhileChangesToTheSameCardsRace() throws Exception {
+        List<Long> ids = List.of(add("lea-232").getId(), add("lea-233").getId(), add("lea-234").getId());
+        marketplaceService.listCardsForSale(ids.stream()
+                .map(id -> new CardPriceDto(id, new BigDecimal("10.00")))
+                .toList(), COLLECTOR);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int task = i;
+                futures.add(executor.submit(() -> {
+                    Long id = ids.get(task % ids.size());
+                    try {
+                        switch (task % 4) {
+                            case 0 -> marketplaceService.listCardForSale(id, BigDecimal.valueOf(task + 1), COLLECTOR);
+                            case 1 -> marketplaceService.repriceCards(ids, new BigDecimal("5"), COLLECTOR);
+                            case 2 -> marketplaceService.unlistCards(List.of(id), COLLECTOR);
+                            default -> marketplaceService.listCardsForSale(
+                                    List.of(new CardPriceDto(id, new BigDecimal("3.33"))), COLLECTOR);
+                        }
+                    } catch (CardStateConflictException e) {
+                        // Lost the race; must not have counted anything
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CollectionStatsDto stats = statsService.getStats(COLLECTOR);
+        assertStats(stats.getInCollectionCount(), stats.getForSaleCount(), stats.getSoldCount(),
+                stats.getListedValue().toPlainString(), stats.getSoldValue().toPlainString());
+        assertThat(stats.getInCollectionCount()).isEqualTo(count(CardStatus.IN_COLLECTION));
+        assertThat(stats.getForSaleCount()).isEqualTo(count(CardStatus.FOR_SALE));
+    }
+
+    @Test
+    void startsFromTheExistingCardsOfUsersWithoutTotals() {
+        User collector = user(COLLECTOR);
+        cardRepository.saveAll(List.of(
+                card(collector, "Card", CardStatus.IN_COLLECTION, null),
+                card(collector, "Card", CardStatus.FOR_SALE, new BigDecimal("12.00")),
+                card(collector, "Card", CardStatus.SOLD, new BigDecimal("7.00"))));
+
+        assertThat(statsRepository.findById(COLLECTOR)).isEmpty();
+        assertStats(1, 1, 1, "12.00", "7.00");
+
+        add("lea-232");
+        assertThat(statsRepository.findById(COLLECTOR)).isPresent();
+        assertStats(2, 1, 1, "12.00", "7.00");
+    }
+
+    @Test
+    void servesTheStatisticsWithTheCollectionETag() throws Exception {
+        add("lea-232");
+
+        String etag = mockMvc.perform(get("/api/v1/collection/stats").param("userId", COLLECTOR).with(jwt()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.inCollectionCount").value(1))
+                .andExpect(jsonPath("$.data.totalCount").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/collection/stats").param("userId", COLLECTOR).with(jwt())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private CardResponseDto add(String cardId) {
+        saveCardDto dto = new saveCardDto();
+        dto.setCardId(cardId);
+        dto.setCardName(cardId);
+        dto.setUserId(COLLECTOR);
+        dto.setUsername(COLLECTOR);
+        return cardService.addCardToCollection(dto);
+    }
+
+    /** Checks the maintained totals, and that they match the cards themselves. */
+    private void assertStats(long inCollection, long forSale, long sold, String listedValue, String soldValue) {
+        CollectionStatsDto stats = statsService.getStats(COLLECTOR);
+        assertThat(stats.getInCollectionCount()).isEqualTo(inCollection);
+        assertThat(stats.getForSaleCount()).isEqualTo(forSale);
+        assertThat(stats.getSoldCount()).isEqualTo(sold);
+        assertThat(stats.getTotalCount()).isEqualTo(inCollection + forSale + sold);
+        assertThat(stats.getListedValue()).isEqualByComparingTo(listedValue);
+        assertThat(stats.getSoldValue()).isEqualByComparingTo(soldValue);
+
+        List<Card> cards = cardRepository.findAll();
+        assertThat(cards).hasSize((int) stats.getTotalCount());
+        assertThat(sumOf(cards, CardStatus.FOR_SALE)).isEqualByComparingTo(stats.getListedValue());
+        assertThat(sumOf(cards, CardStatus.SOLD)).isEqualByComparingTo(stats.getSoldValue());
+    }
+
+    private long count(CardStatus status) {
+        return cardRepository.findAll().stream().filter(card -> card.getStatus() == status).count();
+    }
+
+    private static BigDecimal sumOf(List<Card> cards, CardStatus status) {
+        return cards.stream()
+                .filter(card -> card.getStatus() == status)
+                .map(Card::getPrice)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CollectionFileFormat;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class CollectionTransferServiceTests {
+
+    private static final String USER = "importer";
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private CollectionTransferService transferService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private Cache<String, UserIdentity> identityCache;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        cardRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        identityCache.invalidate(USER);
+    }
+
+    @Test
+    void importsACsvFileLargerThanOneBatch() throws IOException {
+        int rows = CollectionTransferService.BATCH_SIZE * 2 + 17;
+        String csv = IntStream.range(0, rows)
+                .mapToObj(i -> "card-" + i + ",Card " + i + ",,")
+                .collect(Collectors.joining("\n", "cardId,name,status,price\n", "\n"));
+
+        CollectionTransferService.ImportResult result = importFrom(CollectionFileFormat.CSV, csv);
+
+        assertThat(result).isEqualTo(new CollectionTransferService.ImportResult(rows, 0));
+        List<CardResponseDto> collection = cardService.getCardsByUserId(USER);
+        assertThat(collection).hasSize(rows)
+                .allSatisfy(card -> assertThat(card.getStatus()).isEqualTo(CardStatus.IN_COLLECTION))
+                .extracting(CardResponseDto::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void importsNdjsonAndSkipsRowsThatCannotBeImported() throws IOException {
+        CollectionTransferService.ImportResult result = importFrom(CollectionFileFormat.JSON, """
+                {"cardId": "lea-232", "cardName": "Black Lotus", "status": "FOR_SALE", "price": 25000}
+                {"cardId": "lea-233", "name": "Lotus Petal", "price": 3}
+                {"cardId": "m10-146", "name": "Lightning Bolt", "status": "FOR_SALE"}
+                {"name": "No card id"}
+                """);
+
+        assertThat(result).isEqualTo(new CollectionTransferService.ImportResult(2, 2));
+        assertThat(cardService.getCardsByUserId(USER))
+                .extracting(CardResponseDto::getCardId, CardResponseDto::getStatus, CardResponseDto::getPrice)
+                .containsExactlyInAnyOrder(
+                        tuple("lea-232", CardStatus.FOR_SALE, new BigDecimal("25000.00")),
+                        tuple("lea-233", CardStatus.IN_COLLECTION, null));
+    }
+
+    @Test
+    void rejectsAnInvalidFileWithoutImportingAnything() {
+        assertThatThrownBy(() -> importFrom(CollectionFileFormat.JSON, """
+                [{"cardId": "lea-232", "name": "Black Lotus"},
+                 {"cardId": "lea-233", "name": "Lotus Petal", "status": "LOST"}]
+                """))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid collection file");
+
+        assertThat(cardRepository.count()).isZero();
+    }
+
+    @Test
+    void exportedCsvImportsBackUnchanged() throws IOException {
+        importFrom(CollectionFileFormat.JSON, """
+                [{"cardId": "lea-232", "name": "Black Lotus, Alpha", "status": "FOR_SALE", "price": 25000},
+                 {"cardId": "lea-233", "name": "Lotus Petal"}]
+                """);
+
+        String csv = export(CollectionFileFormat.CSV);
+        assertThat(csv).startsWith("cardId,name,status,price\n");
+
+        cardRepository.deleteAllInBatch();
+        importFrom(CollectionFileFormat.CSV, csv);
+        assertThat(export(CollectionFileFormat.CSV)).isEqualTo(csv);
+        assertThat(export(CollectionFileFormat.JSON)).startsWith("[{\"cardId\":\"lea-232\"");
+    }
+
+    private CollectionTransferService.ImportResult importFrom(CollectionFileFormat format, String content) throws IOException {
+        return transferService.importCollection(USER, USER, format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String export(CollectionFileFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferService.exportCollection(USER, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.backend.service;
+
+import org.example.backend.model.Conversation;
+import org.example.backend.model.Message;
+import org.example.backend.repository.ConversationRepository;
+import org.example.backend.repository.MessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The conversation summary rows that {@link ChatMessageWriter} maintains alongside the messages.
+ */
+@SpringBootTest
+class ConversationSummaryTests {
+
+    // Ann sorts first, so she is user A of the pair
+    private static final String ANN = "user_ann";
+    private static final String BOB = "user_bob";
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private ChatMessageWriter writer;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAllInBatch();
+        conversationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void keepsTheNewestMessageWhenBatchesCommitOutOfOrder() {
+        writer.write(List.of(message(3, BOB, ANN, "third"), message(4, ANN, BOB, "fourth")));
+        writer.write(List.of(message(1, BOB, ANN, "first"), message(2, BOB, ANN, "second")));
+
+        Conversation conversation = conversation();
+        assertThat(conversation.getLastMessageId()).isEqualTo(4L);
+        assertThat(conversation.getLastMessagePreview()).isEqualTo("fourth");
+        assertThat(conversation.getLastMessageAt()).isEqualTo(Instant.ofEpochSecond(4));
+        // Every message still counts as unread for its recipient
+        assertThat(conversation.getUnreadForA()).isEqualTo(3);
+        assertThat(conversation.getUnreadForB()).isEqualTo(1);
+    }
+
+    @Test
+    void movesToTheNewestMessageOfEachBatch() {
+        writer.write(List.of(message(1, BOB, ANN, "first")));
+        writer.write(List.of(message(2, ANN, BOB, "second"), message(3, BOB, ANN, "third")));
+
+        Conversation conversation = conversation();
+        assertThat(conversation.getLastMessageId()).isEqualTo(3L);
+        assertThat(conversation.getLastMessagePreview()).isEqualTo("third");
+        assertThat(conversation.getUnreadForA()).isEqualTo(2);
+        assertThat(conversation.getUnreadForB()).isEqualTo(1);
+    }
+
+    @Test
+    void markingAConversationReadOnlyClearsTheReadersCounter() {
+        writer.write(List.of(message(1, BOB, ANN, "first"), message(2, ANN, BOB, "second")));
+
+        chatService.markConversationRead(ANN, BOB);
+
+        Conversation conversation = conversation();
+        assertThat(conversation.getUnreadForA()).isZero();
+        assertThat(conversation.getUnreadForB()).isEqualTo(1);
+    }
+
+    private Conversation conversation() {
+        assertThat(conversationRepository.count()).isEqualTo(1);
+        return conversationRepository.findAll().get(0);
+    }
+
+    private static Message message(long id, String sender, String recipient, String content) {
+        return Message.builder()
+                .id(id)
+                .senderClerkId(sender)
+                .recipientClerkId(recipient)
+                .senderUsername(sender)
+                .recipientUsername(recipient)
+                .content(content)
+                .timestamp(Instant.ofEpochSecond(id))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * The registry with a route writer that only runs when the test says so.
+ */
+class LocalSessionRegistryTests {
+
+    private final SessionRouteDirectory directory = mock(SessionRouteDirectory.class);
+    private final Queue<Runnable> routeWriter = new ArrayDeque<>();
+    private final LocalSessionRegistry sessions = new LocalSessionRegistry("node-a", directory, routeWriter::add);
+
+    @Test
+    void writesTheRouteChangesMadeMeanwhileAsOneBatch() {
+        sessions.sessionOpened("session-1", "user_ann");
+        sessions.sessionOpened("session-2", "user_bob");
+        sessions.sessionOpened("session-3", "user_cat");
+        sessions.sessionClosed("session-3");
+
+        // Tracked locally at once, written to the directory only by the route writer
+        assertThat(sessions.hasLocalSession("user_ann")).isTrue();
+        verifyNoInteractions(directory);
+        assertThat(routeWriter).hasSize(1);
+
+        routeWriter.poll().run();
+        verify(directory).updateRoutes(eq("node-a"), inAnyOrder("user_ann", "user_bob"), eq(List.of("user_cat")));
+    }
+
+    @Test
+    void writesTheStateAtTheTimeOfTheWrite() {
+        sessions.sessionOpened("session-1", "user_ann");
+        sessions.sessionClosed("session-1");
+        sessions.sessionOpened("session-2", "user_ann");
+
+        routeWriter.poll().run();
+
+        // The reconnect wins, however the changes were ordered
+        verify(directory).updateRoutes("node-a", List.of("user_ann"), List.of());
+    }
+
+    @Test
+    void retriesAFailedWriteWithTheNextChange() {
+        doThrow(new IllegalStateException("database down"))
+                .when(directory).updateRoutes(anyString(), anyCollection(), anyCollection());
+        sessions.sessionOpened("session-1", "user_ann");
+        routeWriter.poll().run();
+
+        reset(directory);
+        sessions.sessionOpened("session-2", "user_bob");
+        routeWriter.poll().run();
+
+        verify(directory).updateRoutes(eq("node-a"), inAnyOrder("user_ann", "user_bob"), eq(List.of()));
+        verify(directory, never()).userConnected(any(), any());
+    }
+
+    private static Collection<String> inAnyOrder(String... userIds) {
+        return argThat(written -> Set.copyOf(written).equals(Set.of(userIds)) && written.size() == userIds.length);
+    }
+}
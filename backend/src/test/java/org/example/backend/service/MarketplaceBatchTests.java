@@ -0,0 +1,198 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.dto.CardPriceDto;
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.MarketplaceEventDto;
+import org.example.backend.exception.CardAccessDeniedException;
+import org.example.backend.exception.CardStateConflictException;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.model.User;
+import org.example.backend.repository.CardBulkRepository;
+import org.example.backend.support.CardDataTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class MarketplaceBatchTests extends CardDataTest {
+
+    private static final String SELLER = "binder-seller";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @Autowired
+    private MarketplaceEventService eventService;
+
+    @Autowired
+    private CardBulkRepository cardBulkRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = user(SELLER);
+    }
+
+    @Test
+    void listingABinderCostsTheSameNumberOfStatementsWhateverItsSize() {
+        List<Card> warmUp = cards(seller, 1, CardStatus.IN_COLLECTION);
+        List<Card> small = cards(seller, 5, CardStatus.IN_COLLECTION);
+        List<Card> large = cards(seller, 45, CardStatus.IN_COLLECTION);
+        listAll(warmUp); // Creates the counter rows
+
+        assertThat(countStatements(() -> listAll(large))).isEqualTo(countStatements(() -> listAll(small)));
+        assertThat(cardRepository.findAll()).hasSize(51)
+                .allSatisfy(card -> assertThat(card.getStatus()).isEqualTo(CardStatus.FOR_SALE));
+    }
+
+    @Test
+    void listingRepricesCardsAlreadyListed() {
+        List<Card> cards = cards(seller, 1, CardStatus.IN_COLLECTION);
+        cards.addAll(cards(seller, 1, CardStatus.FOR_SALE));
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        marketplaceService.listCardsForSale(List.of(
+                new CardPriceDto(cards.get(0).getId(), new BigDecimal("4.50")),
+                new CardPriceDto(cards.get(1).getId(), new BigDecimal("7.25"))), SELLER);
+
+        assertThat(eventService.eventsAfter(start).getEvents())
+                .extracting(MarketplaceEventDto::getType, event -> event.getCard().getId(), event -> event.getCard().getPrice())
+                .containsExactly(
+                        tuple(MarketplaceEventType.LISTED, cards.get(0).getId(), new BigDecimal("4.50")),
+                        tuple(MarketplaceEventType.PRICE_CHANGED, cards.get(1).getId(), new BigDecimal("7.25")));
+    }
+
+    @Test
+    void repricesByPercentageRoundedToTheCent() {
+        Card expensive = saveCard(seller, "Card", CardStatus.FOR_SALE, new BigDecimal("19.99"));
+        Card cheap = saveCard(seller, "Card", CardStatus.FOR_SALE, new BigDecimal("0.01"));
+
+        List<CardResponseDto> repriced = marketplaceService.repriceCards(
+                List.of(expensive.getId(), cheap.getId()), new BigDecimal("-15"), SELLER);
+
+        assertThat(repriced).extracting(CardResponseDto::getId, CardResponseDto::getPrice).containsExactly(
+                tuple(expensive.getId(), new BigDecimal("16.99")),
+                tuple(cheap.getId(), new BigDecimal("0.01")));
+        assertThat(cardRepository.findById(expensive.getId()).orElseThrow().getPrice()).isEqualByComparingTo("16.99");
+    }
+
+    @Test
+    void unlistLeavesCardsThatAreNotListedAlone() {
+        Card listed = saveCard(seller, "Card", CardStatus.FOR_SALE, BigDecimal.TEN);
+        Card kept = saveCard(seller, "Card", CardStatus.IN_COLLECTION, null);
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        List<CardResponseDto> result = marketplaceService.unlistCards(List.of(listed.getId(), kept.getId()), SELLER);
+
+        assertThat(result).extracting(CardResponseDto::getStatus).containsOnly(CardStatus.IN_COLLECTION);
+        assertThat(eventService.eventsAfter(start).getEvents())
+                .extracting(MarketplaceEventDto::getType, event -> event.getCard().getId())
+                .containsExactly(tuple(MarketplaceEventType.UNLISTED, listed.getId()));
+    }
+
+    @Test
+    void bulkUpdatesOnlyChangeCardsStillAtThePriceTheyWereReadWith() {
+        Card card = saveCard(seller, "Card", CardStatus.FOR_SALE, BigDecimal.TEN);
+        CardResponseDto read = cardRepository.findCardResponseById(card.getId()).orElseThrow();
+        card.setPrice(new BigDecimal("12.00")); // Repriced after the read
+        cardRepository.save(card);
+
+        assertThat(cardBulkRepository.repriceAll(List.of(read), List.of(BigDecimal.ONE))).containsExactly(false);
+        assertThat(cardBulkRepository.unlistAll(List.of(read))).containsExactly(false);
+        assertThat(cardBulkRepository.listAll(List.of(read), List.of(BigDecimal.ONE))).containsExactly(false);
+        assertThat(cardRepository.findById(card.getId()).orElseThrow())
+                .extracting(Card::getStatus, Card::getPrice)
+                .containsExactly(CardStatus.FOR_SALE, new BigDecimal("12.00"));
+    }
+
+    @Test
+    void batchesAreAllOrNothing() {
+        User other = user("someone-else");
+        Card own = saveCard(seller, "Card", CardStatus.FOR_SALE, BigDecimal.TEN);
+        Card foreign = saveCard(other, "Card", CardStatus.FOR_SALE, BigDecimal.TEN);
+        Card sold = saveCard(seller, "Card", CardStatus.SOLD, BigDecimal.TEN);
+
+        assertThatThrownBy(() -> marketplaceService.unlistCards(List.of(own.getId(), foreign.getId()), SELLER))
+                .isInstanceOf(CardAccessDeniedException.class);
+        assertThatThrownBy(() -> marketplaceService.repriceCards(List.of(own.getId(), sold.getId()), BigDecimal.TEN, SELLER))
+                .isInstanceOf(CardStateConflictException.class);
+
+        assertThat(cardRepository.findById(own.getId()).orElseThrow())
+                .extracting(Card::getStatus, card -> card.getPrice().intValue())
+                .containsExactly(CardStatus.FOR_SALE, 10);
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    void errorsAreReportedWithTheirStatusCode() throws Exception {
+        User other = user("someone-else");
+        Card foreign = saveCard(other, "Card", CardStatus.IN_COLLECTION, null);
+
+        mockMvc.perform(put("/api/v1/marketplace/batch/list").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": \"" + SELLER + "\", \"cards\": [{\"cardDbId\": " + foreign.getId() + ", \"price\": 5}]}"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(put("/api/v1/marketplace/batch/reprice").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": \"" + SELLER + "\", \"cardDbIds\": [" + foreign.getId() + "], \"percentChange\": -100}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/marketplace/batch/unlist").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": \"" + SELLER + "\", \"cardDbIds\": [-1]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<CardResponseDto> listAll(List<Card> cards) {
+        List<CardPriceDto> listings = cards.stream()
+                .map(card -> new CardPriceDto(card.getId(), new BigDecimal("2.50")))
+                .toList();
+        return marketplaceService.listCardsForSale(listings, SELLER);
+    }
+
+    private long countStatements(Supplier<?> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Card> cards(User owner, int count, CardStatus status) {
+        // Fresh card ids, so that catalog cache hits left by other tests do not skew the statement counts
+        String prefix = UUID.randomUUID() + "-";
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(card(owner, "Card " + prefix + i, status));
+        }
+        return new ArrayList<>(cardRepository.saveAll(cards));
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.dto.MarketplaceEventDto;
+import org.example.backend.exception.CardStateConflictException;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.model.User;
+import org.example.backend.support.CardDataTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many requests racing to change the same card: the compare-and-set transitions must let exactly
+ * one of them through, and the losers must give up after their failed UPDATE without writing anything.
+ */
+class MarketplaceConcurrencyTests extends CardDataTest {
+
+    private static final String SELLER = "racer";
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @Autowired
+    private MarketplaceEventService eventService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = user(SELLER);
+    }
+
+    @Test
+    void concurrentSalesOfOneCardHaveExactlyOneWinner() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int round = 0; round < ROUNDS; round++) {
+            Card card = listedCard(round);
+            long start = eventService.eventsAfter(null).getLatestSequence();
+            statistics.clear();
+
+            List<Boolean> outcomes = race(() -> {
+                try {
+                    marketplaceService.markCardAsSold(card.getId(), SELLER);
+                    return true;
+                } catch (CardStateConflictException e) {
+                    return false;
+                }
+            });
+            long statements = statistics.getPrepareStatementCount();
+
+            assertThat(outcomes).containsOnlyOnce(true);
+            assertThat(cardRepository.findById(card.getId()).orElseThrow().getStatus()).isEqualTo(CardStatus.SOLD);
+            assertThat(eventService.eventsAfter(start).getEvents())
+                    .extracting(MarketplaceEventDto::getType)
+                    .containsExactly(MarketplaceEventType.SOLD);
+            if (round > 0) { // The first round also creates the counter and statistics rows
+                // The winner's reads and writes, plus at most a SELECT and a failed UPDATE per loser
+                assertThat(statements).isLessThanOrEqualTo(WINNER_STATEMENTS + 2L * (THREADS - 1));
+            }
+        }
+    }
+
+    @Test
+    void racingRepricesAndUnlistLeaveAConsistentCard() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Card card = listedCard(round);
+            long start = eventService.eventsAfter(null).getLatestSequence();
+            List<Integer> tasks = new ArrayList<>();
+
+            List<Boolean> outcomes = race(() -> {
+                int task;
+                synchronized (tasks) {
+                    task = tasks.size();
+                    tasks.add(task);
+                }
+                try {
+                    if (task == 0) {
+                        marketplaceService.unlistCard(card.getId(), SELLER);
+                    } else {
+                        marketplaceService.listCardForSale(card.getId(), BigDecimal.valueOf(task), SELLER);
+                    }
+                    return true;
+                } catch (CardStateConflictException e) {
+                    return false;
+                }
+            });
+
+            // Replaying the events must reproduce the final state of the card
+            Card stored = cardRepository.findById(card.getId()).orElseThrow();
+            List<MarketplaceEventDto> events = eventService.eventsAfter(start).getEvents();
+            assertThat(events).hasSize((int) outcomes.stream().filter(won -> won).count());
+            MarketplaceEventDto last = events.get(events.size() - 1);
+            assertThat(last.getCard().getStatus()).isEqualTo(stored.getStatus());
+            if (stored.getStatus() == CardStatus.FOR_SALE) {
+                assertThat(last.getCard().getPrice()).isEqualByComparingTo(stored.getPrice());
+            } else {
+                assertThat(stored.getPrice()).isNull();
+            }
+        }
+    }
+
+    @Test
+    void aSaleRacingARepriceNeverGoesThroughAtTheOldPrice() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Card card = listedCard(round);
+            long start = eventService.eventsAfter(null).getLatestSequence();
+            List<Integer> tasks = new ArrayList<>();
+
+            race(() -> {
+                int task;
+                synchronized (tasks) {
+                    task = tasks.size();
+                    tasks.add(task);
+                }
+                try {
+                    if (task % 2 == 0) {
+                        marketplaceService.markCardAsSold(card.getId(), SELLER);
+                    } else {
+                        marketplaceService.listCardForSale(card.getId(), BigDecimal.valueOf(task), SELLER);
+                    }
+                    return true;
+                } catch (CardStateConflictException e) {
+                    return false;
+                }
+            });
+
+            // The card is sold, if at all, at the price of the last change before the sale
+            Card stored = cardRepository.findById(card.getId()).orElseThrow();
+            List<MarketplaceEventDto> events = eventService.eventsAfter(start).getEvents();
+            BigDecimal price = card.getPrice();
+            for (MarketplaceEventDto event : events) {
+                if (event.getType() == MarketplaceEventType.SOLD) {
+                    assertThat(event.getCard().getPrice()).isEqualByComparingTo(price);
+                }
+                price = event.getCard().getPrice();
+            }
+            assertThat(stored.getPrice()).isEqualByComparingTo(price);
+        }
+    }
+
+    // Card SELECT, card UPDATE, two counter UPDATEs, collection stats UPDATE, catalog lookup.
+    // The event's sequence number and INSERT go through JDBC, which these statistics do not count.
+    private static final long WINNER_STATEMENTS = 6;
+
+    private Card listedCard(int round) {
+        return saveCard(seller, "Black Lotus " + round, CardStatus.FOR_SALE, new BigDecimal("25000"));
+    }
+
+    /** Runs {@code task} on {@value #THREADS} threads released at the same moment. */
+    private List<Boolean> race(Callable<Boolean> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return task.call();
+                }));
+            }
+            ready.await();
+            go.countDown();
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.backend.service;
+
+import org.example.backend.config.MarketplaceProperties;
+import org.example.backend.dto.CollectionFileFormat;
+import org.example.backend.dto.MarketplaceEventDto;
+import org.example.backend.dto.MarketplaceEventsDto;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.MarketplaceEventType;
+import org.example.backend.support.CardDataTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MarketplaceEventServiceTests extends CardDataTest {
+
+    private static final String SELLER = "feed-seller";
+
+    @MockitoSpyBean
+    private ClusterMessageRouter messageRouter;
+
+    @Autowired
+    private MarketplaceEventService eventService;
+
+    @Autowired
+    private MarketplaceService marketplaceService;
+
+    @Autowired
+    private CollectionTransferService transferService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MarketplaceProperties properties;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = saveCard(user(SELLER), "Black Lotus", CardStatus.IN_COLLECTION);
+    }
+
+    @Test
+    void marketplaceChangesArePushedAndCanBeReplayed() {
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("100"), SELLER);
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("90"), SELLER);
+        marketplaceService.markCardAsSold(card.getId(), SELLER);
+
+        MarketplaceEventsDto replay = eventService.eventsAfter(start);
+        assertThat(replay.isResyncRequired()).isFalse();
+        assertThat(replay.getEvents())
+                .extracting(MarketplaceEventDto::getType, event -> event.getCard().getId(),
+                        event -> event.getCard().getPrice(), event -> event.getCard().getStatus())
+                .containsExactly(
+                        tuple(MarketplaceEventType.LISTED, card.getId(), new BigDecimal("100.00"), CardStatus.FOR_SALE),
+                        tuple(MarketplaceEventType.PRICE_CHANGED, card.getId(), new BigDecimal("90.00"), CardStatus.FOR_SALE),
+                        tuple(MarketplaceEventType.SOLD, card.getId(), new BigDecimal("90.00"), CardStatus.SOLD));
+        assertThat(replay.getEvents()).extracting(MarketplaceEventDto::getSequence)
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .allSatisfy(sequence -> assertThat(sequence).isGreaterThan(start));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MarketplaceEventDto>> pushed = ArgumentCaptor.forClass(List.class);
+        verify(messageRouter, times(3)).broadcast(eq(MarketplaceEventService.TOPIC), pushed.capture());
+        // Pushed before the price is read back with the column's scale
+        assertThat(pushed.getAllValues().stream().flatMap(List::stream).toList())
+                .usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(replay.getEvents());
+    }
+
+    @Test
+    void nothingIsRecordedOrPushedWhenTheTransactionRollsBack() {
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            marketplaceService.listCardForSale(card.getId(), new BigDecimal("100"), SELLER);
+            status.setRollbackOnly();
+        });
+
+        verify(messageRouter, never()).broadcast(anyString(), any());
+        assertThat(eventService.eventsAfter(start).getEvents()).isEmpty();
+        assertThat(eventService.eventsAfter(null).getLatestSequence()).isEqualTo(start);
+    }
+
+    @Test
+    void clientsAreNotMovedPastChangesNewerThanTheSettleTime() {
+        long start = eventService.eventsAfter(null).getLatestSequence();
+        properties.setEventSettleTime(Duration.ofMinutes(1));
+        try {
+            marketplaceService.listCardForSale(card.getId(), new BigDecimal("100"), SELLER);
+
+            // A change numbered before this one might still commit: the client sees this one again next time
+            assertThat(eventService.eventsAfter(null).getLatestSequence()).isEqualTo(start);
+            MarketplaceEventsDto replay = eventService.eventsAfter(start);
+            assertThat(replay.getEvents()).extracting(MarketplaceEventDto::getType)
+                    .containsExactly(MarketplaceEventType.LISTED);
+            assertThat(replay.getLatestSequence()).isEqualTo(start);
+        } finally {
+            properties.setEventSettleTime(Duration.ZERO);
+        }
+        assertThat(eventService.eventsAfter(start).getLatestSequence()).isGreaterThan(start);
+    }
+
+    @Test
+    void clientsTooFarBehindAreToldToResync() {
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("100"), SELLER);
+        long listed = eventService.eventsAfter(null).getLatestSequence();
+        Duration retention = properties.getEventRetention();
+        properties.setEventRetention(Duration.ZERO);
+        try {
+            eventService.deleteExpiredEvents();
+        } finally {
+            properties.setEventRetention(retention);
+        }
+        marketplaceService.listCardForSale(card.getId(), new BigDecimal("90"), SELLER);
+        long repriced = eventService.eventsAfter(null).getLatestSequence();
+
+        assertThat(eventService.eventsAfter(listed - 1).isResyncRequired()).isTrue();
+        assertThat(eventService.eventsAfter(repriced + 1).isResyncRequired()).isTrue();
+        MarketplaceEventsDto replay = eventService.eventsAfter(listed);
+        assertThat(replay.isResyncRequired()).isFalse();
+        assertThat(replay.getEvents()).extracting(MarketplaceEventDto::getType)
+                .containsExactly(MarketplaceEventType.PRICE_CHANGED);
+    }
+
+    @Test
+    void importedListingsArePublished() throws IOException {
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        transferService.importCollection(SELLER, SELLER, CollectionFileFormat.JSON, new ByteArrayInputStream("""
+                {"cardId": "lea-233", "name": "Lotus Petal", "status": "FOR_SALE", "price": 3}
+                {"cardId": "m10-146", "name": "Lightning Bolt"}
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        List<MarketplaceEventDto> events = eventService.eventsAfter(start).getEvents();
+        assertThat(events)
+                .extracting(MarketplaceEventDto::getType, event -> event.getCard().getName(), event -> event.getCard().getUsername())
+                .containsExactly(tuple(MarketplaceEventType.LISTED, "Lotus Petal", SELLER));
+        verify(messageRouter).broadcast(MarketplaceEventService.TOPIC, events);
+    }
+
+    @Test
+    void importedListingsAreNumberedWhenTheImportCommits() {
+        long start = eventService.eventsAfter(null).getLatestSequence();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                transferService.importCollection(SELLER, SELLER, CollectionFileFormat.JSON, new ByteArrayInputStream("""
+                        {"cardId": "lea-233", "name": "Lotus Petal", "status": "FOR_SALE", "price": 3}
+                        """.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            marketplaceService.listCardForSale(card.getId(), new BigDecimal("100"), SELLER);
+        });
+
+        assertThat(eventService.eventsAfter(start).getEvents())
+                .extracting(event -> event.getCard().getName())
+                .containsExactly("Black Lotus", "Lotus Petal");
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.config.PresenceProperties;
+import org.example.backend.dto.PresenceChangesDto;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Two instances sharing one {@link InMemoryClusterBus}, each with its own sessions, broker and presence service.
+ */
+class PresenceServiceTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InMemoryClusterBus bus = new InMemoryClusterBus();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    private final class Node {
+        final LocalSessionRegistry sessions;
+        final SimpMessageSendingOperations broker = mock(SimpMessageSendingOperations.class);
+        final PresenceService presence;
+
+        Node(String nodeId) {
+            sessions = new LocalSessionRegistry(nodeId, bus);
+            ClusterMessageRouter router = new ClusterMessageRouter(sessions, bus, bus, broker, objectMapper);
+            router.afterPropertiesSet();
+            PresenceProperties properties = new PresenceProperties();
+            properties.setMaxLookupSize(3);
+            presence = new PresenceService(sessions, bus, router, properties);
+        }
+
+        List<PresenceChangesDto> published() {
+            ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+            verify(broker, atLeast(0)).convertAndSend(eq(PresenceService.TOPIC), payloads.capture());
+            List<PresenceChangesDto> changes = new ArrayList<>();
+            for (Object payload : payloads.getAllValues()) {
+                changes.add(payload instanceof JsonNode json
+                        ? objectMapper.convertValue(json, PresenceChangesDto.class)
+                        : (PresenceChangesDto) payload);
+            }
+            return changes;
+        }
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+    }
+
+    @Test
+    void publishesTheChangesOfAFlushIntervalTogetherOnEveryNode() {
+        nodeA.sessions.sessionOpened("session-1", "user_ann");
+        nodeA.sessions.sessionOpened("session-2", "user_ann"); // Second tab: no change
+        nodeA.sessions.sessionOpened("session-3", "user_bob");
+
+        nodeA.presence.publishChanges();
+
+        assertThat(nodeA.published()).singleElement().satisfies(changes -> {
+            assertThat(changes.getOnline()).containsExactlyInAnyOrder("user_ann", "user_bob");
+            assertThat(changes.getOffline()).isEmpty();
+        });
+        assertThat(nodeB.published()).singleElement()
+                .extracting(PresenceChangesDto::getOnline).asInstanceOf(InstanceOfAssertFactories.LIST)
+                .containsExactlyInAnyOrder("user_ann", "user_bob");
+
+        nodeA.sessions.sessionClosed("session-3");
+        nodeA.presence.publishChanges();
+
+        assertThat(nodeA.published()).last().satisfies(changes -> {
+            assertThat(changes.getOnline()).isEmpty();
+            assertThat(changes.getOffline()).containsExactly("user_bob");
+        });
+    }
+
+    @Test
+    void aReconnectWithinTheFlushIntervalPublishesNothing() {
+        nodeA.sessions.sessionOpened("session-1", "user_ann");
+        nodeA.presence.publishChanges();
+
+        nodeA.sessions.sessionClosed("session-1");
+        nodeA.sessions.sessionOpened("session-2", "user_ann");
+        nodeA.presence.publishChanges();
+
+        verify(nodeA.broker, times(1)).convertAndSend(eq(PresenceService.TOPIC), any(Object.class));
+    }
+
+    @Test
+    void aUserConnectedToAnotherNodeStaysOnline() {
+        nodeA.sessions.sessionOpened("session-1", "user_ann");
+        nodeB.sessions.sessionOpened("session-2", "user_ann");
+        nodeA.presence.publishChanges();
+        nodeB.presence.publishChanges();
+
+        nodeA.sessions.sessionClosed("session-1");
+        nodeA.presence.publishChanges();
+
+        assertThat(nodeA.published()).noneMatch(changes -> changes.getOffline().contains("user_ann"));
+        assertThat(nodeB.presence.presenceOf(List.of("user_ann"))).containsExactly(entry("user_ann", true));
+    }
+
+    @Test
+    void looksUpManyUsersAtOnceAcrossNodes() {
+        nodeA.sessions.sessionOpened("session-1", "user_ann");
+        nodeB.sessions.sessionOpened("session-2", "user_bob");
+
+        assertThat(nodeA.presence.presenceOf(List.of("user_bob", "user_cid", "user_ann", "user_bob")))
+                .containsExactly(entry("user_bob", true), entry("user_cid", false), entry("user_ann", true));
+        assertThatThrownBy(() -> nodeA.presence.presenceOf(List.of("a", "b", "c", "d")))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(nodeA.broker, never()).convertAndSend(eq(PresenceService.TOPIC), any(Object.class));
+    }
+}
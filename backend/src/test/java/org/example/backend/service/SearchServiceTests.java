@@ -0,0 +1,90 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.CardResponseDto;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.SearchScope;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.User;
+import org.example.backend.support.CardDataTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against H2, which takes the plain LIKE fallback; full-text matching only kicks in
+ * on PostgreSQL, and trigram ranking once pg_trgm is installed.
+ */
+class SearchServiceTests extends CardDataTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    private User seller;
+    private User collector;
+
+    @BeforeEach
+    void setUp() {
+        seller = user("seller");
+        collector = user("collector");
+    }
+
+    @Test
+    void prefixMatchesRankFirst() {
+        saveCard(seller, "Black Lotus", CardStatus.FOR_SALE);
+        saveCard(seller, "Lotus Petal", CardStatus.FOR_SALE);
+        saveCard(seller, "Lotus Petal", CardStatus.IN_COLLECTION);
+
+        List<CardResponseDto> items = search("lotus", SearchScope.MARKETPLACE, null, null).getItems();
+
+        assertThat(items).extracting(CardResponseDto::getName).containsExactly("Lotus Petal", "Black Lotus");
+    }
+
+    @Test
+    void collectionScopeOnlySearchesTheCallersCards() {
+        saveCard(seller, "Serra Angel", CardStatus.FOR_SALE);
+        saveCard(collector, "Serra Angel", CardStatus.IN_COLLECTION);
+
+        List<CardResponseDto> items = search("serra", SearchScope.COLLECTION, "collector", null).getItems();
+
+        assertThat(items).singleElement().extracting(CardResponseDto::getUsername).isEqualTo("collector");
+    }
+
+    @Test
+    void cursorWalksThroughAllMatches() {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            cards.add(card(seller, "Lightning Bolt " + i, CardStatus.FOR_SALE));
+        }
+        cardRepository.saveAll(cards);
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<CardResponseDto> page = search("lightning", SearchScope.MARKETPLACE, null, cursor);
+            page.getItems().forEach(dto -> names.add(dto.getName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(names).hasSize(7).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void rejectsTooShortQueriesAndForgedCursors() {
+        assertThatThrownBy(() -> search("a", SearchScope.MARKETPLACE, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> search("lotus", SearchScope.MARKETPLACE, null, "not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid search cursor.");
+    }
+
+    private CursorPageDto<CardResponseDto> search(String query, SearchScope scope, String clerkUserId, String cursor) {
+        return searchService.searchCards(query, scope, clerkUserId, cursor, 3);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.example.backend.dto.CursorPageDto;
+import org.example.backend.dto.UserDto;
+import org.example.backend.model.User;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class UserDirectoryTests {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Cache<String, UserIdentity> identityCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAll(List.of(
+                user("me", "Collector"),
+                user("u1", "alice"),
+                user("u2", "Alice"),
+                user("u3", "alice"),
+                user("u4", "bob"),
+                user("u5", "alfa_x"),
+                user("u6", "ALBERT"),
+                user("u7", "carol:1")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        identityCache.invalidate("nameless");
+    }
+
+    @Test
+    void pagesThroughEveryoneButTheCallerInUsernameOrder() {
+        List<UserDto> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<UserDto> page = userService.getChatUserPage("me", null, cursor, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).extracting(UserDto::getClerkId).doesNotContain("me").doesNotHaveDuplicates().hasSize(7);
+        assertThat(seen).extracting(user -> user.getUsername().toLowerCase())
+                .containsExactly("albert", "alfa_x", "alice", "alice", "alice", "bob", "carol:1");
+    }
+
+    @Test
+    void matchesAUsernamePrefixIgnoringCase() {
+        CursorPageDto<UserDto> page = userService.getChatUserPage("me", "ALI", null, null);
+
+        assertThat(page.getItems()).extracting(UserDto::getClerkId).containsExactlyInAnyOrder("u1", "u2", "u3");
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(userService.getChatUserPage("me", "co", null, null).getItems()).isEmpty();
+    }
+
+    @Test
+    void treatsLikeWildcardsLiterally() {
+        assertThat(userService.getChatUserPage("me", "alfa_", null, null).getItems())
+                .extracting(UserDto::getClerkId).containsExactly("u5");
+        assertThat(userService.getChatUserPage("me", "%", null, null).getItems()).isEmpty();
+        assertThat(userService.getChatUserPage("me", "al_c", null, null).getItems()).isEmpty();
+    }
+
+    @Test
+    void boundsPrefixSearchesByTheirLeadingLettersAndDigits() {
+        assertThat(UserService.PrefixRange.of("ALI")).isEqualTo(new UserService.PrefixRange("ali", "alj"));
+        assertThat(UserService.PrefixRange.of("carol:1")).isEqualTo(new UserService.PrefixRange("carol", "carom"));
+        assertThat(UserService.PrefixRange.of("az9")).isEqualTo(new UserService.PrefixRange("az9", "b"));
+        assertThat(UserService.PrefixRange.of("zz")).isNull();
+        assertThat(UserService.PrefixRange.of("_al")).isNull();
+
+        assertThat(userService.getChatUserPage("me", "Carol:", null, null).getItems())
+                .extracting(UserDto::getClerkId).containsExactly("u7");
+        assertThat(userService.getChatUserPage("me", "alfa_x", null, null).getItems())
+                .extracting(UserDto::getClerkId).containsExactly("u5");
+    }
+
+    @Test
+    void listsUsersWhoSignedUpWithoutAUsernameByTheirClerkId() {
+        userService.findOrCreateUser("nameless", null);
+
+        assertThat(userService.getChatUserPage("me", "NAME", null, null).getItems())
+                .extracting(UserDto::getClerkId, UserDto::getUsername)
+                .containsExactly(tuple("nameless", "nameless"));
+    }
+
+    @Test
+    void rejectsAForgedCursor() {
+        assertThatThrownBy(() -> userService.getChatUserPage("me", null, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static User user(String clerkUserId, String username) {
+        return User.builder().clerkUserId(clerkUserId).username(username).build();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.model.User;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserIdentityTests {
+
+    private static final String USER = "identity-user";
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private Cache<String, UserIdentity> identityCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        identityCache.invalidate(USER);
+    }
+
+    @Test
+    void neverRenamesAnExistingUserAfterTheRequest() {
+        UserIdentity created = userService.findOrCreateUser(USER, "collector");
+        identityCache.invalidate(USER); // Also when the identity is read from the database again
+
+        UserIdentity found = userService.findOrCreateUser(USER, "Me");
+
+        assertThat(found).isEqualTo(created);
+        assertThat(userRepository.findByClerkUserId(USER)).map(User::getUsername).contains("collector");
+    }
+
+    @Test
+    void servesACachedIdentityWithoutATransaction() {
+        UserIdentity created = userService.findOrCreateUser(USER, "collector");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(userService.findOrCreateUser(USER, "collector")).isEqualTo(created);
+        assertThat(statistics.getTransactionCount()).isZero();
+        assertThat(statistics.getSessionOpenCount()).isZero();
+    }
+
+    @Test
+    void forgetsAUserCreatedInATransactionThatRolledBack() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.findOrCreateUser(USER, "collector");
+            status.setRollbackOnly();
+        });
+        assertThat(userRepository.findByClerkUserId(USER)).isEmpty();
+
+        UserIdentity identity = userService.findOrCreateUser(USER, "collector");
+
+        assertThat(userRepository.findById(identity.id())).isPresent();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.backend.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.example.backend.model.Card;
+import org.example.backend.model.CardStatus;
+import org.example.backend.model.User;
+import org.example.backend.model.UserIdentity;
+import org.example.backend.repository.CardRepository;
+import org.example.backend.repository.CollectionStatsRepository;
+import org.example.backend.repository.MarketplaceEventRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.repository.ViewVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Base class for the tests that work on users' cards: the application context without Clerk, factories for
+ * users and cards, and a teardown that empties every table the card and marketplace services write to.
+ */
+@SpringBootTest
+public abstract class CardDataTest {
+
+    @MockitoBean
+    protected JwtDecoder jwtDecoder;
+
+    @Autowired
+    protected CardRepository cardRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected MarketplaceEventRepository eventRepository;
+
+    @Autowired
+    protected ViewVersionRepository viewVersionRepository;
+
+    @Autowired
+    protected CollectionStatsRepository statsRepository;
+
+    @Autowired
+    protected Cache<String, UserIdentity> identityCache;
+
+    @AfterEach
+    void deleteCardData() {
+        // The services cache identities by Clerk id, which the next test may reuse for a new row
+        identityCache.invalidateAll();
+        statsRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        viewVersionRepository.deleteAllInBatch();
+        cardRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Saves a user whose username is their Clerk id.
+     */
+    protected User user(String clerkUserId) {
+        return userRepository.save(User.builder().clerkUserId(clerkUserId).username(clerkUserId).build());
+    }
+
+    /**
+     * A card owned by {@code owner}, not saved yet, with a card id made from its name.
+     */
+    protected static Card card(User owner, String name, CardStatus status, BigDecimal price) {
+        return Card.builder()
+                .name(name)
+                .cardId(name.toLowerCase(Locale.ROOT).replace(' ', '-'))
+                .user(owner)
+                .status(status)
+                .price(price)
+                .build();
+    }
+
+    /**
+     * A card as {@link #card(User, String, CardStatus, BigDecimal)}, priced at 1 unless it is in the collection.
+     */
+    protected static Card card(User owner, String name, CardStatus status) {
+        return card(owner, name, status, status == CardStatus.IN_COLLECTION ? null : BigDecimal.ONE);
+    }
+
+    protected Card saveCard(User owner, String name, CardStatus status, BigDecimal price) {
+        return cardRepository.save(card(owner, name, status, price));
+    }
+
+    protected Card saveCard(User owner, String name, CardStatus status) {
+        return cardRepository.save(card(owner, name, status));
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.backend.support;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Clerk issuer: serves OpenID discovery and a JWK set over local HTTP
+ * and signs tokens with its own RSA key.
+ */
+public class LocalJwtIssuer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final RSAKey signingKey;
+    private final AtomicInteger discoveryRequests = new AtomicInteger();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+
+    public LocalJwtIssuer() {
+        try {
+            signingKey = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (JOSEException | IOException e) {
+            throw new IllegalStateException("Could not start local JWT issuer", e);
+        }
+        server.createContext("/.well-known/openid-configuration", exchange -> {
+            discoveryRequests.incrementAndGet();
+            respond(exchange, "{\"issuer\":\"" + getIssuerUri() + "\",\"jwks_uri\":\"" + getIssuerUri() + "/.well-known/jwks.json\"}");
+        });
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            jwksRequests.incrementAndGet();
+            respond(exchange, new JWKSet(signingKey.toPublicJWK()).toString());
+        });
+        server.start();
+    }
+
+    public String getIssuerUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getDiscoveryRequests() {
+        return discoveryRequests.get();
+    }
+
+    public int getJwksRequests() {
+        return jwksRequests.get();
+    }
+
+    /** Issues a signed token for {@code subject} that expires after {@code ttl}. */
+    public String issue(String subject, Duration ttl) {
+        return sign(signingKey, getIssuerUri(), subject, ttl);
+    }
+
+    /** Issues a token signed by a key this issuer does not publish. */
+    public String issueWithUnknownKey(String subject, Duration ttl) {
+        try {
+            return sign(new RSAKeyGenerator(2048).keyID("unknown").generate(), getIssuerUri(), subject, ttl);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Issues a token signed by this issuer's key but claiming another issuer. */
+    public String issueForIssuer(String issuer, String subject, Duration ttl) {
+        return sign(signingKey, issuer, subject, ttl);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static String sign(RSAKey key, String issuer, String subject, Duration ttl) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .notBeforeTime(Date.from(now.minusSeconds(5)))
+                .expirationTime(Date.from(now.plus(ttl)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
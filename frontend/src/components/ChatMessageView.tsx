@@ -7,7 +7,7 @@ export default function ChatMessageView({
   message: ChatMessage;
   currentUserClerkId: string | null;
 }) {
-  const { content, senderUsername, timestamp, senderClerkId } = message;
+  const { content, senderUsername, timestamp, senderClerkId, status, failed } = message;
 
   // Determine if the sender is the current logged-in user
   const isSender = senderClerkId === currentUserClerkId;
@@ -23,7 +23,22 @@ export default function ChatMessageView({
       <div className="flex justify-end mb-3">
         <div className="mr-2 py-3 px-4 bg-indigo-600 rounded-bl-3xl rounded-tl-3xl rounded-tr-xl text-white max-w-xs md:max-w-md">
           <p className="text-sm">{content}</p>
-          <p className="text-xs text-indigo-200 text-right mt-1">{formattedTime}</p>
+          <p className="text-xs text-indigo-200 text-right mt-1">
+            {formattedTime}
+            {failed && (
+              <span className="ml-1 text-red-200" title="The server did not accept this message">
+                Not sent
+              </span>
+            )}
+            {status && (
+              <span
+                className={`ml-1 ${status === "READ" ? "text-white" : ""}`}
+                title={status.charAt(0) + status.slice(1).toLowerCase()}
+              >
+                {status === "SENT" ? "✓" : "✓✓"}
+              </span>
+            )}
+          </p>
         </div>
       </div>
     );
@@ -1,4 +1,7 @@
+import { useState } from "react";
 import { type UserDto } from "../utils/UserApi";
+import { usePresence } from "../hooks/usePresence";
+import { useUserDirectory } from "../hooks/useUserDirectory";
 
 interface ChatSidebarProps {
   activeRecipient: UserDto | null;
@@ -11,30 +14,95 @@ export default function ChatSidebar({
   onSelectRecipient,
   users,
 }: ChatSidebarProps) {
+  const [searchInput, setSearchInput] = useState("");
+  // The submitted search: while set, the directory replaces the conversation list
+  const [query, setQuery] = useState("");
+  const directory = useUserDirectory(query);
+  const isSearching = query.trim().length > 0;
+  const directoryUsers = directory.data?.pages.flatMap((page) => page.items) ?? [];
+  const shownUsers = isSearching ? directoryUsers : users;
+  const presence = usePresence(shownUsers.map((user) => user.clerkId));
+
+  const clearSearch = () => {
+    setSearchInput("");
+    setQuery("");
+  };
+
+  const selectUser = (user: UserDto) => {
+    if (isSearching) clearSearch();
+    onSelectRecipient(user);
+  };
+
+  let emptyText = "No recent chats.";
+  if (isSearching) {
+    if (directory.isLoading) emptyText = "Searching...";
+    else if (directory.isError) emptyText = "Failed to search users.";
+    else emptyText = "No users found.";
+  }
+
   return (
     <div className="w-1/4 bg-white border-r border-gray-200 flex flex-col">
       <div className="p-4 border-b">
         <h2 className="text-xl font-bold">Conversations</h2>
+        <form
+          className="mt-3 flex gap-2"
+          onSubmit={(e) => {
+            e.preventDefault();
+            setQuery(searchInput);
+          }}
+        >
+          <input
+            type="text"
+            value={searchInput}
+            onChange={(e) => setSearchInput(e.target.value)}
+            className="flex-grow min-w-0 px-3 py-2 border border-gray-300 rounded-lg text-sm focus:outline-none focus:ring-2 focus:ring-blue-500"
+            placeholder="Find a user..."
+          />
+          {isSearching && (
+            <button type="button" onClick={clearSearch} className="text-sm text-gray-500 hover:text-gray-700">
+              Clear
+            </button>
+          )}
+        </form>
       </div>
       <div className="flex-grow overflow-y-auto">
-        {users.length === 0 ? (
+        {shownUsers.length === 0 ? (
           <div className="p-4 text-center text-gray-500 text-sm">
-            No recent chats.
+            {emptyText}
           </div>
         ) : (
-          users.map((user) => (
+          shownUsers.map((user) => (
             <div
               key={user.clerkId}
-              onClick={() => onSelectRecipient(user)}
+              onClick={() => selectUser(user)}
               className={`p-4 cursor-pointer hover:bg-gray-100 ${
                 activeRecipient?.clerkId === user.clerkId ? "bg-gray-200" : ""
               }`}
             >
-              <p className="font-semibold">{user.username}</p>
+              <p className="font-semibold flex items-center gap-2">
+                <span
+                  className={`inline-block w-2 h-2 rounded-full ${
+                    presence[user.clerkId] ? "bg-green-500" : "bg-gray-300"
+                  }`}
+                  title={presence[user.clerkId] ? "Online" : "Offline"}
+                />
+                {user.username}
+              </p>
             </div>
           ))
         )}
+        {isSearching && directory.hasNextPage && (
+          <div className="p-4 text-center">
+            <button
+              onClick={() => directory.fetchNextPage()}
+              disabled={directory.isFetchingNextPage}
+              className="text-sm text-blue-600 hover:underline disabled:text-gray-400"
+            >
+              {directory.isFetchingNextPage ? "Loading..." : "Load more users"}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
-}
\ No newline at end of file
+}
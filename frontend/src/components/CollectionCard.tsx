@@ -36,23 +36,24 @@ export default function CollectionCard({ card }: { card: CardResponseDto }) {
   const { getToken } = useAuth();
   const queryClient = useQueryClient();
 
-  const onMutationSuccess = () => {
+  // Also after a failure: a conflict means the card changed elsewhere, so show its current state
+  const onMutationSettled = () => {
     queryClient.invalidateQueries({ queryKey: ["userCards", user?.id] });
   };
 
   const listMutation = useMutation({
     mutationFn: listCardForSale,
-    onSuccess: onMutationSuccess,
+    onSettled: onMutationSettled,
   });
 
   const unlistMutation = useMutation({
     mutationFn: unlistCard,
-    onSuccess: onMutationSuccess,
+    onSettled: onMutationSettled,
   });
 
   const soldMutation = useMutation({
     mutationFn: markCardAsSold,
-    onSuccess: onMutationSuccess,
+    onSettled: onMutationSettled,
   });
 
   // --- FIX: Relaxed types to 'any' to handle different mutation arguments ---
@@ -74,6 +75,14 @@ export default function CollectionCard({ card }: { card: CardResponseDto }) {
   return (
     <div className="bg-white rounded-lg shadow-md p-4 flex flex-col justify-between transition-shadow hover:shadow-lg">
       <div>
+        {card.imageUrl && (
+          <img
+            src={card.imageUrl}
+            alt={card.name}
+            loading="lazy"
+            className="w-full aspect-[3/4] object-cover rounded-md mb-3"
+          />
+        )}
         <div className="flex justify-between items-start mb-2">
           <h3 className="font-semibold text-lg text-gray-800">{card.name}</h3>
           <StatusBadge status={card.status} />
@@ -27,6 +27,14 @@ export default function MarketplaceCard({ card }: { card: CardResponseDto }) {
     <div className="bg-white rounded-lg shadow-md p-4 flex flex-col justify-between transition-shadow hover:shadow-lg h-full">
       {/* Card Details */}
       <div>
+        {card.imageUrl && (
+          <img
+            src={card.imageUrl}
+            alt={card.name}
+            loading="lazy"
+            className="w-full aspect-[3/4] object-cover rounded-md mb-3"
+          />
+        )}
         <h3
           className="font-semibold text-lg text-gray-800 truncate"
           title={card.name}
@@ -9,7 +9,7 @@ import React, {
 import { useAuth, useUser } from "@clerk/clerk-react";
 import { Client, type IMessage, type StompSubscription } from "@stomp/stompjs";
 import SockJS from "sockjs-client";
-import type { ChatMessage } from "../pages/ChatPage";
+import type { ChatMessage, ChatReceipt, ChatSendError } from "../pages/ChatPage";
 
 interface WebSocketContextType {
   stompClient: Client | null;
@@ -22,6 +22,13 @@ interface WebSocketContextType {
   registerOnMessageCallback: (
     callback: ((message: ChatMessage) => void) | null
   ) => void;
+  registerOnReceiptCallback: (
+    callback: ((receipt: ChatReceipt) => void) | null
+  ) => void;
+  registerOnSendErrorCallback: (
+    callback: ((error: ChatSendError) => void) | null
+  ) => void;
+  acknowledgeRead: (senderClerkId: string, upToMessageId: number) => void;
 }
 
 const WebSocketContext = createContext<WebSocketContextType | null>(null);
@@ -44,6 +51,8 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
   const { user } = useUser();
   const clientRef = useRef<Client | null>(null);
   const subscriptionRef = useRef<StompSubscription | null>(null);
+  const receiptSubscriptionRef = useRef<StompSubscription | null>(null);
+  const errorSubscriptionRef = useRef<StompSubscription | null>(null);
 
   const clerkId = user?.id ?? null;
   const currentUsername = getClerkUsername(user);
@@ -55,6 +64,12 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
   const onMessageCallbackRef = useRef<((message: ChatMessage) => void) | null>(
     null
   );
+  const onReceiptCallbackRef = useRef<((receipt: ChatReceipt) => void) | null>(
+    null
+  );
+  const onSendErrorCallbackRef = useRef<((error: ChatSendError) => void) | null>(
+    null
+  );
 
   useEffect(() => {
     if (isSignedIn && clerkId && !clientRef.current) {
@@ -99,25 +114,75 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
         
         console.log("Subscribing to:", destination);
         
+        const handleIncoming = (incomingMessage: ChatMessage) => {
+          // 1. Access the current callback via Ref
+          if (onMessageCallbackRef.current) {
+            onMessageCallbackRef.current(incomingMessage);
+          }
+
+          // 2. Access the current active partner via Ref
+          const currentPartner = activePartnerIdRef.current;
+
+          // Notification Logic
+          if (incomingMessage.senderClerkId !== currentPartner) {
+            setUnreadSenders((prev) =>
+              new Set(prev.add(incomingMessage.senderClerkId))
+            );
+          }
+        };
+
+        // Tell the server (and through it the sender) which messages arrived, one frame per sender
+        const acknowledgeDelivered = (messages: ChatMessage[]) => {
+          const idsBySender = new Map<string, number[]>();
+          for (const message of messages) {
+            if (message.id === undefined) continue;
+            idsBySender.set(message.senderClerkId, [
+              ...(idsBySender.get(message.senderClerkId) ?? []),
+              message.id,
+            ]);
+          }
+          idsBySender.forEach((delivered, senderClerkId) =>
+            stompClient.publish({
+              destination: "/app/chat/ack",
+              body: JSON.stringify({ senderClerkId, delivered }),
+            })
+          );
+        };
+
         subscriptionRef.current = stompClient.subscribe(
           destination,
           (message: IMessage) => {
             const incomingMessage: ChatMessage = JSON.parse(message.body);
-            
-            // 1. Access the current callback via Ref
-            if (onMessageCallbackRef.current) {
-              onMessageCallbackRef.current(incomingMessage);
-            }
-
-            // 2. Access the current active partner via Ref
-            const currentPartner = activePartnerIdRef.current;
-
-            // Notification Logic
-            if (incomingMessage.senderClerkId !== currentPartner) {
-              setUnreadSenders((prev) =>
-                new Set(prev.add(incomingMessage.senderClerkId))
-              );
-            }
+            handleIncoming(incomingMessage);
+            acknowledgeDelivered([incomingMessage]);
+          }
+        );
+
+        receiptSubscriptionRef.current = stompClient.subscribe(
+          `/user/${clerkId}/private-receipts`,
+          (message: IMessage) => {
+            const receipt: ChatReceipt = JSON.parse(message.body);
+            onReceiptCallbackRef.current?.(receipt);
+          }
+        );
+
+        // Messages of ours the server did not accept
+        errorSubscriptionRef.current = stompClient.subscribe(
+          `/user/${clerkId}/private-errors`,
+          (message: IMessage) => {
+            const error: ChatSendError = JSON.parse(message.body);
+            onSendErrorCallbackRef.current?.(error);
+          }
+        );
+
+        // Messages that arrived while we were offline, in a single frame; answered once, then unsubscribed
+        const pendingSubscription = stompClient.subscribe(
+          "/app/chat/pending",
+          (message: IMessage) => {
+            const pending: ChatMessage[] = JSON.parse(message.body);
+            pending.forEach(handleIncoming);
+            acknowledgeDelivered(pending);
+            pendingSubscription.unsubscribe();
           }
         );
       }
@@ -127,6 +192,10 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
       if (!isConnected && subscriptionRef.current) {
         subscriptionRef.current.unsubscribe();
         subscriptionRef.current = null;
+        receiptSubscriptionRef.current?.unsubscribe();
+        receiptSubscriptionRef.current = null;
+        errorSubscriptionRef.current?.unsubscribe();
+        errorSubscriptionRef.current = null;
       }
     };
   }, [isConnected, stompClient, clerkId]);
@@ -142,6 +211,30 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
     []
   );
 
+  const registerOnReceiptCallback = useCallback(
+    (callback: ((receipt: ChatReceipt) => void) | null) => {
+      onReceiptCallbackRef.current = callback;
+    },
+    []
+  );
+
+  const registerOnSendErrorCallback = useCallback(
+    (callback: ((error: ChatSendError) => void) | null) => {
+      onSendErrorCallbackRef.current = callback;
+    },
+    []
+  );
+
+  const acknowledgeRead = useCallback(
+    (senderClerkId: string, upToMessageId: number) => {
+      stompClient?.publish({
+        destination: "/app/chat/ack",
+        body: JSON.stringify({ senderClerkId, readUpTo: upToMessageId }),
+      });
+    },
+    [stompClient]
+  );
+
   const clearNotificationsFor = useCallback((senderId: string) => {
     setUnreadSenders((prev) => {
       const newSet = new Set(prev);
@@ -161,6 +254,9 @@ export const WebSocketProvider: React.FC<{ children: React.ReactNode }> = ({
         clearNotificationsFor,
         setActiveChatPartner,
         registerOnMessageCallback,
+        registerOnReceiptCallback,
+        registerOnSendErrorCallback,
+        acknowledgeRead,
       }}
     >
       {children}
@@ -1,4 +1,5 @@
 import { useQuery } from "@tanstack/react-query";
+import { useAuth } from "@clerk/clerk-react";
 import { searchCards } from "../utils/cardApi";
 import type { SearchFilters } from "../utils/cardApi";
 
@@ -9,9 +10,14 @@ import type { SearchFilters } from "../utils/cardApi";
  * @returns TanStack Query result
  */
 export function useCardSearch(filters: SearchFilters, enabled: boolean = true) {
+  const { getToken } = useAuth();
   return useQuery({
     queryKey: ["searchCards", filters],
-    queryFn: () => searchCards(filters),
+    queryFn: async () => {
+      const clerkToken = await getToken();
+      if (!clerkToken) throw new Error("Not signed in");
+      return searchCards(filters, clerkToken);
+    },
     enabled: enabled && Boolean(filters.name?.trim()),
     staleTime: 5 * 60 * 1000, // 5 minutes
     gcTime: 10 * 60 * 1000, // 10 minutes
@@ -0,0 +1,129 @@
+import { useCallback, useEffect, useRef } from "react";
+import { useQuery, useQueryClient } from "@tanstack/react-query";
+import { useAuth } from "@clerk/clerk-react";
+import type { IMessage } from "@stomp/stompjs";
+import { useWebSocket } from "../contexts/WebsocketContexts";
+import {
+  fetchAllCardsForSale,
+  fetchMarketplaceEvents,
+  type MarketplaceEvent,
+} from "../utils/marketplaceApi";
+import type { CardResponseDto } from "../utils/cardApi";
+
+const MARKETPLACE_TOPIC = "/topic/marketplace";
+const QUERY_KEY = ["marketplaceCards"];
+// Picks up pushes that were lost, and moves the resume point along
+const CATCH_UP_INTERVAL_MS = 60_000;
+
+interface MarketplaceSnapshot {
+  cards: CardResponseDto[];
+  // Every change up to this sequence number is included in `cards`
+  sequence: number;
+  // Sequence number of the last change applied to each card since then
+  cardSequences: Map<number, number>;
+}
+
+function applyEvents(snapshot: MarketplaceSnapshot, events: MarketplaceEvent[], sequence: number): MarketplaceSnapshot {
+  const byId = new Map(snapshot.cards.map((card) => [card.id, card]));
+  const cardSequences = new Map(snapshot.cardSequences);
+  for (const event of events) {
+    // Changes to one card are numbered in commit order, but may arrive out of order or more than once
+    const applied = cardSequences.get(event.card.id);
+    if (event.sequence <= snapshot.sequence || (applied !== undefined && event.sequence <= applied)) {
+      continue;
+    }
+    cardSequences.set(event.card.id, event.sequence);
+    if (event.type === "LISTED" || event.type === "PRICE_CHANGED") {
+      byId.set(event.card.id, event.card);
+    } else {
+      byId.delete(event.card.id);
+    }
+  }
+  for (const [cardId, applied] of cardSequences) {
+    // Every change up to `sequence` has been applied, so older ones cannot arrive any more
+    if (applied <= sequence) cardSequences.delete(cardId);
+  }
+  return { cards: Array.from(byId.values()), sequence, cardSequences };
+}
+
+/**
+ * Loads the marketplace listings once, then keeps them current from the
+ * /topic/marketplace change feed instead of refetching the whole list.
+ * Sequence numbers have gaps, so missed changes cannot be told from the pushes;
+ * they are fetched from the resume endpoint on reconnect and every minute,
+ * and the listings are reloaded only when those are gone.
+ */
+export function useMarketplaceFeed(enabled: boolean) {
+  const { getToken } = useAuth();
+  const { stompClient, isConnected } = useWebSocket();
+  const queryClient = useQueryClient();
+  const catchingUp = useRef(false);
+
+  const query = useQuery({
+    queryKey: QUERY_KEY,
+    queryFn: async (): Promise<MarketplaceSnapshot> => {
+      const clerkToken = await getToken();
+      if (!clerkToken) {
+        throw new Error("Authentication token not available");
+      }
+      // Read the sequence first: changes made while the listings load are replayed on top, harmlessly
+      const { latestSequence } = await fetchMarketplaceEvents(clerkToken);
+      const result = await fetchAllCardsForSale(clerkToken);
+      return { cards: result.data as CardResponseDto[], sequence: latestSequence, cardSequences: new Map() };
+    },
+    enabled,
+    // Kept current by the change feed
+    staleTime: Infinity,
+    refetchOnWindowFocus: false,
+  });
+
+  // `sequence` is where to resume from next; pushed changes leave it where it is
+  const apply = useCallback(
+    (events: MarketplaceEvent[], sequence?: number) => {
+      queryClient.setQueryData<MarketplaceSnapshot>(QUERY_KEY, (snapshot) => {
+        if (!snapshot) return snapshot;
+        return applyEvents(snapshot, events, Math.max(snapshot.sequence, sequence ?? snapshot.sequence));
+      });
+    },
+    [queryClient]
+  );
+
+  const catchUp = useCallback(async () => {
+    const snapshot = queryClient.getQueryData<MarketplaceSnapshot>(QUERY_KEY);
+    if (!snapshot || catchingUp.current) return;
+    catchingUp.current = true;
+    try {
+      const clerkToken = await getToken();
+      if (!clerkToken) return;
+      const missed = await fetchMarketplaceEvents(clerkToken, snapshot.sequence);
+      if (missed.resyncRequired) {
+        await queryClient.invalidateQueries({ queryKey: QUERY_KEY });
+      } else {
+        apply(missed.events, missed.latestSequence);
+      }
+    } finally {
+      catchingUp.current = false;
+    }
+  }, [apply, getToken, queryClient]);
+
+  useEffect(() => {
+    if (!enabled || !isConnected || !stompClient) return;
+    const resume = () =>
+      catchUp().catch((error) => console.error("Failed to catch up on marketplace changes", error));
+
+    const subscription = stompClient.subscribe(MARKETPLACE_TOPIC, (message: IMessage) => {
+      const events: MarketplaceEvent[] = JSON.parse(message.body);
+      if (events.length > 0) apply(events);
+    });
+    // Changes made while we were not subscribed
+    resume();
+    const interval = window.setInterval(resume, CATCH_UP_INTERVAL_MS);
+
+    return () => {
+      window.clearInterval(interval);
+      subscription.unsubscribe();
+    };
+  }, [enabled, isConnected, stompClient, apply, catchUp]);
+
+  return query;
+}
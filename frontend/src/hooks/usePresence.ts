@@ -0,0 +1,62 @@
+import { useEffect, useMemo } from "react";
+import { useQuery, useQueryClient } from "@tanstack/react-query";
+import { useAuth } from "@clerk/clerk-react";
+import type { IMessage } from "@stomp/stompjs";
+import { useWebSocket } from "../contexts/WebsocketContexts";
+import { fetchPresence } from "../utils/UserApi";
+
+const PRESENCE_TOPIC = "/topic/presence";
+
+interface PresenceChanges {
+  online: string[];
+  offline: string[];
+}
+
+/**
+ * Online status of the given users: loaded in one request, then kept current
+ * from the /topic/presence changes. Reloaded after a reconnect, since changes
+ * published while disconnected are not replayed.
+ */
+export function usePresence(clerkIds: string[]) {
+  const { getToken } = useAuth();
+  const { stompClient, isConnected } = useWebSocket();
+  const queryClient = useQueryClient();
+  // Callers usually pass a fresh array on every render: key on the content instead
+  const idsKey = Array.from(new Set(clerkIds)).sort().join(",");
+  const ids = useMemo(() => (idsKey ? idsKey.split(",") : []), [idsKey]);
+  const queryKey = useMemo(() => ["presence", ids], [ids]);
+
+  const query = useQuery({
+    queryKey,
+    queryFn: async () => {
+      const clerkToken = await getToken();
+      if (!clerkToken) {
+        throw new Error("Authentication token not available");
+      }
+      return fetchPresence(clerkToken, ids);
+    },
+    enabled: ids.length > 0,
+    // Kept current by the topic
+    staleTime: Infinity,
+    refetchOnWindowFocus: false,
+  });
+
+  useEffect(() => {
+    if (!isConnected || !stompClient || ids.length === 0) return;
+    const subscription = stompClient.subscribe(PRESENCE_TOPIC, (message: IMessage) => {
+      const changes: PresenceChanges = JSON.parse(message.body);
+      queryClient.setQueryData<Record<string, boolean>>(queryKey, (presence) => {
+        if (!presence) return presence;
+        const next = { ...presence };
+        changes.online.filter((id) => id in next).forEach((id) => (next[id] = true));
+        changes.offline.filter((id) => id in next).forEach((id) => (next[id] = false));
+        return next;
+      });
+    });
+    queryClient.invalidateQueries({ queryKey });
+
+    return () => subscription.unsubscribe();
+  }, [isConnected, stompClient, ids, queryKey, queryClient]);
+
+  return query.data ?? {};
+}
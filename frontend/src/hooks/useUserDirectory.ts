@@ -0,0 +1,26 @@
+import { useInfiniteQuery } from "@tanstack/react-query";
+import { useAuth } from "@clerk/clerk-react";
+import { fetchUserDirectory } from "../utils/UserApi";
+
+/**
+ * Users whose username starts with {@code query}, one directory page at a time,
+ * for starting a chat with someone not in the conversation list yet.
+ * @param query - Username prefix; nothing is fetched while it is blank
+ */
+export function useUserDirectory(query: string) {
+  const { getToken } = useAuth();
+  const trimmed = query.trim();
+  return useInfiniteQuery({
+    queryKey: ["userDirectory", trimmed],
+    queryFn: async ({ pageParam }) => {
+      const clerkToken = await getToken();
+      if (!clerkToken) throw new Error("Not signed in");
+      const result = await fetchUserDirectory(clerkToken, trimmed, pageParam);
+      return result.data;
+    },
+    initialPageParam: null as string | null,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor : undefined),
+    enabled: trimmed.length > 0,
+    staleTime: 60 * 1000, // 1 minute
+  });
+}
@@ -1,4 +1,4 @@
-import { useState, useEffect, useRef, useCallback } from "react";
+import { useState, useEffect, useLayoutEffect, useRef, useCallback } from "react";
 import { useWebSocket } from "../contexts/WebsocketContexts";
 import ChatSidebar from "../components/ChatSidebar";
 import ChatMessageView from "../components/ChatMessageView";
@@ -8,16 +8,49 @@ import { useAuth } from "@clerk/clerk-react";
 import { useLocation } from "@tanstack/react-router";
 
 export interface ChatMessage {
+  id?: number;
   senderClerkId: string;
   recipientClerkId: string;
   senderUsername: string;
   recipientUsername: string;
   content: string;
   timestamp: string;
+  status?: MessageStatus; // Set by the server
+  failed?: boolean; // Set locally when the server did not accept the message
+}
+
+export type MessageStatus = "SENT" | "DELIVERED" | "READ";
+
+// Sent to the author of messages when their recipient acknowledged them
+export interface ChatReceipt {
+  recipientClerkId: string;
+  delivered: number[];
+  readUpTo: number | null;
+}
+
+// Sent to the author of a message the server did not accept, e.g. while overloaded
+export interface ChatSendError {
+  recipientClerkId: string;
+  timestamp: string;
+  message: string;
+}
+
+function applyReceipt(messages: ChatMessage[], receipt: ChatReceipt): ChatMessage[] {
+  const delivered = new Set(receipt.delivered);
+  return messages.map((message): ChatMessage => {
+    if (message.id === undefined || message.recipientClerkId !== receipt.recipientClerkId) return message;
+    if (receipt.readUpTo !== null && message.id <= receipt.readUpTo) return { ...message, status: "READ" };
+    if (delivered.has(message.id) && message.status !== "READ") return { ...message, status: "DELIVERED" };
+    return message;
+  });
 }
 
 type Conversations = Record<string, ChatMessage[]>;
 
+const HISTORY_PAGE_SIZE = 50;
+// Older messages are loaded once the reader scrolls this close to the top
+const LOAD_OLDER_THRESHOLD_PX = 80;
+
 export default function ChatPage() {
   const {
     isConnected,
@@ -27,6 +60,9 @@ export default function ChatPage() {
     clearNotificationsFor,
     setActiveChatPartner,
     registerOnMessageCallback,
+    registerOnReceiptCallback,
+    registerOnSendErrorCallback,
+    acknowledgeRead,
   } = useWebSocket();
 
   const { getToken } = useAuth();
@@ -36,9 +72,15 @@ export default function ChatPage() {
   const [activeRecipient, setActiveRecipient] = useState<UserDto | null>(null);
   const [currentMessage, setCurrentMessage] = useState("");
   const [isLoadingHistory, setIsLoadingHistory] = useState(false);
+  // Per conversation: whether the server may have messages older than the ones loaded
+  const [hasOlder, setHasOlder] = useState<Record<string, boolean>>({});
+  const [isLoadingOlder, setIsLoadingOlder] = useState(false);
   const [sidebarUsers, setSidebarUsers] = useState<UserDto[]>([]); 
   
   const endOfMessagesRef = useRef<HTMLDivElement>(null);
+  const messageListRef = useRef<HTMLDivElement>(null);
+  // Set while older messages are prepended: keep the reader's place instead of jumping to the end
+  const prependedFromHeight = useRef<number | null>(null);
   const hasInitializedFromUrl = useRef(false);
 
   useEffect(() => {
@@ -71,14 +113,6 @@ export default function ChatPage() {
 
       handleSelectRecipient(sellerDto);
 
-      setSidebarUsers((prev) => {
-        const exists = prev.some((u) => u.clerkId === partnerId);
-        if (!exists) {
-          return [sellerDto, ...prev];
-        }
-        return prev;
-      });
-
       window.history.replaceState({}, "", "/chat");
     }
   }, [location.search, clerkId]);
@@ -124,17 +158,78 @@ export default function ChatPage() {
     };
   }, [registerOnMessageCallback, onMessageReceived]);
 
+  useEffect(() => {
+    registerOnReceiptCallback((receipt) =>
+      setConversations((prev) => {
+        const messages = prev[receipt.recipientClerkId];
+        if (!messages) return prev;
+        return { ...prev, [receipt.recipientClerkId]: applyReceipt(messages, receipt) };
+      })
+    );
+    return () => {
+      registerOnReceiptCallback(null);
+    };
+  }, [registerOnReceiptCallback]);
+
+  useEffect(() => {
+    registerOnSendErrorCallback((error) =>
+      setConversations((prev) => {
+        const messages = prev[error.recipientClerkId];
+        if (!messages) return prev;
+        return {
+          ...prev,
+          [error.recipientClerkId]: messages.map((m): ChatMessage =>
+            m.id === undefined && m.senderClerkId === clerkId && m.timestamp === error.timestamp
+              ? { ...m, failed: true }
+              : m
+          ),
+        };
+      })
+    );
+    return () => {
+      registerOnSendErrorCallback(null);
+    };
+  }, [registerOnSendErrorCallback, clerkId]);
+
+  // Everything shown in the open conversation counts as read
+  useEffect(() => {
+    if (!activeRecipient) return;
+    const partnerId = activeRecipient.clerkId;
+    const unread = (conversations[partnerId] || []).filter(
+      (m) => m.senderClerkId === partnerId && m.id !== undefined && m.status !== "READ"
+    );
+    if (unread.length === 0) return;
+    const upTo = Math.max(...unread.map((m) => m.id as number));
+    acknowledgeRead(partnerId, upTo);
+    setConversations((prev) => ({
+      ...prev,
+      [partnerId]: (prev[partnerId] || []).map((m): ChatMessage =>
+        m.senderClerkId === partnerId && m.id !== undefined && m.id <= upTo ? { ...m, status: "READ" } : m
+      ),
+    }));
+  }, [activeRecipient, conversations, acknowledgeRead]);
+
   useEffect(() => {
     if (activeRecipient) setActiveChatPartner(activeRecipient.clerkId);
     return () => setActiveChatPartner(null);
   }, [activeRecipient, setActiveChatPartner]);
 
-  useEffect(() => {
+  useLayoutEffect(() => {
+    const list = messageListRef.current;
+    if (prependedFromHeight.current !== null && list) {
+      list.scrollTop += list.scrollHeight - prependedFromHeight.current;
+      prependedFromHeight.current = null;
+      return;
+    }
     endOfMessagesRef.current?.scrollIntoView({ behavior: "smooth" });
   }, [conversations, activeRecipient]);
 
   const handleSelectRecipient = async (user: UserDto) => {
     setActiveRecipient(user);
+    // New partners, e.g. from the URL or the user directory, join the conversation list
+    setSidebarUsers((prev) =>
+      prev.some((u) => u.clerkId === user.clerkId) ? prev : [user, ...prev]
+    );
     clearNotificationsFor(user.clerkId);
 
     if (conversations[user.clerkId]) return;
@@ -143,11 +238,12 @@ export default function ChatPage() {
     try {
       const token = await getToken();
       if (!token) throw new Error("Not authenticated");
-      const response = await fetchChatHistory(user.clerkId, token);
+      const response = await fetchChatHistory(user.clerkId, token, { limit: HISTORY_PAGE_SIZE });
       setConversations((prev) => ({
         ...prev,
         [user.clerkId]: response.data,
       }));
+      setHasOlder((prev) => ({ ...prev, [user.clerkId]: response.data.length === HISTORY_PAGE_SIZE }));
     } catch (error) {
       console.error("Failed to load chat history:", error);
     } finally {
@@ -155,12 +251,49 @@ export default function ChatPage() {
     }
   };
 
+  const loadOlderMessages = async () => {
+    if (!activeRecipient || isLoadingOlder || !hasOlder[activeRecipient.clerkId]) return;
+    const partnerId = activeRecipient.clerkId;
+    const loadedIds = (conversations[partnerId] || [])
+      .map((m) => m.id)
+      .filter((id): id is number => id !== undefined);
+    if (loadedIds.length === 0) return;
+
+    setIsLoadingOlder(true);
+    try {
+      const token = await getToken();
+      if (!token) throw new Error("Not authenticated");
+      const response = await fetchChatHistory(partnerId, token, {
+        before: Math.min(...loadedIds),
+        limit: HISTORY_PAGE_SIZE,
+      });
+      prependedFromHeight.current = messageListRef.current?.scrollHeight ?? null;
+      setConversations((prev) => {
+        const current = prev[partnerId] || [];
+        const known = new Set(current.map((m) => m.id));
+        const older = response.data.filter((m) => !known.has(m.id));
+        return { ...prev, [partnerId]: [...older, ...current] };
+      });
+      setHasOlder((prev) => ({ ...prev, [partnerId]: response.data.length === HISTORY_PAGE_SIZE }));
+    } catch (error) {
+      console.error("Failed to load older messages:", error);
+    } finally {
+      setIsLoadingOlder(false);
+    }
+  };
+
+  const onMessageListScroll = () => {
+    if ((messageListRef.current?.scrollTop ?? Infinity) < LOAD_OLDER_THRESHOLD_PX) {
+      loadOlderMessages();
+    }
+  };
+
   const sendMessage = () => {
     if (!currentMessage.trim() || !stompClient || !clerkId || !activeRecipient) return;
 
-    const senderName = currentUsername || "Me";
     const chatMessage: ChatMessage = {
-      senderUsername: senderName,
+      // Sent as is: the backend names a new user after it, so never send a placeholder
+      senderUsername: currentUsername ?? "",
       recipientUsername: activeRecipient.username,
       senderClerkId: clerkId,
       recipientClerkId: activeRecipient.clerkId,
@@ -175,7 +308,8 @@ export default function ChatPage() {
 
     setConversations((prev) => {
       const previousMessages = prev[activeRecipient.clerkId] || [];
-      return { ...prev, [activeRecipient.clerkId]: [...previousMessages, chatMessage] };
+      const shown = { ...chatMessage, senderUsername: currentUsername || "Me" };
+      return { ...prev, [activeRecipient.clerkId]: [...previousMessages, shown] };
     });
 
     setCurrentMessage("");
@@ -211,7 +345,22 @@ export default function ChatPage() {
                 {activeRecipient ? `Chat with ${activeRecipient.username}` : "Select a Chat"}
               </h2>
             </div>
-            <div className="flex-grow p-4 overflow-y-auto bg-gray-50">
+            <div
+              ref={messageListRef}
+              onScroll={onMessageListScroll}
+              className="flex-grow p-4 overflow-y-auto bg-gray-50"
+            >
+              {activeRecipient && hasOlder[activeRecipient.clerkId] && (
+                <div className="text-center mb-4">
+                  <button
+                    onClick={loadOlderMessages}
+                    disabled={isLoadingOlder}
+                    className="text-sm text-indigo-600 hover:text-indigo-800 disabled:text-gray-400"
+                  >
+                    {isLoadingOlder ? "Loading older messages..." : "Load older messages"}
+                  </button>
+                </div>
+              )}
               {activeRecipient ? (
                 isLoadingHistory && activeMessages.length === 0 ? (
                   <p className="text-center text-gray-500">Loading history...</p>
@@ -1,7 +1,7 @@
 import { useQuery } from "@tanstack/react-query";
 import { useUser, useAuth } from "@clerk/clerk-react";
 import type { CardResponseDto } from "../utils/cardApi";
-import { fetchUserCollection } from "../utils/fetchUserCollection";
+import { fetchCollectionStats, fetchUserCollection } from "../utils/fetchUserCollection";
 import CardSection from "../components/CardSection"; 
 
 export default function CollectionsPage() {
@@ -22,6 +22,19 @@ export default function CollectionsPage() {
     enabled: !!userId,
   });
 
+  // Nested under "userCards" so that invalidating the collection refreshes the totals too
+  const { data: stats } = useQuery({
+    queryKey: ["userCards", userId, "stats"],
+    queryFn: async () => {
+      const clerkToken = await getToken();
+      if (!userId || !clerkToken) {
+        throw new Error("User or token not available");
+      }
+      return fetchCollectionStats(userId, clerkToken);
+    },
+    enabled: !!userId,
+  });
+
   if (!userId) {
     return (
       <div className="p-8 text-center">
@@ -60,6 +73,14 @@ export default function CollectionsPage() {
           Your Collection
         </h2>
 
+        {stats && stats.totalCount > 0 && (
+          <div className="mb-8 flex flex-wrap justify-center gap-6 text-gray-700">
+            <span>{stats.totalCount} cards</span>
+            <span>{stats.forSaleCount} for sale ({stats.listedValue.toFixed(2)})</span>
+            <span>{stats.soldCount} sold ({stats.soldValue.toFixed(2)})</span>
+          </div>
+        )}
+
         {cards.length === 0 ? (
           <div className="text-center text-gray-500 mt-12">
             <p>No cards in your collection yet.</p>
@@ -1,34 +1,21 @@
 import { useState, useMemo } from "react"; // 👈 Import useState and useMemo
-import { useQuery } from "@tanstack/react-query";
-import { useAuth, useUser } from "@clerk/clerk-react";
-import { fetchAllCardsForSale } from "../utils/marketplaceApi";
-import type { CardResponseDto } from "../utils/cardApi";
+import { useUser } from "@clerk/clerk-react";
 import MarketplaceCard from "../components/MarketplaceCard";
+import { useMarketplaceFeed } from "../hooks/useMarketplaceFeed";
 
 // Define the possible sort options
 type SortOrder = "price_asc" | "price_desc" | "name_asc" | "name_desc";
 
 export default function MarketplacePage() {
   const { user } = useUser();
-  const { getToken } = useAuth();
   const userId = user?.id;
 
   const [searchTerm, setSearchTerm] = useState("");
   const [sortOrder, setSortOrder] = useState<SortOrder>("price_asc");
 
-  const { data, isLoading, error } = useQuery({
-    queryKey: ["marketplaceCards"],
-    queryFn: async () => {
-      const clerkToken = await getToken();
-      if (!clerkToken) {
-        throw new Error("Authentication token not available");
-      }
-      const result = await fetchAllCardsForSale(clerkToken);
-      return result.data as CardResponseDto[];
-    },
-    enabled: !!userId,
-  });
-  const cards = data || [];
+  // Live: listings are updated from the marketplace change feed
+  const { data, isLoading, error } = useMarketplaceFeed(!!userId);
+  const cards = data?.cards || [];
   const filteredAndSortedCards = useMemo(() => {
     let filtered = cards;
 
@@ -17,6 +17,57 @@ export async function fetchChatPartners(clerkToken: string): Promise<ApiResponse
   return response.json();
 }
 
+export interface UserPage {
+  items: UserDto[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+/**
+ * Fetches one page of the user directory, ordered by username. The current user is never included.
+ * @param query - Optional username prefix, case-insensitive
+ * @param cursor - The nextCursor of the previous page, if any
+ */
+export async function fetchUserDirectory(
+  clerkToken: string,
+  query?: string,
+  cursor?: string | null
+): Promise<ApiResponse<UserPage>> {
+  const params = new URLSearchParams();
+  if (query?.trim()) params.append("q", query.trim());
+  if (cursor) params.append("cursor", cursor);
+  const endpoint = `${BACKEND_API}/api/v1/users?${params.toString()}`;
+
+  const response = await fetch(endpoint, {
+    method: "GET",
+    headers: { Authorization: `Bearer ${clerkToken}` },
+  });
+
+  if (!response.ok) throw new Error("Failed to fetch users");
+  return response.json();
+}
+
+/**
+ * Tells which of the given users are online, keyed by Clerk ID.
+ */
+export async function fetchPresence(
+  clerkToken: string,
+  clerkIds: string[]
+): Promise<Record<string, boolean>> {
+  const params = new URLSearchParams();
+  clerkIds.forEach((id) => params.append("ids", id));
+  const endpoint = `${BACKEND_API}/api/v1/users/presence?${params.toString()}`;
+
+  const response = await fetch(endpoint, {
+    method: "GET",
+    headers: { Authorization: `Bearer ${clerkToken}` },
+  });
+
+  if (!response.ok) throw new Error("Failed to fetch presence");
+  const result: ApiResponse<Record<string, boolean>> = await response.json();
+  return result.data;
+}
+
 interface ApiResponse<T> {
   success: boolean;
   data: T;
@@ -9,6 +9,12 @@ export type CardResponseDto = {
   username: string;
   status: CardStatus;
   price: number | null;
+  // From the backend's card catalog, missing for cards it does not know
+  imageUrl?: string | null;
+  type?: string | null;
+  rarity?: string | null;
+  setCode?: string | null;
+  setName?: string | null;
 };
 
 export interface Card {
@@ -25,6 +31,7 @@ export interface Card {
   subtypes?: string[];
   rarity: string;
   set: string;
+  setName?: string;
   text?: string;
   artist?: string;
   number?: string;
@@ -44,6 +51,21 @@ export interface SearchResponse {
   total: number;
 }
 
+const BACKEND_API = import.meta.env.VITE_BACKEND_API;
+
+// Standard API response shape
+interface ApiResponse<T> {
+  success: boolean;
+  data: T;
+  message: string;
+}
+
+interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 // MTG API response interface
 interface MTGCard {
   name: string;
@@ -58,6 +80,7 @@ interface MTGCard {
   subtypes?: string[];
   rarity: string;
   set: string;
+  setName?: string;
   text?: string;
   artist?: string;
   number?: string;
@@ -74,66 +97,23 @@ interface MTGApiResponse {
 }
 
 /**
- * Search for cards based on provided filters
+ * Search the backend's local card catalog by name (prefix and typo-tolerant matching).
+ * The catalog is empty until it has been imported, so when it has no match the
+ * search falls back to the upstream MTG API (if VITE_MTG_API is set).
  * @param filters - Search criteria
+ * @param clerkToken - The current user's authentication token
  * @returns Promise with search results
  */
 export async function searchCards(
-  filters: SearchFilters
+  filters: SearchFilters,
+  clerkToken: string
 ): Promise<SearchResponse> {
   try {
-    // Get the API base URL from environment variables
-    const apiBaseUrl = import.meta.env.VITE_MTG_API;
-
-    if (!apiBaseUrl) {
-      throw new Error("VITE_MTG_API environment variable is not set");
-    }
-
-    // Build the search URL
-    const searchParams = new URLSearchParams();
-    if (filters.name) {
-      searchParams.append("name", filters.name);
+    let cards = await searchCatalog(filters, clerkToken);
+    if (cards.length === 0 && import.meta.env.VITE_MTG_API) {
+      cards = await searchUpstream(filters);
     }
 
-    const url = `${apiBaseUrl}/cards?${searchParams.toString()}`;
-
-    console.log("Making API call to:", url);
-
-    // Make the API call
-    const response = await fetch(url);
-
-    if (!response.ok) {
-      throw new Error(
-        `API request failed: ${response.status} ${response.statusText}`
-      );
-    }
-
-    const data: MTGApiResponse = await response.json();
-
-    // Map MTG API response to our Card interface
-    const cards: Card[] = data.cards.map((mtgCard) => ({
-      id: mtgCard.id,
-      name: mtgCard.name,
-      names: mtgCard.names,
-      manaCost: mtgCard.manaCost,
-      cmc: mtgCard.cmc,
-      colors: mtgCard.colors,
-      colorIdentity: mtgCard.colorIdentity,
-      type: mtgCard.type,
-      supertypes: mtgCard.supertypes,
-      types: mtgCard.types,
-      subtypes: mtgCard.subtypes,
-      rarity: mtgCard.rarity,
-      set: mtgCard.set,
-      text: mtgCard.text,
-      artist: mtgCard.artist,
-      number: mtgCard.number,
-      power: mtgCard.power,
-      toughness: mtgCard.toughness,
-      layout: mtgCard.layout,
-      imageUrl: mtgCard.imageUrl,
-    }));
-
     return {
       cards,
       total: cards.length,
@@ -147,3 +127,74 @@ export async function searchCards(
     );
   }
 }
+
+async function searchCatalog(
+  filters: SearchFilters,
+  clerkToken: string
+): Promise<Card[]> {
+  const searchParams = new URLSearchParams();
+  searchParams.append("q", filters.name?.trim() ?? "");
+  searchParams.append("limit", "50");
+
+  const url = `${BACKEND_API}/api/v1/search/catalog?${searchParams.toString()}`;
+
+  const response = await fetch(url, {
+    method: "GET",
+    headers: {
+      Authorization: `Bearer ${clerkToken}`,
+    },
+  });
+
+  if (!response.ok) {
+    throw new Error(
+      `API request failed: ${response.status} ${response.statusText}`
+    );
+  }
+
+  const result: ApiResponse<CursorPage<Card>> = await response.json();
+  return result.data.items;
+}
+
+async function searchUpstream(filters: SearchFilters): Promise<Card[]> {
+  const searchParams = new URLSearchParams();
+  if (filters.name) {
+    searchParams.append("name", filters.name);
+  }
+
+  const url = `${import.meta.env.VITE_MTG_API}/cards?${searchParams.toString()}`;
+
+  const response = await fetch(url);
+
+  if (!response.ok) {
+    throw new Error(
+      `API request failed: ${response.status} ${response.statusText}`
+    );
+  }
+
+  const data: MTGApiResponse = await response.json();
+
+  // Map MTG API response to our Card interface
+  return data.cards.map((mtgCard) => ({
+    id: mtgCard.id,
+    name: mtgCard.name,
+    names: mtgCard.names,
+    manaCost: mtgCard.manaCost,
+    cmc: mtgCard.cmc,
+    colors: mtgCard.colors,
+    colorIdentity: mtgCard.colorIdentity,
+    type: mtgCard.type,
+    supertypes: mtgCard.supertypes,
+    types: mtgCard.types,
+    subtypes: mtgCard.subtypes,
+    rarity: mtgCard.rarity,
+    set: mtgCard.set,
+    setName: mtgCard.setName,
+    text: mtgCard.text,
+    artist: mtgCard.artist,
+    number: mtgCard.number,
+    power: mtgCard.power,
+    toughness: mtgCard.toughness,
+    layout: mtgCard.layout,
+    imageUrl: mtgCard.imageUrl,
+  }));
+}
@@ -9,16 +9,30 @@ interface ApiResponse<T> {
   message: string;
 }
 
+// Paging options for the history endpoint; omit all of them for the latest page
+export interface HistoryPageOptions {
+  before?: number; // load older messages than this id
+  since?: number; // load only messages newer than this id
+  limit?: number;
+}
+
 /**
- * Fetches the persistent chat history for a conversation.
+ * Fetches one page of the persistent chat history for a conversation.
  * @param recipientClerkId The unique ID of the person being chatted with.
  * @param clerkToken The current user's authentication token.
+ * @param options Optional keyset paging parameters.
  */
 export async function fetchChatHistory(
   recipientClerkId: string,
-  clerkToken: string
+  clerkToken: string,
+  options: HistoryPageOptions = {}
 ): Promise<ApiResponse<ChatMessage[]>> {
-  const endpoint = `${BACKEND_API}/api/v1/chat/history/${recipientClerkId}`;
+  const searchParams = new URLSearchParams();
+  if (options.before !== undefined) searchParams.append("before", String(options.before));
+  if (options.since !== undefined) searchParams.append("since", String(options.since));
+  if (options.limit !== undefined) searchParams.append("limit", String(options.limit));
+  const query = searchParams.toString();
+  const endpoint = `${BACKEND_API}/api/v1/chat/history/${recipientClerkId}${query ? `?${query}` : ""}`;
 
   const response = await fetch(endpoint, {
     method: "GET",
@@ -12,3 +12,30 @@ export async function fetchUserCollection(userId: string, clerkToken: string) {
   const result = await response.json();
   return result;
 }
+
+export interface CollectionStats {
+  inCollectionCount: number;
+  forSaleCount: number;
+  soldCount: number;
+  totalCount: number;
+  // Sum of the asking prices of the cards listed for sale
+  listedValue: number;
+  // Sum of the prices of the cards sold
+  soldValue: number;
+}
+
+// Fetch the card counts and marketplace totals of a user's collection
+export async function fetchCollectionStats(userId: string, clerkToken: string): Promise<CollectionStats> {
+  const endpoint = `${BACKEND_API}/api/v1/collection/stats?userId=${userId}`;
+  const response = await fetch(endpoint, {
+    method: "GET",
+    headers: {
+      Authorization: `Bearer ${clerkToken}`,
+    },
+  });
+  if (!response.ok) {
+    throw new Error("Failed to fetch collection statistics");
+  }
+  const result = await response.json();
+  return result.data as CollectionStats;
+}
@@ -1,3 +1,5 @@
+import type { CardResponseDto } from "./cardApi";
+
 const BACKEND_API = import.meta.env.VITE_BACKEND_API;
 
 interface ApiArgs {
@@ -22,7 +24,9 @@ async function makePutRequest(endpoint: string, clerkToken: string, body: object
   });
 
   if (!response.ok) {
-    throw new Error("Failed to update card status");
+    // e.g. 409 when the card was changed by another request in the meantime
+    const error = await response.json().catch(() => null);
+    throw new Error(error?.message ?? "Failed to update card status");
   }
 
   return response.json();
@@ -57,6 +61,46 @@ export async function markCardAsSold({ cardDbId, userId, clerkToken }: ApiArgs)
   return makePutRequest(endpoint, clerkToken, { userId });
 }
 
+interface BatchArgs {
+  cardDbIds: number[];
+  clerkToken: string;
+  userId: string;
+}
+
+/**
+ * Lists or reprices many cards at once, all or nothing.
+ */
+export async function listCardsForSale(
+  cards: { cardDbId: number; price: number }[],
+  userId: string,
+  clerkToken: string
+): Promise<CardResponseDto[]> {
+  const endpoint = `${BACKEND_API}/api/v1/marketplace/batch/list`;
+  const result = await makePutRequest(endpoint, clerkToken, { cards, userId });
+  return result.data;
+}
+
+/**
+ * Removes many cards from the marketplace at once. Cards that are not listed are left as they are.
+ */
+export async function unlistCards({ cardDbIds, userId, clerkToken }: BatchArgs): Promise<CardResponseDto[]> {
+  const endpoint = `${BACKEND_API}/api/v1/marketplace/batch/unlist`;
+  const result = await makePutRequest(endpoint, clerkToken, { cardDbIds, userId });
+  return result.data;
+}
+
+/**
+ * Changes the price of many listed cards by the same percentage, e.g. -10 for a 10% discount.
+ */
+export async function repriceCards(
+  { cardDbIds, userId, clerkToken }: BatchArgs,
+  percentChange: number
+): Promise<CardResponseDto[]> {
+  const endpoint = `${BACKEND_API}/api/v1/marketplace/batch/reprice`;
+  const result = await makePutRequest(endpoint, clerkToken, { cardDbIds, percentChange, userId });
+  return result.data;
+}
+
 /**
  * Fetches all cards listed for sale on the marketplace.
  * This is a public endpoint, but we send the token for authentication.
@@ -75,4 +119,41 @@ export async function fetchAllCardsForSale(clerkToken: string) {
   }
 
   return response.json();
-}
\ No newline at end of file
+}
+
+export type MarketplaceEventType = "LISTED" | "PRICE_CHANGED" | "UNLISTED" | "SOLD";
+
+export interface MarketplaceEvent {
+  sequence: number;
+  type: MarketplaceEventType;
+  // The card after the change
+  card: CardResponseDto;
+}
+
+export interface MarketplaceEvents {
+  events: MarketplaceEvent[];
+  latestSequence: number;
+  // The missed changes are gone: reload the listings instead
+  resyncRequired: boolean;
+}
+
+/**
+ * Fetches the marketplace changes after sequence number `after`,
+ * or only the latest sequence number when `after` is omitted.
+ */
+export async function fetchMarketplaceEvents(clerkToken: string, after?: number): Promise<MarketplaceEvents> {
+  const query = after === undefined ? "" : `?after=${after}`;
+  const response = await fetch(`${BACKEND_API}/api/v1/marketplace/events${query}`, {
+    method: "GET",
+    headers: {
+      Authorization: `Bearer ${clerkToken}`,
+    },
+  });
+
+  if (!response.ok) {
+    throw new Error("Failed to fetch marketplace events");
+  }
+
+  const result = await response.json();
+  return result.data as MarketplaceEvents;
+}